@@ -0,0 +1,137 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Log file written with an AsynchronousFileChannel, so a slow disk never stalls the player writing it.
+ * Lines are collected in a pooled direct buffer; a full buffer is handed to the channel at the file
+ * position it belongs at, and the player carries on straight away while the write completes in the
+ * background. Because every write has its own position, writes may complete in any order.
+ * Closing hands off the last partial buffer and waits until every write has landed.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+class AsyncLogFile extends LogFile {
+    private static final BufferPool BUFFERS = new BufferPool(8 * 1024, 256);
+
+    private AsynchronousFileChannel channel;
+    private ByteBuffer current;
+    private long position; // File position of the next buffer handed off
+    private final AtomicInteger pendingWrites = new AtomicInteger(); // Changed under this lock, read without it
+    private IOException failure;
+
+    AsyncLogFile(File file, boolean append) {
+        super(file, append);
+    }
+
+    @Override
+    protected void write(byte[] bytes, int length) throws IOException {
+        if (channel == null) {
+            open();
+        }
+        if (current != null && current.remaining() < length) {
+            handOff();
+        }
+        if (current == null) {
+            current = length <= BUFFERS.getBufferSize() ? BUFFERS.acquire() : ByteBuffer.allocateDirect(length);
+        }
+        current.put(bytes, 0, length);
+    }
+
+    private void open() throws IOException {
+        channel = AsynchronousFileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (!append) {
+            channel.truncate(0);
+        }
+        position = channel.size();
+        failure = null;
+    }
+
+    // Starts writing the current buffer; called with the lock held
+    private void handOff() {
+        ByteBuffer buffer = current;
+        current = null;
+        buffer.flip();
+        long bufferPosition = position;
+        position += buffer.remaining();
+        pendingWrites.incrementAndGet();
+        channel.write(buffer, bufferPosition, bufferPosition, new CompletionHandler<Integer, Long>() {
+            @Override
+            public void completed(Integer written, Long writePosition) {
+                if (buffer.hasRemaining()) {
+                    // Partial write: continue from where it stopped
+                    channel.write(buffer, writePosition + written, writePosition + written, this);
+                    return;
+                }
+                finished(buffer, null);
+            }
+
+            @Override
+            public void failed(Throwable e, Long writePosition) {
+                finished(buffer, e);
+            }
+        });
+    }
+
+    private synchronized void finished(ByteBuffer buffer, Throwable e) {
+        BUFFERS.release(buffer);
+        if (e != null && failure == null) {
+            failure = e instanceof IOException ? (IOException) e : new IOException(e);
+        }
+        pendingWrites.decrementAndGet(); // Under the lock, so close cannot miss the wake-up
+        notifyAll();
+    }
+
+    /**
+     * @return the number of buffers handed off that have not been written yet; read without the file's lock,
+     * so stats can poll it without slowing the player writing the file
+     */
+    int getPendingWrites() {
+        return pendingWrites.get();
+    }
+
+    @Override
+    int getQueueDepth() {
+        return getPendingWrites();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        if (current != null && current.position() > 0) {
+            handOff();
+        } else if (current != null) {
+            BUFFERS.release(current);
+            current = null;
+        }
+
+        boolean interrupted = false;
+        while (pendingWrites.get() > 0) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true; // Keep waiting: the game must not finish before its files
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (failure != null) {
+            System.err.println("Error writing to file " + file + ": " + failure.getMessage());
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing file " + file + ": " + e.getMessage());
+        }
+        channel = null;
+    }
+}
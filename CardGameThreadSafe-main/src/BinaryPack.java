@@ -0,0 +1,191 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binary pack files, which load without parsing any text.
+ * A binary pack is a 16-byte header followed by the face values, packed at the narrowest width that fits them:
+ * <pre>
+ *   magic "CPAK" (4 bytes), version (2), value width in bytes: 1, 2 or 4 (1), reserved (1),
+ *   card count (4), CRC-32 of the value bytes (4), then card count * value width bytes of face values
+ * </pre>
+ * All numbers are big-endian. Reading maps the file and takes each face value straight from the mapping.
+ * Text packs (one face value per line) are still loaded by CardGame, which tells the two apart by the magic.
+ * Run {@code java BinaryPack <input> <output>} to convert a pack in either direction.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public final class BinaryPack {
+    static final int MAGIC = 0x4350414B; // "CPAK"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    private BinaryPack() {
+    }
+
+    /**
+     * Checks whether a file starts with the binary pack magic.
+     *
+     * @param file the pack file
+     * @return true for a binary pack, false for anything else, including a text pack
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isBinary(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // Keep reading until four bytes arrive or the file ends
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Reads a binary pack, checking its header and checksum.
+     *
+     * @param file the binary pack
+     * @return the cards in pack order
+     * @throws IOException if the file cannot be read or is not a valid binary pack
+     */
+    public static List<Card> read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Invalid binary pack: the file is shorter than its header.");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (mapped.getInt(0) != MAGIC) {
+                throw new IOException("Invalid binary pack: wrong magic number.");
+            }
+            short version = mapped.getShort(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary pack version " + version + ".");
+            }
+            int width = mapped.get(6);
+            if (width != 1 && width != 2 && width != 4) {
+                throw new IOException("Invalid binary pack: value width " + width + ".");
+            }
+            int count = mapped.getInt(8);
+            if (count < 0 || size != HEADER_BYTES + (long) count * width) {
+                throw new IOException("Invalid binary pack: " + count + " cards do not match the file size.");
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(mapped.slice(HEADER_BYTES, count * width));
+            if ((int) crc.getValue() != mapped.getInt(12)) {
+                throw new IOException("Invalid binary pack: checksum mismatch.");
+            }
+
+            List<Card> cards = new ArrayList<>(count);
+            for (int i = 0, offset = HEADER_BYTES; i < count; i++, offset += width) {
+                int faceValue = switch (width) {
+                    case 1 -> Byte.toUnsignedInt(mapped.get(offset));
+                    case 2 -> Short.toUnsignedInt(mapped.getShort(offset));
+                    default -> mapped.getInt(offset);
+                };
+                if (faceValue <= 0) {
+                    throw new IOException("Invalid binary pack: card " + (i + 1) + " has face value " + faceValue + ".");
+                }
+                cards.add(Card.valueOf(faceValue));
+            }
+            return cards;
+        }
+    }
+
+    /**
+     * Writes cards as a binary pack, using the narrowest value width that fits every face value.
+     *
+     * @param cards the cards in pack order
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(List<Card> cards, File file) throws IOException {
+        int maxValue = 0;
+        for (Card card : cards) {
+            maxValue = Math.max(maxValue, card.getFaceValue());
+        }
+        int width = maxValue <= 0xFF ? 1 : maxValue <= 0xFFFF ? 2 : 4;
+
+        ByteBuffer values = ByteBuffer.allocate(cards.size() * width);
+        for (Card card : cards) {
+            switch (width) {
+                case 1 -> values.put((byte) card.getFaceValue());
+                case 2 -> values.putShort((short) card.getFaceValue());
+                default -> values.putInt(card.getFaceValue());
+            }
+        }
+        values.flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(values.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putShort(VERSION).put((byte) width).put((byte) 0)
+                .putInt(cards.size()).putInt((int) crc.getValue()).flip();
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = {header, values};
+            while (values.hasRemaining() || header.hasRemaining()) {
+                channel.write(buffers);
+            }
+        }
+    }
+
+    /**
+     * Writes cards as a text pack, one face value per line.
+     *
+     * @param cards the cards in pack order
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeText(List<Card> cards, File file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.US_ASCII)) {
+            for (Card card : cards) {
+                writer.write(Integer.toString(card.getFaceValue()));
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Converts a pack to the other format: a text pack becomes binary, a binary pack becomes text.
+     *
+     * @param input the pack to convert
+     * @param output the file to write
+     * @return true if the output is binary
+     * @throws IOException if either file cannot be used
+     */
+    public static boolean convert(File input, File output) throws IOException {
+        if (isBinary(input)) {
+            writeText(read(input), output);
+            return false;
+        }
+        write(CardGame.readTextPack(input), output);
+        return true;
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: java BinaryPack <input pack> <output pack>");
+            return;
+        }
+        try {
+            boolean binary = convert(new File(args[0]), new File(args[1]));
+            System.out.println("Wrote " + (binary ? "binary" : "text") + " pack " + args[1]);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BinaryPackTest {
+
+    private final File textPack = new File("binary_test_pack.txt");
+    private final File binaryPack = new File("binary_test_pack.bin");
+    private final File convertedPack = new File("binary_test_converted.txt");
+
+    @AfterEach
+    public void cleanUp() {
+        textPack.delete();
+        binaryPack.delete();
+        convertedPack.delete();
+        for (int i = 1; i <= 4; i++) {
+            new File("player" + i + "_output.txt").delete();
+            new File("deck" + i + "_output.txt").delete();
+        }
+    }
+
+    private List<Card> cards(int... faceValues) {
+        List<Card> cards = new ArrayList<>();
+        for (int faceValue : faceValues) {
+            cards.add(new Card(faceValue));
+        }
+        return cards;
+    }
+
+    // Test 1: Does a binary pack read back the cards that were written?
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<Card> cards = cards(1, 2, 3, 255, 4, 4, 4, 4);
+        BinaryPack.write(cards, binaryPack);
+
+        assertTrue(BinaryPack.isBinary(binaryPack), "The file should be recognised as a binary pack.");
+        assertEquals(cards, BinaryPack.read(binaryPack), "The cards should read back in the same order.");
+    }
+
+    // Test 2: Are face values packed at the narrowest width that fits them?
+    @Test
+    public void testNarrowestWidth() throws IOException {
+        BinaryPack.write(cards(1, 255), binaryPack);
+        assertEquals(BinaryPack.HEADER_BYTES + 2, binaryPack.length(), "Values up to 255 should take one byte each.");
+
+        BinaryPack.write(cards(1, 256), binaryPack);
+        assertEquals(BinaryPack.HEADER_BYTES + 4, binaryPack.length(), "Values up to 65535 should take two bytes each.");
+        assertEquals(cards(1, 256), BinaryPack.read(binaryPack), "Two-byte values should read back.");
+
+        BinaryPack.write(cards(70000, 3), binaryPack);
+        assertEquals(BinaryPack.HEADER_BYTES + 8, binaryPack.length(), "Larger values should take four bytes each.");
+        assertEquals(cards(70000, 3), BinaryPack.read(binaryPack), "Four-byte values should read back.");
+    }
+
+    // Test 3: Is a pack with a changed value rejected by the checksum?
+    @Test
+    public void testCorruptPackRejected() throws IOException {
+        BinaryPack.write(cards(1, 2, 3, 4), binaryPack);
+        try (RandomAccessFile file = new RandomAccessFile(binaryPack, "rw")) {
+            file.seek(BinaryPack.HEADER_BYTES + 2);
+            file.write(9);
+        }
+
+        IOException e = assertThrows(IOException.class, () -> BinaryPack.read(binaryPack), "A corrupt pack should be rejected.");
+        assertTrue(e.getMessage().contains("checksum"), "The error should name the checksum.");
+    }
+
+    // Test 4: Are truncated packs and unknown versions rejected?
+    @Test
+    public void testInvalidHeaderRejected() throws IOException {
+        BinaryPack.write(cards(1, 2, 3, 4), binaryPack);
+        try (RandomAccessFile file = new RandomAccessFile(binaryPack, "rw")) {
+            file.setLength(binaryPack.length() - 1);
+        }
+        assertThrows(IOException.class, () -> BinaryPack.read(binaryPack), "A truncated pack should be rejected.");
+
+        BinaryPack.write(cards(1, 2, 3, 4), binaryPack);
+        try (RandomAccessFile file = new RandomAccessFile(binaryPack, "rw")) {
+            file.seek(4);
+            file.writeShort(99);
+        }
+        assertThrows(IOException.class, () -> BinaryPack.read(binaryPack), "An unknown version should be rejected.");
+    }
+
+    // Test 5: Does the converter turn a text pack into binary and back?
+    @Test
+    public void testConvertBothWays() throws IOException {
+        Files.write(textPack.toPath(), List.of("5", "1", "300", "2"));
+
+        assertTrue(BinaryPack.convert(textPack, binaryPack), "A text pack should convert to binary.");
+        assertFalse(BinaryPack.isBinary(textPack), "A text pack should not be mistaken for a binary one.");
+        assertEquals(cards(5, 1, 300, 2), BinaryPack.read(binaryPack), "The binary pack should hold the text pack's cards.");
+
+        assertFalse(BinaryPack.convert(binaryPack, convertedPack), "A binary pack should convert to text.");
+        assertEquals(List.of("5", "1", "300", "2"), Files.readAllLines(convertedPack.toPath()),
+                "Converting back should give the original text pack.");
+    }
+
+    // Test 6: Does a game load a binary pack without being told its format?
+    @Test
+    public void testGameLoadsBinaryPack() throws IOException {
+        List<Card> cards = new ArrayList<>();
+        for (int i = 1; i <= 32; i++) {
+            cards.add(new Card(i));
+        }
+        BinaryPack.write(cards, binaryPack);
+
+        try (CardGame game = new CardGame(4, binaryPack.getPath())) {
+            assertEquals(cards, game.loadPackFile(), "The game should detect and load the binary pack.");
+
+            game.setClock(new SimulatedClock());
+            game.setConsoleOutput(false);
+            game.setTurnLimit(8);
+            assertEquals(GameResult.Outcome.TIMEOUT, game.startGame().getOutcome(), "A binary pack should be playable.");
+        }
+    }
+}
@@ -16,8 +16,15 @@ import java.util.List;
  */
 
 public class Card {
+    private static final Card[] CACHE = new Card[256]; // Shared cards for the common face values
     private final int faceValue;
 
+    static {
+        for (int i = 1; i < CACHE.length; i++) {
+            CACHE[i] = new Card(i);
+        }
+    }
+
     public Card(int faceValue) {
         if (faceValue <= 0) {
             throw new IllegalArgumentException("Face value must be a positive integer.");
@@ -25,7 +32,20 @@ public class Card {
         this.faceValue = faceValue;
     }
 
-    
+    /**
+     * Returns a card with the given face value, sharing one instance per value for common face values.
+     * Cards are immutable and compared by value, so a shared card can stand in for a new one.
+     *
+     * @param faceValue the face value, a positive integer
+     * @return a card with that face value
+     */
+    public static Card valueOf(int faceValue) {
+        if (faceValue > 0 && faceValue < CACHE.length) {
+            return CACHE[faceValue];
+        }
+        return new Card(faceValue);
+    }
+
     /** 
      * @return int
      */
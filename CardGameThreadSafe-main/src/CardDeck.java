@@ -1,31 +1,169 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
 public class CardDeck {
     private final ConcurrentLinkedQueue<Card> cards = new ConcurrentLinkedQueue<>(); //uses card
+    private final AtomicInteger count = new AtomicInteger(); // Kept beside the queue, whose own size() walks it
 
     public synchronized void addCard(Card card) {
-        cards.add(card); //add card to the bottom
+        put(card); //add card to the bottom
     }
 
-    public synchronized Card drawCard() {
-        return cards.poll(); //remove and return the top card 
+    public Card drawCard() {
+        GameEvents.DeckDraw event = new GameEvents.DeckDraw();
+        event.begin(); // Started before the lock so the event shows contention
+        Card card = take();
+        event.end();
+        if (event.shouldCommit()) {
+            event.card = card != null ? card.getFaceValue() : 0;
+            event.empty = card == null;
+            event.commit();
+        }
+        return card;
+    }
+
+    /**
+     * Removes every card, so the deck can be reused by another game.
+     */
+    public synchronized void clear() {
+        int removed = 0;
+        while (cards.poll() != null) {
+            removed++;
+        }
+        count.addAndGet(-removed);
     }
 
     public synchronized boolean isEmpty() {
         return cards.isEmpty();
     }
 
+    /**
+     * Returns the number of cards in the deck without walking it.
+     * While cards are being drawn and offered the answer may be a card behind, but never below zero.
+     *
+     * @return the number of cards in the deck
+     */
+    public int size() {
+        return Math.max(0, count.get());
+    }
+
+    /**
+     * Adds cards to the bottom of the deck, in order, as one transfer rather than one offer per card.
+     *
+     * @param faceValues the face values of the cards
+     * @param from the index of the first card to add
+     * @param to the index after the last card to add
+     */
+    public void offerAll(int[] faceValues, int from, int to) {
+        List<Card> added = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            added.add(Card.valueOf(faceValues[i]));
+        }
+        cards.addAll(added); // Links the cards in and publishes them all at once
+        count.addAndGet(added.size());
+    }
+
+    /**
+     * Adds cards to the bottom of the deck, in order.
+     */
+    public void offerAll(int[] faceValues) {
+        offerAll(faceValues, 0, faceValues.length);
+    }
+
+    /**
+     * Draws cards from the top of the deck into a buffer, taking the draw lock once for the whole transfer.
+     *
+     * @param faceValues receives the face values of the drawn cards, in order
+     * @param offset where the first drawn card goes
+     * @param max the most cards to draw
+     * @return the number of cards drawn, fewer than max if the deck ran out
+     */
+    public int drainTo(int[] faceValues, int offset, int max) {
+        synchronized (this) {
+            int drawn = 0;
+            Card card;
+            while (drawn < max && (card = cards.poll()) != null) {
+                faceValues[offset + drawn++] = card.getFaceValue();
+            }
+            count.addAndGet(-drawn);
+            return drawn;
+        }
+    }
+
+    /**
+     * Draws every card from the deck into a buffer, or as many as fit.
+     *
+     * @return the number of cards drawn
+     */
+    public int drainTo(int[] faceValues) {
+        return drainTo(faceValues, 0, faceValues.length);
+    }
+
+    /**
+     * Copies the face values of the deck, top card first, without drawing them.
+     * The array is sized from size(), so a deck that is not changing is copied with no resizing.
+     *
+     * @return the face values, in an array exactly as long as the deck
+     */
+    public int[] snapshot() {
+        synchronized (this) {
+            int[] faceValues = new int[size()];
+            int copied = 0;
+            for (Card card : cards) {
+                if (copied == faceValues.length) {
+                    faceValues = Arrays.copyOf(faceValues, copied * 2 + 1); // Offered to while being copied
+                }
+                faceValues[copied++] = card.getFaceValue();
+            }
+            return copied == faceValues.length ? faceValues : Arrays.copyOf(faceValues, copied);
+        }
+    }
+
     @Override
-    public synchronized String toString() {
-        return "Deck: " + cards;
+    public String toString() {
+        return "Deck: " + Arrays.toString(snapshot());
     }
     public void offer(Card card) {
-        cards.offer(card); // Delegate to the internal queue
+        GameEvents.DeckOffer event = new GameEvents.DeckOffer();
+        event.begin();
+        boolean wasEmpty = event.isEnabled() && isEmpty(); // Only checked while the event is recorded
+        put(card);
+        event.end();
+        if (event.shouldCommit()) {
+            event.card = card.getFaceValue();
+            event.wasEmpty = wasEmpty;
+            event.commit();
+        }
     }
     public List<Card> getCardsAsList() {
         return new ArrayList<>(cards); // Convert the internal queue to a list
     }
+
+    // Storage operations behind drawCard and offer, replaced by decks that keep their cards elsewhere
+
+    Card take() {
+        synchronized (this) {
+            Card card = cards.poll(); //remove and return the top card 
+            if (card != null) {
+                count.decrementAndGet();
+            }
+            return card;
+        }
+    }
+
+    void put(Card card) {
+        cards.offer(card); // Delegate to the internal queue
+        count.incrementAndGet();
+    }
+
+    /**
+     * Makes room for a game in which the deck may hold up to the given number of cards.
+     * A heap deck grows as needed, so this does nothing.
+     */
+    void prepare(int capacity) {
+    }
 }
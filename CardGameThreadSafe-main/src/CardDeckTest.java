@@ -222,4 +222,48 @@ public class CardDeckTest {
             cardDeck.drawCard();
         }, "Adding and drawing a null card should throw NullPointerException.");
     }
+
+    // Test 17: Can a deck be emptied for reuse?
+    @Test
+    public void testClear() {
+        cardDeck.addCard(new Card(1));
+        cardDeck.offer(new Card(2));
+
+        cardDeck.clear();
+        assertTrue(cardDeck.isEmpty(), "Deck should be empty after clearing.");
+        assertNull(cardDeck.drawCard(), "Drawing from a cleared deck should return null.");
+    }
+
+    // Test 18: Do bulk offers, snapshots and drains keep the deck's order?
+    @Test
+    public void testBulkTransfers() {
+        cardDeck.offer(new Card(9));
+        cardDeck.offerAll(new int[]{0, 1, 2, 3, 4, 0}, 1, 5);
+
+        assertEquals(5, cardDeck.size(), "The deck should count the single and the bulk offers.");
+        assertArrayEquals(new int[]{9, 1, 2, 3, 4}, cardDeck.snapshot(), "The snapshot should list the deck top first.");
+        assertEquals("Deck: [9, 1, 2, 3, 4]", cardDeck.toString(), "The deck should print as before.");
+
+        int[] buffer = new int[8];
+        assertEquals(3, cardDeck.drainTo(buffer, 2, 3), "Only the requested number of cards should be drawn.");
+        assertArrayEquals(new int[]{0, 0, 9, 1, 2, 0, 0, 0}, buffer, "Drawn cards should land at the offset, in order.");
+        assertEquals(2, cardDeck.drainTo(buffer), "Draining should stop when the deck runs out.");
+        assertEquals(3, buffer[0], "The next card should be drawn next.");
+        assertEquals(0, cardDeck.size(), "The deck should be empty.");
+    }
+
+    // Test 19: Does the size follow every kind of change?
+    @Test
+    public void testSizeTracksChanges() {
+        cardDeck.addCard(new Card(1));
+        cardDeck.offerAll(new int[]{2, 3, 4});
+        cardDeck.drawCard();
+        assertEquals(3, cardDeck.size(), "Adds, bulk offers and draws should all be counted.");
+        assertEquals(cardDeck.getCardsAsList().size(), cardDeck.size(), "The size should match the cards held.");
+
+        cardDeck.clear();
+        assertEquals(0, cardDeck.size(), "A cleared deck should have no cards.");
+        cardDeck.drawCard();
+        assertEquals(0, cardDeck.size(), "Drawing from an empty deck should not change its size.");
+    }
 }
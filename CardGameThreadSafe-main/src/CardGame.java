@@ -1,23 +1,130 @@
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
 import org.junit.jupiter.api.Test;
 
-public class CardGame {
+public class CardGame implements AutoCloseable {
 
     public final int n; // Number of players
-    private final String packFilePath; // Path to the pack file
+    private String packFilePath; // Path to the pack file
+    private PackCache packCache = null; // Parsed packs shared between games, if set
     private final AtomicBoolean gameWon = new AtomicBoolean(false); // Tracks game status
     final List<CardDeck> sharedDecks = new ArrayList<>();
+    private final List<List<Card>> playerHands = new ArrayList<>(); // Reused by every game
+    private final PlayEventPublisher playEvents = new PlayEventPublisher();
+    private GameStats stats = null; // Live counters, if monitored
+    private LongAdder[] playerTurnCounters = null;
+    private final DeckArena deckArena; // Memory for off-heap decks, or null when the decks are on the heap
+    private final List<Player> players = new ArrayList<>();
+    private DiscardStrategy discardStrategy = DiscardStrategies.RANDOM;
+    private Long seed = null; // Null while the players use their threads' own random sources
+    private final LogFile[] playerLogs; // One open output file per player
+    private final LogFile[] deckLogs;
+    private OutputMode outputMode = OutputMode.STREAM;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private long rotationBytes = 0;
+    private File outputDirectory = null; // Null for the working directory
+    private boolean consoleOutput = true;
+
+    // Pooled mode keeps the player threads alive between games
+    private boolean pooled = false;
+    private PlayerThreadPool threadPool;
+
+    // Deterministic mode plays the turns in order on the game thread, so results can be cached
+    private boolean deterministic = false;
+    private ResultCache resultCache = null;
+
+    private ConservationChecker conservationChecker = null; // Checks that no card is lost or duplicated, if set
+
+    // Limits for games that may never produce a winner (0 means no limit)
+    private long turnLimit = 0;
+    private long timeLimitMillis = 0;
+    private final AtomicLong turnsPlayed = new AtomicLong(0); // Turns started across all players
+    private final AtomicBoolean timedOut = new AtomicBoolean(false);
+    private final AtomicInteger winner = new AtomicInteger(-1);
+    private final Object gameOver = new Object(); // Notified when a player wins or a limit runs out
+    private volatile long deadlineNanos; // Clock time at which the time limit runs out
+
+    // Stopping the players: the first failure, the scope of the running players and how long they took to stop
+    private final AtomicReference<PlayerFailureException> failure = new AtomicReference<>();
+    private volatile PlayerScope scope = null;
+    private final AtomicLong stopRequestedNanos = new AtomicLong(0);
+    private long shutdownTimeoutMillis = 5000;
+    private volatile long lastShutdownNanos = 0;
+
+    // Pacing: how long each player pauses between turns, on which clock
+    private GameClock clock = RealClock.INSTANCE;
+    private long paceMillis = 100;
+
+    // One shared daemon thread fires the time limit of every game
+    private static final ScheduledExecutorService TIMEOUTS = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "card-game-timeout");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public CardGame(int n, String packFilePath) {
+        this(n, packFilePath, false);
+    }
+
+    /**
+     * Creates a game whose shared decks may keep their cards off the heap.
+     * Off-heap decks store each card as a 4-byte face value in memory owned by the game and released by close,
+     * so very large packs add almost nothing to the heap while they sit in the decks.
+     *
+     * @param n the number of players
+     * @param packFilePath the pack to play
+     * @param offHeapDecks true to keep the shared decks off the heap
+     */
+    @SuppressWarnings("this-escape") // The players only keep the reference; none plays before startGame
+    public CardGame(int n, String packFilePath, boolean offHeapDecks) {
         this.n = n;
         this.packFilePath = packFilePath;
+        this.deckArena = offHeapDecks ? new DeckArena() : null;
 
         // Initialize shared decks for cyclic sharing
         for (int i = 0; i < n; i++) {
-            sharedDecks.add(new CardDeck());
+            sharedDecks.add(offHeapDecks ? new OffHeapCardDeck(deckArena) : new CardDeck());
+            playerHands.add(new ArrayList<>(5)); // 4 cards plus the one drawn each turn
+        }
+
+        for (int i = 0; i < n; i++) {
+            int nextDeckIndex = (i + 1) % n; // Each player shares a deck with the next player
+            players.add(new Player(i, playerHands.get(i), sharedDecks.get(i), sharedDecks.get(nextDeckIndex), this, gameWon));
         }
+
+        playerLogs = new LogFile[n];
+        deckLogs = new LogFile[n];
+        createLogs();
+    }
+
+    private void createLogs() {
+        for (int i = 0; i < n; i++) {
+            playerLogs[i] = LogFile.create(new File(outputDirectory, "player" + (i + 1) + "_output.txt"), true,
+                    outputMode, compressionLevel, rotationBytes);
+            deckLogs[i] = LogFile.create(new File(outputDirectory, "deck" + (i + 1) + "_output.txt"), false,
+                    outputMode, compressionLevel, rotationBytes);
+        }
+    }
+
+    /**
+     * Chooses how the player and deck files are written. Must not be called while a game is running.
+     *
+     * @param outputMode the output mode for the following games
+     */
+    public void setOutputMode(OutputMode outputMode) {
+        closeLogs();
+        this.outputMode = outputMode;
+        createLogs();
     }
 
     public static void main(String[] args) {
@@ -40,62 +147,614 @@ public class CardGame {
                 return;
             }
 
-            CardGame game = new CardGame(n, packFilePath);
-            game.startGame(); // Start the game
+            try (CardGame game = new CardGame(n, packFilePath)) {
+                game.startGame(); // Start the game
+            }
+        }
+    }
+
+    /**
+     * Turns pooled mode on or off. A pooled game keeps one thread per player alive between games,
+     * so repeated calls to playAgain reuse them; close the game to release the threads.
+     */
+    public void setPooled(boolean pooled) {
+        this.pooled = pooled;
+        if (!pooled) {
+            closeThreadPool();
+        }
+    }
+
+    /**
+     * Sets how compressed output files are written. Only used in OutputMode.COMPRESSED.
+     * Must not be called while a game is running.
+     *
+     * @param compressionLevel the Deflater level, from -1 (default) to 9
+     * @param rotationBytes the compressed size at which a file starts a new segment, or 0 for one segment
+     */
+    public void setCompression(int compressionLevel, long rotationBytes) {
+        if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between -1 and 9.");
+        }
+        if (rotationBytes < 0) {
+            throw new IllegalArgumentException("Rotation size cannot be negative.");
+        }
+        closeLogs();
+        this.compressionLevel = compressionLevel;
+        this.rotationBytes = rotationBytes;
+        createLogs();
+    }
+
+    /**
+     * Chooses the directory the player and deck files are written to, so several games can run side by side.
+     * Must not be called while a game is running.
+     *
+     * @param outputDirectory the directory, created if missing, or null for the working directory
+     */
+    public void setOutputDirectory(File outputDirectory) {
+        if (outputDirectory != null) {
+            outputDirectory.mkdirs();
+        }
+        closeLogs();
+        this.outputDirectory = outputDirectory;
+        createLogs();
+    }
+
+    /**
+     * Turns printing of game events to the console on or off. The output files are written either way.
+     */
+    public void setConsoleOutput(boolean consoleOutput) {
+        this.consoleOutput = consoleOutput;
+    }
+
+    private void print(String message) {
+        if (consoleOutput) {
+            System.out.println(message);
+        }
+    }
+
+    /**
+     * Seeds the random choices of every player, giving each its own stream derived from the seed.
+     * Every following game on this instance starts the streams again from the seed, so it plays the same way.
+     * Must not be called while a game is running.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        seedPlayers();
+    }
+
+    // Splits a fresh stream for each player from the seed, if there is one
+    private void seedPlayers() {
+        if (seed == null) {
+            return;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (Player player : players) {
+            player.setRandom(random.split());
+        }
+    }
+
+    /**
+     * Sets the discard strategy used by every player. Must not be called while a game is running.
+     */
+    public void setDiscardStrategy(DiscardStrategy discardStrategy) {
+        this.discardStrategy = discardStrategy;
+        for (Player player : players) {
+            player.setDiscardStrategy(discardStrategy);
+        }
+    }
+
+    /**
+     * Turns deterministic mode on or off. A deterministic game has no player threads: the players take their turns
+     * in order, player 1 first, on the thread that starts the game, without pausing between turns.
+     * With a seed, the result then depends only on the pack, the players, the strategy, the seed and the turn limit.
+     * Must not be called while a game is running.
+     */
+    public void setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+    }
+
+    /**
+     * Looks each game up in a result cache before playing it, and stores the results of games that were played.
+     * Only seeded deterministic games with a built-in discard strategy and no time limit are cached.
+     * A game found in the cache returns the stored result at once and writes no player or deck files.
+     * Must not be called while a game is running.
+     *
+     * @param resultCache the cache, or null to play every game
+     */
+    public void setResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    // The cache key of the game about to be played, or null if its result could differ from run to run
+    private ResultCache.Key cacheKey(List<Card> cards) {
+        String strategy = DiscardStrategies.nameOf(discardStrategy);
+        if (resultCache == null || !deterministic || seed == null || strategy == null || timeLimitMillis > 0) {
+            return null;
+        }
+        return new ResultCache.Key(ResultCache.hash(cards), n, strategy, seed, turnLimit);
+    }
+
+    /**
+     * Checks during play and at the end of every game that the hands and decks still hold exactly the pack's cards.
+     * Violations are printed and recorded in the checker. Must not be called while a game is running.
+     *
+     * @param conservationChecker the checker, or null to stop checking
+     */
+    public void setConservationChecker(ConservationChecker conservationChecker) {
+        this.conservationChecker = conservationChecker;
+    }
+
+    // Player threads report when they start and stop, so a conservation sample knows whom to wait for
+    void playerStarted() {
+        if (conservationChecker != null) {
+            conservationChecker.enter();
+        }
+    }
+
+    void playerStopped() {
+        if (conservationChecker != null) {
+            conservationChecker.exit();
+        }
+    }
+
+    /**
+     * Switches the game to a new pack and re-arms it, keeping its decks, hands, players and threads.
+     *
+     * @param packFilePath the pack to use for the following games
+     */
+    public void reset(String packFilePath) {
+        this.packFilePath = packFilePath;
+        rearm();
+    }
+
+    /**
+     * Plays another game with the current pack, reusing everything the previous game allocated.
+     * Must not be called while a game is running.
+     *
+     * @return the result of the game, or null if the pack could not be used
+     */
+    public GameResult playAgain() {
+        return startGame();
+    }
+
+    // Clears everything left over from the previous game, including how far the players' random streams have run
+    private void rearm() {
+        for (Player player : players) {
+            player.resetCounts();
+        }
+        seedPlayers();
+        gameWon.set(false);
+        timedOut.set(false);
+        failure.set(null);
+        stopRequestedNanos.set(0);
+        turnsPlayed.set(0);
+        winner.set(-1);
+        for (CardDeck deck : sharedDecks) {
+            deck.clear();
+        }
+        for (List<Card> hand : playerHands) {
+            hand.clear();
+        }
+    }
+
+    /**
+     * Releases the pooled player threads and the off-heap decks, if any, and completes the play event subscribers.
+     * A game with off-heap decks cannot be played again once closed.
+     */
+    @Override
+    public void close() {
+        closeThreadPool();
+        closeLogs();
+        playEvents.close();
+        setStats(null);
+        if (deckArena != null) {
+            deckArena.close();
+        }
+    }
+
+    private void closeThreadPool() {
+        if (threadPool != null) {
+            threadPool.close();
+            threadPool = null;
+        }
+    }
+
+    /**
+     * Caps the total number of turns played by all players; the game is a draw once they run out.
+     *
+     * @param turnLimit the maximum number of turns, or 0 for no limit
+     */
+    public void setTurnLimit(long turnLimit) {
+        if (turnLimit < 0) {
+            throw new IllegalArgumentException("Turn limit cannot be negative.");
+        }
+        this.turnLimit = turnLimit;
+    }
+
+    /**
+     * Caps how long play may run; the game is a draw once the time is up.
+     *
+     * @param timeLimitMillis the wall-clock limit in milliseconds, or 0 for no limit
+     */
+    public void setTimeLimit(long timeLimitMillis) {
+        if (timeLimitMillis < 0) {
+            throw new IllegalArgumentException("Time limit cannot be negative.");
+        }
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * Bounds how long the end of a game waits for the player threads to stop once they have been cancelled.
+     * Players that are still running afterwards are left behind, so a stuck player cannot hang the game.
+     *
+     * @param shutdownTimeoutMillis the wait in milliseconds, 5000 by default
+     */
+    public void setShutdownTimeout(long shutdownTimeoutMillis) {
+        if (shutdownTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Shutdown timeout must be positive.");
+        }
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    /**
+     * @return how long the players of the last game took to stop, from the moment the game ended, in nanoseconds;
+     * 0 for a deterministic game, which has no player threads
+     */
+    public long getLastShutdownNanos() {
+        return lastShutdownNanos;
+    }
+
+    /**
+     * Sets the clock that paces the players and measures the time limit. Must not be called while a game is running.
+     *
+     * @param clock RealClock.INSTANCE (the default) for visible pacing, or a SimulatedClock to play at CPU speed
+     */
+    public void setClock(GameClock clock) {
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /**
+     * Sets how long each player pauses between turns. Must not be called while a game is running.
+     *
+     * @param paceMillis the pause in milliseconds of the game's clock, or 0 for no pause
+     */
+    public void setPace(long paceMillis) {
+        if (paceMillis < 0) {
+            throw new IllegalArgumentException("Pace cannot be negative.");
+        }
+        this.paceMillis = paceMillis;
+    }
+
+    /**
+     * Pauses the calling player between turns.
+     *
+     * @throws InterruptedException if the game ends while the player is paused
+     */
+    void pace() throws InterruptedException {
+        if (paceMillis > 0) {
+            clock.sleep(paceMillis);
+        }
+    }
+
+    /**
+     * Returns the publisher of this game's draws, discards, hands and wins, for live subscribers.
+     * Subscribers stay subscribed from game to game and are completed when the game is closed.
+     */
+    public PlayEventPublisher getPlayEvents() {
+        return playEvents;
+    }
+
+    /**
+     * Counts this game's turns, empty-deck draws and results in the given stats, for example those served by a StatsServer.
+     * Must not be called while a game is running.
+     *
+     * @param stats the stats to count into, or null to stop counting
+     */
+    public void setStats(GameStats stats) {
+        if (this.stats != null) {
+            this.stats.detach(this);
+        }
+        this.stats = stats;
+        this.playerTurnCounters = null;
+        if (stats != null) {
+            playerTurnCounters = new LongAdder[n];
+            for (int i = 0; i < n; i++) {
+                playerTurnCounters[i] = stats.playerTurnCounter(i);
+            }
+            stats.attach(this);
+        }
+    }
+
+    // Counts a finished turn; each player only touches its own counter
+    void turnPlayed(int playerIndex, boolean emptyDraw) {
+        if (stats != null) {
+            playerTurnCounters[playerIndex].increment();
+            if (emptyDraw) {
+                stats.emptyDeckDraw();
+            }
+        }
+    }
+
+    /**
+     * @return the output writes still waiting for a background thread, 0 unless the output mode is ASYNC or COMPRESSED
+     */
+    int getLogQueueDepth() {
+        int depth = 0;
+        for (int i = 0; i < n; i++) {
+            depth += playerLogs[i].getQueueDepth() + deckLogs[i].getQueueDepth();
+        }
+        return depth;
+    }
+
+    // Players only build events while someone is subscribed
+    boolean isPublishing() {
+        return playEvents.hasSubscribers();
+    }
+
+    void publish(PlayEvent event) {
+        playEvents.publish(event);
+    }
+
+    /**
+     * Claims the next turn from the shared turn budget.
+     *
+     * @return false if the budget is used up or another player has failed, and the player must stop
+     */
+    boolean startTurn() {
+        ConservationChecker checker = conservationChecker;
+        if (checker != null) {
+            checker.safepoint(); // Stand still while another player takes a sample
+        }
+        long turn = turnsPlayed.incrementAndGet();
+        if (turnLimit > 0 && turn > turnLimit) {
+            timeOut();
+            return false;
+        }
+        if (timeLimitMillis > 0 && clock.nanoTime() - deadlineNanos >= 0) {
+            timeOut();
+            return false;
+        }
+        if (checker != null && checker.isSampleTurn(turn)) {
+            checker.sample(playerHands, sharedDecks, players, turn);
+        }
+        return !timedOut.get() && failure.get() == null;
+    }
+
+    private void timeOut() {
+        timedOut.set(true);
+        signalGameOver();
+    }
+
+    // Wakes the game thread and cancels the other players at once, rather than when the game thread gets to run
+    private void signalGameOver() {
+        stopRequestedNanos.compareAndSet(0, System.nanoTime());
+        PlayerScope current = scope;
+        if (current != null) {
+            current.shutdown();
+        } else if (pooled && threadPool != null && !deterministic) {
+            threadPool.interruptAll();
+        }
+        synchronized (gameOver) {
+            gameOver.notifyAll();
         }
     }
+
+    // Records the first player to fail; startGame throws its exception once the game has stopped
+    private void playerFailed(int playerIndex, Throwable error) {
+        failure.compareAndSet(null, new PlayerFailureException(playerIndex, error));
+        signalGameOver();
+    }
+
+    boolean isTimedOut() {
+        return timedOut.get();
+    }
+
+    // Records the first player to win and wakes the game thread
+    void declareWinner(int playerIndex) {
+        winner.compareAndSet(-1, playerIndex);
+        signalGameOver();
+    }
+
+    long getTurnsPlayed() {
+        long turns = turnsPlayed.get();
+        return turnLimit > 0 ? Math.min(turns, turnLimit) : turns;
+    }
+
     public void logCurrentHand(int playerIndex, List<Card> hand) {
         String content = "Current hand for player " + (playerIndex + 1) + ": " + hand;
-        
-        // Print to console
-        System.out.println(content);
-        
-        // Write to player's file
-        writePlayerFile(playerIndex, content);
+
+        // Print to console and write to player's file
+        logLine(playerIndex, content);
+    }
+
+    /**
+     * Prints a line to the console and appends it to the player's file.
+     * The line is encoded once and the same bytes go to both, so a reused builder can be passed without copying.
+     */
+    void logLine(int playerIndex, CharSequence line) {
+        write(playerIndex, line, consoleOutput ? System.out : null);
+    }
+
+    // Every line of a player's file goes through here, so slow writes show up as FileWrite events
+    private void write(int playerIndex, CharSequence line, PrintStream console) {
+        GameEvents.FileWrite event = new GameEvents.FileWrite();
+        event.begin();
+        playerLogs[playerIndex].writeLine(line, console);
+        event.end();
+        if (event.shouldCommit()) {
+            event.player = playerIndex + 1;
+            event.characters = line.length();
+            event.outputMode = outputMode.name();
+            event.commit();
+        }
+    }
+
+    /**
+     * Loads the pack, deals it and plays the game until a player wins or a limit runs out.
+     *
+     * @return the result of the game, or null if the pack could not be used
+     */
+    public GameResult startGame() {
+        return play(null);
+    }
+
+    /**
+     * Plays a game with a pack that was already loaded and dealt, for example by a GamePipeline while the previous
+     * game was playing. The game's own pack file is not read. Must not be called while a game is running.
+     *
+     * @param deal an unplayed deal for this game's number of players; the game takes its cards
+     * @return the result of the game, or null if the pack could not be used
+     */
+    public GameResult playDealt(Deal deal) {
+        if (deal.getPlayers() != n) {
+            throw new IllegalArgumentException("The deal is for " + deal.getPlayers() + " players, not " + n + ".");
+        }
+        if (deal.isPlayed()) {
+            throw new IllegalArgumentException("The deal has already been played.");
+        }
+        return play(deal);
+    }
+
+    private GameResult play(Deal deal) {
+        GameEvents.Game event = new GameEvents.Game();
+        event.begin();
+        GameResult result = playGame(deal);
+        if (result != null && isPublishing()) {
+            publish(PlayEvent.gameEnded(result));
+        }
+        if (result != null && stats != null) {
+            stats.gameFinished(result);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.players = n;
+            event.outcome = result != null ? result.getOutcome().name() : "ERROR";
+            event.winner = result != null ? result.getWinner() + 1 : 0;
+            event.turns = result != null ? result.getTurns() : 0;
+            event.outputMode = outputMode.name();
+            event.pooled = pooled;
+            event.commit();
+        }
+        return result;
     }
 
-    public void startGame() {
+    // Plays a prepared deal, or loads and deals the pack first if there is none
+    private GameResult playGame(Deal prepared) {
+        long startTime = System.nanoTime();
+        rearm();
         clearOutputFiles();
 
         try {
-            List<Card> cards = loadPackFile();
-            int expectedCardCount = 8 * n; // 4 cards per hand + 4 cards for shared decks
-            if (cards.size() < expectedCardCount) {
-                throw new IOException("Invalid number of cards. The pack must contain exactly " + expectedCardCount + " cards.");
+            Deal deal = prepared != null ? prepared : Deal.of(loadPackFile(), n);
+
+            // No reference to the pack is kept past the deal, which lets go of it once the decks are filled
+            if (conservationChecker != null) {
+                conservationChecker.packLoaded(deal.getPack());
             }
 
-            // Distribute hands and initialize shared decks
-            List<List<Card>> playerHands = distributeHands(cards);
-            initializeSharedDecks(cards);
+            ResultCache.Key key = cacheKey(deal.getPack());
+            if (key != null) {
+                GameResult cached = resultCache.get(key);
+                if (cached != null) {
+                    print("Result found in the cache: " + cached);
+                    return cached;
+                }
+            }
+
+            // Take up the dealt hands and fill the shared decks
+            List<List<Card>> playerHands = takeDeal(deal);
+            if (conservationChecker != null) {
+                conservationChecker.dealt(playerHands, sharedDecks);
+            }
 
             // Display initial hands and decks
             displayInitialHandsAndDecks(playerHands);
 
+            // The deal was analysed before any player thread is created
+            PackAnalysis analysis = deal.getAnalysis();
+            if (!analysis.isWinPossible()) {
+                if (turnLimit == 0 && timeLimitMillis == 0) {
+                    throw new IOException("Invalid pack: no denomination appears four times, so no player can win.");
+                }
+                print("No player can win this pack; playing until the game's limit runs out.");
+            }
+
+            if (isPublishing()) {
+                publish(PlayEvent.gameStarted());
+            }
+
             // Check for immediate win condition
-            for (int i = 0; i < n; i++) {
-                if (immediateWin(playerHands.get(i))) {
-                    System.out.println("Player " + (i + 1) + " immediately wins!");
+            if (analysis.hasImmediateWinner()) {
+                for (int i : analysis.getImmediateWinners()) {
+                    print("Player " + (i + 1) + " immediately wins!");
                     writePlayerFile(i, "Player " + (i + 1) + " wins with an immediate win!");
-                    gameWon.set(true);
+                    if (isPublishing()) {
+                        publish(PlayEvent.win(i, playerHands.get(i)));
+                    }
                 }
+                gameWon.set(true);
+                endWithoutPlay(playerHands);
+                return store(key, new GameResult(n, GameResult.Outcome.IMMEDIATE_WIN,
+                        analysis.getImmediateWinners().get(0), 0, System.nanoTime() - startTime));
             }
 
             // Start the game
-            runGame(playerHands);
+            GameResult.Outcome outcome = runGame(playerHands);
+            return store(key, new GameResult(n, outcome, winner.get(), getTurnsPlayed(), System.nanoTime() - startTime));
 
         } catch (IOException e) {
             System.err.println("Error: " + e.getMessage());
+            return null;
         }
     }
 
 
+    // Caches the result of a game that ran to its end
+    private GameResult store(ResultCache.Key key, GameResult result) {
+        if (key != null && result.getOutcome() != GameResult.Outcome.INTERRUPTED) {
+            resultCache.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Takes packs from a cache of parsed packs instead of reading the pack file for every game,
+     * for example PackCache.SHARED in a batch that plays the same pack many times.
+     * Must not be called while a game is running.
+     *
+     * @param packCache the cache, or null to read the pack file for every game
+     */
+    public void setPackCache(PackCache packCache) {
+        this.packCache = packCache;
+    }
+
+    /**
+     * Loads the pack, from the pack cache if there is one. Either way the game gets its own list to deal from.
+     */
     List<Card> loadPackFile() throws IOException {
+        File packFile = new File(packFilePath);
+        if (packCache != null) {
+            return packCache.load(packFile).cards();
+        }
+        return readPack(packFile);
+    }
+
+    // Reads a text pack or a BinaryPack; the format is detected from the file
+    static List<Card> readPack(File packFile) throws IOException {
+        if (BinaryPack.isBinary(packFile)) {
+            return BinaryPack.read(packFile);
+        }
+        return readTextPack(packFile);
+    }
+
+    // Reads a text pack: whitespace-separated face values, normally one per line
+    static List<Card> readTextPack(File packFile) throws IOException {
         List<Card> cards = new ArrayList<>();
-        try (Scanner scanfile = new Scanner(new File(packFilePath))) {
+        try (Scanner scanfile = new Scanner(packFile)) {
             while (scanfile.hasNext()) {
                 if (scanfile.hasNextInt()) {
                     int cardValue = scanfile.nextInt();
-                    cards.add(new Card(cardValue)); // Create a Card object and add it
+                    cards.add(Card.valueOf(cardValue)); // Create a Card object and add it
                 } else {
                     throw new IOException("Invalid File: Contains non-integer values.");
                 }
@@ -105,120 +764,219 @@ public class CardGame {
     }
     
 
-    List<List<Card>> distributeHands(List<Card> cards) {
-        List<List<Card>> playerHands = new ArrayList<>();
-
-        // Initialize hands
+    // Copies a deal into the hands and decks, which are allocated once and emptied for each game, and marks it played
+    List<List<Card>> takeDeal(Deal deal) {
         for (int i = 0; i < n; i++) {
-            playerHands.add(new ArrayList<>());
+            playerHands.get(i).clear();
+            playerHands.get(i).addAll(deal.getHand(i));
         }
 
-        // Distribute first 4 * n cards to player hands
-        for (int i = 0; i < 4 * n; i++) {
-            int playerIndex = i % n;
-            playerHands.get(playerIndex).add(cards.get(i));
+        // Off-heap decks start with room for twice their deal and grow if play piles more cards on them,
+        // so the game's off-heap memory follows the size of the pack rather than players times pack
+        if (deckArena != null) {
+            deckArena.reset();
         }
-
-        // Remove distributed cards from the pack
-        cards.subList(0, 4 * n).clear();
-
-        return playerHands;
-    }
-
-    void initializeSharedDecks(List<Card> cards) {
-        // Distribute remaining cards to shared decks in a cyclic manner
-        for (int i = 0; i < cards.size(); i++) {
-            int deckIndex = i % n;
-            sharedDecks.get(deckIndex).offer(cards.get(i));
+        for (int i = 0; i < n; i++) {
+            CardDeck deck = sharedDecks.get(i);
+            int[] dealt = deal.deckFaceValues(i);
+            deck.prepare(Math.max(8, 2 * dealt.length));
+            deck.offerAll(dealt);
         }
+        deal.played(); // The deal's pack and deck arrays are garbage from here on
+        return playerHands;
     }
 
     private void displayInitialHandsAndDecks(List<List<Card>> playerHands) {
-        System.out.println("Initial Hands:");
+        print("Initial Hands:");
         for (int i = 0; i < playerHands.size(); i++) {
-            System.out.println("Player " + (i + 1) + ": " + playerHands.get(i));
+            print("Player " + (i + 1) + ": " + playerHands.get(i));
         }
 
         
     }
 
     public boolean immediateWin(List<Card> playerHand) {
-        return playerHand.size() == 4 && playerHand.stream().distinct().count() == 1;
+        return PackAnalysis.isWinningHand(playerHand);
     }
 
-    private void runGame(List<List<Card>> hands) {
-        List<Thread> playerThreads = new ArrayList<>();
-
+    // Immediate win: write the same logs the player threads would, without starting them
+    private void endWithoutPlay(List<List<Card>> hands) {
         for (int i = 0; i < n; i++) {
-            int nextDeckIndex = (i + 1) % n; // Each player shares a deck with the next player
-            Player player = new Player(i, hands.get(i), sharedDecks.get(i), sharedDecks.get(nextDeckIndex), this, gameWon);
-            Thread playerThread = new Thread(player);
-            playerThreads.add(playerThread);
-            playerThread.start();
-
             writePlayerFile(i, "Starting hand for player " + (i + 1) + ": " + hands.get(i));
+            writePlayerFile(i, "Player " + (i + 1) + " exits after the game ends.");
+            writePlayerFile(i, "Final hand of player " + (i + 1) + ": " + hands.get(i));
         }
 
-        // Wait for a winner to be declared
-        while (!gameWon.get()) {
-            try {
-                Thread.sleep(100); // Small delay for main thread
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+        writeFinalDecks();
+        closeLogs();
+
+        print("Game over!");
+    }
+
+    private GameResult.Outcome runGame(List<List<Card>> hands) {
+        GameEvents.Play event = new GameEvents.Play();
+        event.begin();
+        GameResult.Outcome outcome = playUntilOver(hands);
+        event.end();
+        if (event.shouldCommit()) {
+            event.players = n;
+            event.outcome = outcome.name();
+            event.commit();
+        }
+        return outcome;
+    }
+
+    private GameResult.Outcome playUntilOver(List<List<Card>> hands) {
+        ScheduledFuture<?> timeout = null;
+        if (timeLimitMillis > 0) {
+            deadlineNanos = clock.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeLimitMillis);
+            if (clock instanceof RealClock) {
+                // Players check the deadline each turn; the timer also ends a game whose players are slow to start one
+                timeout = TIMEOUTS.schedule(this::timeOut, timeLimitMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        boolean stopped = true; // False if a player thread outlived the shutdown timeout
+        if (deterministic) {
+            writeStartingHands(hands);
+            playInOrder();
+        } else if (pooled) {
+            if (threadPool == null) {
+                threadPool = new PlayerThreadPool(players, this::playerFailed);
+            }
+            writeStartingHands(hands); // Before any player can log a turn or change its hand
+            threadPool.start();
+            awaitGameOver();
+
+            threadPool.interruptAll();
+            stopped = threadPool.awaitFinished(shutdownTimeoutMillis);
+            if (!stopped) {
+                threadPool.abandon(); // Its workers are out of step with the game; the next game starts a new pool
+                threadPool = null;
+            }
+        } else {
+            writeStartingHands(hands);
+            try (PlayerScope playerScope = new PlayerScope(this::playerFailed, shutdownTimeoutMillis)) {
+                scope = playerScope;
+                for (int i = 0; i < n; i++) {
+                    playerScope.fork(i, players.get(i));
+                }
+                awaitGameOver();
+
+                playerScope.shutdown();
+                stopped = playerScope.join(shutdownTimeoutMillis);
+            } finally {
+                scope = null;
             }
         }
+        lastShutdownNanos = deterministic ? 0 : System.nanoTime() - stopRequestedNanos.get();
+        if (!stopped) {
+            System.err.println("Players were still running " + shutdownTimeoutMillis + " ms after the game ended.");
+        }
+
+        if (timeout != null) {
+            timeout.cancel(false);
+        }
+
+        if (conservationChecker != null && stopped) {
+            conservationChecker.gameEnded(playerHands, sharedDecks, players);
+        }
 
-        // Stop all player threads after a winner is found
-        for (Thread thread : playerThreads) {
-            thread.interrupt();
+        // Output final deck states
+        writeFinalDecks();
+        closeLogs();
+
+        PlayerFailureException failed = failure.get();
+        if (failed != null) {
+            print("Game over! " + failed.getMessage());
+            throw failed;
+        }
+        if (gameWon.get()) {
+            print("Game over!");
+            return GameResult.Outcome.WIN;
         }
+        if (timedOut.get()) {
+            print("Game over! No winner after " + getTurnsPlayed() + " turns: the game is a draw.");
+            return GameResult.Outcome.TIMEOUT;
+        }
+        print("Game over! The game was interrupted.");
+        return GameResult.Outcome.INTERRUPTED;
+    }
 
-        for (Thread thread : playerThreads) {
+    private void writeStartingHands(List<List<Card>> hands) {
+        for (int i = 0; i < n; i++) {
+            writePlayerFile(i, "Starting hand for player " + (i + 1) + ": " + hands.get(i));
+        }
+    }
+
+    // Waits for a winner, a limit to run out or a player to fail; an interrupt of the game thread also ends the wait
+    private void awaitGameOver() {
+        synchronized (gameOver) {
             try {
-                thread.join();
+                while (!gameWon.get() && !timedOut.get() && failure.get() == null) {
+                    gameOver.wait();
+                }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
         }
+        stopRequestedNanos.compareAndSet(0, System.nanoTime());
+    }
 
-        // Output final deck states
-        writeFinalDecks();
-
-        System.out.println("Game over!");
+    // Deterministic mode: every player takes a turn in order until one wins, a limit runs out or the game thread is interrupted
+    private void playInOrder() {
+        Thread gameThread = Thread.currentThread();
+        int next = 0;
+        while (!gameThread.isInterrupted() && !gameWon.get() && startTurn()) {
+            try {
+                players.get(next).playTurn();
+            } catch (RuntimeException | Error e) {
+                playerFailed(next, e);
+                return;
+            }
+            next = (next + 1) % n;
+        }
+        for (Player player : players) {
+            player.finish();
+        }
     }
 
     void clearOutputFiles() {
         for (int i = 0; i < n; i++) {
-            String playerFileName = "player" + (i + 1) + "_output.txt";
-            String deckFileName = "deck" + (i + 1) + "_output.txt";
-            new File(playerFileName).delete();
-            new File(deckFileName).delete();
+            playerLogs[i].close();
+            deckLogs[i].close();
+            playerLogs[i].delete();
+            deckLogs[i].delete();
         }
     }
 
     public void writePlayerFile(int playerIndex, String content) {
-        String fileName = "player" + (playerIndex + 1) + "_output.txt";
+        write(playerIndex, content, null);
+    }
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName, true))) {
-            writer.write(content);
-            writer.newLine();
-        } catch (IOException e) {
-            System.err.println("Error writing to file " + fileName + ": " + e.getMessage());
+    void closeLogs() {
+        for (int i = 0; i < n; i++) {
+            playerLogs[i].close();
+            deckLogs[i].close();
         }
     }
 
     void writeFinalDecks() {
-    for (int i = 0; i < n; i++) {
-        String fileName = "deck" + (i + 1) + "_output.txt";
-        List<Card> finalDeck = sharedDecks.get(i).getCardsAsList(); // Fetch cards as a list
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName))) {
-            writer.write("Final Deck " + (i + 1) + ": " + finalDeck);
-            writer.newLine();
-        } catch (IOException e) {
-            System.err.println("Error writing final deck to file " + fileName + ": " + e.getMessage());
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            int[] finalDeck = sharedDecks.get(i).snapshot(); // Face values only, no list of cards
+            line.setLength(0);
+            line.append("Final Deck ").append(i + 1).append(": [");
+            for (int j = 0; j < finalDeck.length; j++) {
+                if (j > 0) {
+                    line.append(", ");
+                }
+                line.append(finalDeck[j]);
+            }
+            line.append(']');
+            deckLogs[i].writeLine(line, null);
+            deckLogs[i].close(); // Each game writes its final decks once
         }
     }
-}
 
 }
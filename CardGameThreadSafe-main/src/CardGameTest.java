@@ -4,6 +4,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -57,21 +59,23 @@ public class CardGameTest {
     // Test 2: Does the game continue without a winner?
     @Test
     public void testRunGameCompletesWithoutWinner() throws IOException {
-        createPackFile(32); // Ensure no immediate winners in the pack
+        // Four of each value from 1 to 8, dealt so that nobody holds four of a kind: the game can be won, but not at the deal
+        List<String> cardValues = new ArrayList<>();
+        for (int i = 1; i <= 32; i++) {
+            cardValues.add(String.valueOf((i * 5) % 8 + 1));
+        }
+        Files.write(new File(TEMP_PACK_FILE).toPath(), cardValues);
         cardGame = new CardGame(4, TEMP_PACK_FILE);
+        cardGame.setTimeLimit(2000); // Let the game run briefly
 
-        // Simulate a short run of the game
-        Thread gameThread = new Thread(() -> assertDoesNotThrow(cardGame::startGame, "Game should run without errors."));
-        gameThread.start();
-        try {
-            Thread.sleep(2000); // Let the game run briefly
-            gameThread.interrupt();
-            gameThread.join();
-        } catch (InterruptedException e) {
-            fail("Test thread was interrupted unexpectedly.");
-        }
+        GameResult result = cardGame.startGame();
 
-        // Verify that the game terminated gracefully
+        // Verify that the game was played and terminated gracefully
+        assertNotNull(result, "The pack should be played rather than rejected.");
+        assertFalse(result.getOutcome() == GameResult.Outcome.IMMEDIATE_WIN, "Nobody should win at the deal.");
+        assertTrue(result.getTurns() > 0, "The players should take turns.");
+        assertTrue(result.getOutcome() == GameResult.Outcome.WIN || result.getOutcome() == GameResult.Outcome.TIMEOUT,
+                "The game should end in a win or, when the time runs out, a draw, not " + result.getOutcome() + ".");
         assertFalse(cardGame.sharedDecks.isEmpty(), "Shared decks should still contain cards.");
     }
 
@@ -142,4 +146,307 @@ public class CardGameTest {
             assertFalse(new File("deck" + i + "_output.txt").exists(), "Deck output file should be deleted.");
         }
     }
+
+    // Test 7: Does an immediate win finish the game without starting the players?
+    @Test
+    public void testImmediateWinSkipsPlay() throws IOException {
+        // Player 1 is dealt cards 0, 4, 8 and 12 of the pack
+        List<String> cardValues = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            cardValues.add(i % 4 == 0 && i < 16 ? "1" : String.valueOf(i + 2));
+        }
+        Files.write(new File(TEMP_PACK_FILE).toPath(), cardValues);
+        cardGame = new CardGame(4, TEMP_PACK_FILE);
+
+        GameResult result = cardGame.startGame();
+        assertTrue(result.isImmediateWin(), "The result should record an immediate win.");
+        assertEquals(0, result.getWinner(), "Player 1 should be recorded as the winner.");
+
+        List<String> lines = Files.readAllLines(new File("player1_output.txt").toPath());
+        assertTrue(lines.contains("Player 1 wins with an immediate win!"), "Player 1 should win immediately.");
+        assertTrue(lines.stream().noneMatch(line -> line.contains(" draws ")), "No turns should be played after an immediate win.");
+        for (int i = 1; i <= 4; i++) {
+            assertTrue(new File("deck" + i + "_output.txt").exists(), "Final deck files should still be written.");
+        }
+    }
+
+    // Test 8: Is a pack that nobody can win rejected before play?
+    @Test
+    public void testUnwinnablePackRejected() throws IOException {
+        createPackFile(32); // Every denomination appears once
+
+        assertDoesNotThrow(() -> cardGame.startGame(), "The game should reject an unwinnable pack gracefully.");
+
+        for (int i = 1; i <= 4; i++) {
+            assertFalse(new File("player" + i + "_output.txt").exists(), "No player should play an unwinnable pack.");
+            assertFalse(new File("deck" + i + "_output.txt").exists(), "No deck output should be written for an unwinnable pack.");
+        }
+    }
+
+    // Test 9: Does a turn budget end an unwinnable game in a draw?
+    @Test
+    public void testTurnLimitEndsInDraw() throws IOException {
+        createPackFile(32); // Nobody can win this pack
+        cardGame.setTurnLimit(8);
+
+        GameResult result = cardGame.startGame();
+
+        assertNotNull(result, "A capped game should be played rather than rejected.");
+        assertEquals(GameResult.Outcome.TIMEOUT, result.getOutcome(), "The game should end in a draw.");
+        assertEquals(8, result.getTurns(), "Exactly the budgeted number of turns should be played.");
+        assertFalse(result.hasWinner(), "A draw has no winner.");
+        for (int i = 1; i <= 4; i++) {
+            assertTrue(new File("deck" + i + "_output.txt").exists(), "Final decks should be written after a draw.");
+            List<String> lines = Files.readAllLines(new File("player" + i + "_output.txt").toPath());
+            assertTrue(lines.contains("Player " + i + " exits after the game ends in a draw."), "Each player should log the draw.");
+        }
+    }
+
+    // Test 10: Does a time limit stop a game that would otherwise run forever?
+    @Test
+    public void testTimeLimitEndsInDraw() throws IOException {
+        createPackFile(32);
+        cardGame.setTimeLimit(300);
+
+        long start = System.nanoTime();
+        GameResult result = cardGame.startGame();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertNotNull(result, "A time-limited game should be played rather than rejected.");
+        assertEquals(GameResult.Outcome.TIMEOUT, result.getOutcome(), "The game should end in a draw.");
+        assertTrue(elapsedMillis < 2000, "The game should stop shortly after its time limit.");
+    }
+
+    // Test 11: Are negative limits rejected?
+    @Test
+    public void testNegativeLimitsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> cardGame.setTurnLimit(-1), "A negative turn limit should be rejected.");
+        assertThrows(IllegalArgumentException.class, () -> cardGame.setTimeLimit(-1), "A negative time limit should be rejected.");
+    }
+
+    // Test 12: Can a pooled game be played again on its own threads?
+    @Test
+    public void testPooledGamePlayedAgain() throws IOException {
+        createPackFile(32);
+        cardGame.setTurnLimit(8);
+        cardGame.setPooled(true);
+
+        try (CardGame game = cardGame) {
+            GameResult first = game.startGame();
+            GameResult second = game.playAgain();
+
+            assertEquals(GameResult.Outcome.TIMEOUT, first.getOutcome(), "The first game should end in a draw.");
+            assertEquals(GameResult.Outcome.TIMEOUT, second.getOutcome(), "The replayed game should end in a draw.");
+            assertEquals(8, second.getTurns(), "The turn budget should be re-armed for the second game.");
+
+            List<String> lines = Files.readAllLines(new File("player1_output.txt").toPath());
+            assertEquals(1, lines.stream().filter(line -> line.startsWith("Starting hand")).count(),
+                    "Each game should start with fresh output files.");
+        }
+    }
+
+    // Test 13: Does reset re-arm the game after a win?
+    @Test
+    public void testResetAfterWin() throws IOException {
+        List<String> cardValues = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            cardValues.add(i % 4 == 0 && i < 16 ? "1" : String.valueOf(i + 2));
+        }
+        Files.write(new File(TEMP_PACK_FILE).toPath(), cardValues);
+        assertTrue(cardGame.startGame().isImmediateWin(), "The first pack should be won immediately.");
+
+        createPackFile(32);
+        cardGame.reset(TEMP_PACK_FILE);
+        cardGame.setTurnLimit(4);
+        GameResult result = cardGame.playAgain();
+
+        assertEquals(GameResult.Outcome.TIMEOUT, result.getOutcome(), "The win from the first game should not carry over.");
+        assertFalse(result.hasWinner(), "The replayed game has no winner.");
+        int cardsInDecks = 0;
+        for (CardDeck deck : cardGame.sharedDecks) {
+            cardsInDecks += deck.getCardsAsList().size();
+        }
+        assertEquals(16, cardsInDecks, "Decks should only hold cards from the new pack.");
+    }
+
+    // Test 14: Can a game write its output through memory-mapped files?
+    @Test
+    public void testMappedOutputMode() throws IOException {
+        assertOutputModeWritesGame(OutputMode.MAPPED);
+    }
+
+    // Test 15: Is asynchronous output complete when the game reports it has ended?
+    @Test
+    public void testAsyncOutputMode() throws IOException {
+        assertOutputModeWritesGame(OutputMode.ASYNC);
+    }
+
+    private void assertOutputModeWritesGame(OutputMode mode) throws IOException {
+        createPackFile(32);
+        cardGame.setTurnLimit(8);
+        cardGame.setOutputMode(mode);
+
+        assertEquals(GameResult.Outcome.TIMEOUT, cardGame.startGame().getOutcome(), "The game should end in a draw.");
+
+        for (int i = 1; i <= 4; i++) {
+            List<String> playerLines = LogFile.readLines(new File("player" + i + "_output.txt"));
+            assertTrue(playerLines.stream().anyMatch(line -> line.startsWith("Starting hand for player ")),
+                    "Player files should hold the game log.");
+            assertTrue(playerLines.stream().noneMatch(String::isEmpty), "Player files should be truncated to their real length.");
+
+            List<String> deckLines = LogFile.readLines(new File("deck" + i + "_output.txt"));
+            assertEquals(1, deckLines.size(), "Deck files should hold only the final deck.");
+            assertTrue(deckLines.get(0).startsWith("Final Deck " + i + ": "), "Deck files should hold the final deck.");
+            assertTrue(playerLines.contains("Player " + i + " exits after the game ends in a draw."),
+                    "The last lines of the game should have landed.");
+        }
+    }
+
+    // Test 16: Can a game write its files to its own directory?
+    @Test
+    public void testOutputDirectory() throws IOException {
+        File directory = new File("test_game_output");
+        createPackFile(32);
+        cardGame.setTurnLimit(4);
+        cardGame.setOutputDirectory(directory);
+        cardGame.setConsoleOutput(false);
+        cardGame.setSeed(42);
+
+        try {
+            cardGame.startGame();
+            for (int i = 1; i <= 4; i++) {
+                assertTrue(new File(directory, "player" + i + "_output.txt").exists(), "Player files should be in the directory.");
+                assertTrue(new File(directory, "deck" + i + "_output.txt").exists(), "Deck files should be in the directory.");
+                assertFalse(new File("player" + i + "_output.txt").exists(), "Nothing should be written to the working directory.");
+            }
+        } finally {
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    // Test 17: Can a game write compressed output that reads back transparently?
+    @Test
+    public void testCompressedOutputMode() throws IOException {
+        cardGame.setCompression(6, 0);
+        assertOutputModeWritesGame(OutputMode.COMPRESSED);
+        assertTrue(new File("player1_output.txt.gz").exists(), "Player files should be compressed.");
+
+        cardGame.clearOutputFiles();
+        assertFalse(new File("player1_output.txt.gz").exists(), "Clearing output should remove compressed files.");
+    }
+
+    // Test 18: Does a simulated clock play a long game without waiting in real time?
+    @Test
+    public void testSimulatedClockPlaysAtCpuSpeed() {
+        cardGame.setClock(new SimulatedClock());
+        cardGame.setConsoleOutput(false);
+        cardGame.setTurnLimit(2000); // Over a minute of pacing on a real clock
+
+        long start = System.nanoTime();
+        GameResult result = cardGame.startGame();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(GameResult.Outcome.TIMEOUT, result.getOutcome(), "The game should end in a draw.");
+        assertEquals(2000, result.getTurns(), "Every budgeted turn should be played.");
+        assertTrue(elapsedMillis < 20_000, "The game should not wait out its pacing in real time.");
+    }
+
+    // Test 19: Is the time limit measured on the game's clock?
+    @Test
+    public void testTimeLimitOnSimulatedClock() {
+        cardGame.setClock(new SimulatedClock());
+        cardGame.setConsoleOutput(false);
+        cardGame.setTimeLimit(60_000); // One simulated minute: about 600 turns of 100 ms pacing for each player
+
+        GameResult result = cardGame.startGame();
+
+        // As on a real clock the players pause side by side, so the 4 players take about 2400 turns between them
+        assertEquals(GameResult.Outcome.TIMEOUT, result.getOutcome(), "The game should end in a draw.");
+        assertTrue(result.getTurns() >= 2000 && result.getTurns() <= 4 * 601 + 4,
+                "Each player should take about 600 turns in a minute, not " + result.getTurns() + " in all.");
+    }
+
+    // Test 20: Can a game be played with its decks off the heap?
+    @Test
+    public void testOffHeapDecks() throws IOException {
+        createPackFile(32);
+        try (CardGame game = new CardGame(4, TEMP_PACK_FILE, true)) {
+            game.setClock(new SimulatedClock());
+            game.setConsoleOutput(false);
+            game.setTurnLimit(200);
+
+            GameResult result = game.startGame();
+            assertEquals(GameResult.Outcome.TIMEOUT, result.getOutcome(), "The game should end in a draw.");
+
+            // Every card is still in a hand or a deck
+            int cardsInDecks = 0;
+            for (int i = 1; i <= 4; i++) {
+                String deckLine = Files.readAllLines(new File("deck" + i + "_output.txt").toPath()).get(0);
+                String values = deckLine.substring(deckLine.indexOf('[') + 1, deckLine.indexOf(']'));
+                cardsInDecks += values.isEmpty() ? 0 : values.split(", ").length;
+            }
+            int cardsInHands = 0;
+            for (int i = 1; i <= 4; i++) {
+                List<String> lines = Files.readAllLines(new File("player" + i + "_output.txt").toPath());
+                String finalHand = lines.get(lines.size() - 1);
+                String values = finalHand.substring(finalHand.indexOf('[') + 1, finalHand.indexOf(']'));
+                cardsInHands += values.isEmpty() ? 0 : values.split(", ").length;
+            }
+            assertEquals(32, cardsInDecks + cardsInHands, "No card should be lost or duplicated by the off-heap decks.");
+        }
+    }
+
+    // A strategy that fails on a player's third turn
+    private static DiscardStrategy failingStrategy() {
+        AtomicInteger turns = new AtomicInteger();
+        return (hand, preferred, random) -> {
+            if (turns.incrementAndGet() == 3) {
+                throw new IllegalStateException("strategy failure");
+            }
+            return DiscardStrategies.OLDEST.chooseDiscard(hand, preferred, random);
+        };
+    }
+
+    // Test 21: Does a player's exception stop the game and reach startGame, in every threading mode?
+    @Test
+    public void testPlayerFailurePropagates() {
+        for (String mode : List.of("threads", "pooled", "deterministic")) {
+            try (CardGame game = new CardGame(4, TEMP_PACK_FILE)) {
+                game.setConsoleOutput(false);
+                game.setPace(1000); // Players spend most of the game paused, so only cancellation ends it quickly
+                game.setTurnLimit(1000); // Nobody can win this pack
+                game.setPooled(mode.equals("pooled"));
+                game.setDeterministic(mode.equals("deterministic"));
+                game.setDiscardStrategy(failingStrategy());
+
+                long start = System.nanoTime();
+                PlayerFailureException e = assertThrows(PlayerFailureException.class, game::startGame,
+                        "The failure should propagate in " + mode + " mode.");
+                long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+                assertTrue(e.getCause() instanceof IllegalStateException, "The player's exception should be the cause.");
+                assertTrue(e.getPlayer() >= 0 && e.getPlayer() < 4, "The failing player should be named.");
+                assertTrue(elapsedMillis < 4000, "The game should stop at once in " + mode + " mode, not after "
+                        + elapsedMillis + " ms.");
+            }
+        }
+    }
+
+    // Test 22: Are paused players cancelled at once when the game ends, and is the shutdown measured?
+    @Test
+    public void testShutdownLatencyMeasured() {
+        cardGame.setConsoleOutput(false);
+        cardGame.setPace(60_000); // Without cancellation the players would sleep for a minute
+        cardGame.setTimeLimit(300);
+
+        GameResult result = cardGame.startGame();
+
+        assertEquals(GameResult.Outcome.TIMEOUT, result.getOutcome(), "The game should end in a draw.");
+        assertTrue(cardGame.getLastShutdownNanos() > 0, "The shutdown should be measured.");
+        assertTrue(cardGame.getLastShutdownNanos() < TimeUnit.SECONDS.toNanos(2),
+                "Paused players should stop at once, not after " + cardGame.getLastShutdownNanos() + " ns.");
+    }
 }
@@ -3,6 +3,13 @@ import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 
 @Suite
-@SelectClasses({PlayerTest.class, CardTest.class, CardDeckTest.class, CardGameTest.class})
+@SelectClasses({PlayerTest.class, CardTest.class, CardDeckTest.class, CardGameTest.class, PackAnalysisTest.class, LogFileTest.class,
+        DiscardStrategiesTest.class, TournamentTest.class, GameEventsTest.class,
+        SimulatedClockTest.class, OffHeapCardDeckTest.class, BinaryPackTest.class,
+        PlayEventPublisherTest.class, GameStatsTest.class, StatsServerTest.class,
+        ResultCacheTest.class, PackCacheTest.class,
+        ConservationCheckerTest.class, PlayerScopeTest.class, WinScannerTest.class,
+        LogVerifierTest.class, GamePipelineTest.class, GameServerTest.class,
+        ResultStoreTest.class})
 public class CardGameTestSuite {
 }
\ No newline at end of file
@@ -220,4 +220,12 @@ public class CardTest {
         assertEquals(11, deck.get(deck.size() - 1).getFaceValue(),
                 "The last card in the deck should have the face value 11.");
     }
+
+    // Test 18: Does valueOf share cards for common face values?
+    @Test
+    public void testValueOfSharesCommonCards() {
+        assertSame(Card.valueOf(7), Card.valueOf(7), "Common face values should share one card.");
+        assertEquals(new Card(100000), Card.valueOf(100000), "Uncommon face values should still give an equal card.");
+        assertThrows(IllegalArgumentException.class, () -> Card.valueOf(0), "A zero face value should be rejected.");
+    }
 }
@@ -0,0 +1,330 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Log file compressed with GZIP on a background thread, so compression never runs in a player's turn.
+ * The writing thread only copies lines into 8 KiB chunks; full chunks are queued and a shared pool of
+ * compressor threads deflates them in order. Every few chunks the stream is sync-flushed, so everything
+ * up to that checkpoint can be decompressed even if the game is killed before the file is closed.
+ * Once a segment reaches the rotation size it is finished and the next segment is started:
+ * segments are named file.gz, file.1.gz, file.2.gz and so on, and LogFile.readLines reads them in order.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+class CompressedLogFile extends LogFile {
+    static final int CHUNK_SIZE = 8 * 1024;
+    static final int CHECKPOINT_CHUNKS = 8; // Sync-flush every 64 KiB of log text
+    private static final int MAX_FREE_CHUNKS = 4;
+
+    private static final ExecutorService COMPRESSORS = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2), r -> {
+                Thread thread = new Thread(r, "card-game-compressor");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final int level;
+    private final long rotationBytes; // 0 for no rotation
+
+    // Writing side, guarded by this
+    private byte[] current;
+    private int currentLength;
+    private boolean open = false;
+
+    // Hand-off between the writing side and the compressor, guarded by queueLock
+    private final Object queueLock = new Object();
+    private final ArrayDeque<Chunk> queue = new ArrayDeque<>();
+    private final ArrayDeque<byte[]> freeChunks = new ArrayDeque<>();
+    private boolean draining = false;
+    private volatile int queuedChunks = 0; // The queue's size, written under queueLock and read without it
+    private IOException failure;
+
+    // Compressor side, only touched by the one compressor draining this file
+    private GZIPOutputStream gzip;
+    private CountingOutputStream segmentOut;
+    private int segment = 0;
+    private int chunksSinceCheckpoint = 0;
+
+    private static final class Chunk {
+        final byte[] data;
+        final int length;
+
+        Chunk(byte[] data, int length) {
+            this.data = data;
+            this.length = length;
+        }
+    }
+
+    // Markers queued when the file is opened and closed, so the compressor sees them in order with the data
+    private static final Chunk OPEN = new Chunk(null, 0);
+    private static final Chunk CLOSE = new Chunk(null, 0);
+
+    // Counts compressed bytes so segments can be rotated by their size on disk
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count = 0;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    CompressedLogFile(File file, boolean append, int level, long rotationBytes) {
+        super(file, append);
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between -1 and 9.");
+        }
+        if (rotationBytes < 0) {
+            throw new IllegalArgumentException("Rotation size cannot be negative.");
+        }
+        this.level = level;
+        this.rotationBytes = rotationBytes;
+    }
+
+    /**
+     * @param file the uncompressed name of a log file
+     * @param index the segment number, from 0
+     * @return the file holding that segment
+     */
+    static File segmentFile(File file, int index) {
+        return new File(file.getPath() + (index == 0 ? "" : "." + index) + ".gz");
+    }
+
+    @Override
+    protected void write(byte[] bytes, int length) throws IOException {
+        if (!open) {
+            open = true;
+            submit(OPEN);
+        }
+        if (current != null && CHUNK_SIZE - currentLength < length) {
+            handOff();
+        }
+        if (length > CHUNK_SIZE) {
+            submit(new Chunk(Arrays.copyOf(bytes, length), length));
+            return;
+        }
+        if (current == null) {
+            current = takeFreeChunk();
+            currentLength = 0;
+        }
+        System.arraycopy(bytes, 0, current, currentLength, length);
+        currentLength += length;
+    }
+
+    private byte[] takeFreeChunk() {
+        synchronized (queueLock) {
+            byte[] chunk = freeChunks.poll();
+            return chunk != null ? chunk : new byte[CHUNK_SIZE];
+        }
+    }
+
+    private void handOff() {
+        submit(new Chunk(current, currentLength));
+        current = null;
+        currentLength = 0;
+    }
+
+    private void submit(Chunk chunk) {
+        synchronized (queueLock) {
+            queue.add(chunk);
+            queuedChunks = queue.size();
+            if (!draining) {
+                draining = true;
+                COMPRESSORS.execute(this::drain);
+            }
+        }
+    }
+
+    // Compresses queued chunks in order until the queue is empty
+    private void drain() {
+        boolean caughtUp = false;
+        try {
+            while (true) {
+                Chunk chunk;
+                synchronized (queueLock) {
+                    chunk = queue.poll();
+                    queuedChunks = queue.size();
+                    if (chunk == null) {
+                        draining = false;
+                        queueLock.notifyAll();
+                        caughtUp = true;
+                        return;
+                    }
+                }
+
+                try {
+                    compress(chunk);
+                } catch (IOException e) {
+                    fail(e);
+                } catch (RuntimeException e) {
+                    fail(new IOException("Compression failed: " + e, e));
+                }
+
+                if (chunk.data != null && chunk.data.length == CHUNK_SIZE) {
+                    synchronized (queueLock) {
+                        if (freeChunks.size() < MAX_FREE_CHUNKS) {
+                            freeChunks.push(chunk.data);
+                        }
+                    }
+                }
+            }
+        } finally {
+            if (!caughtUp) {
+                // Stopped by an error: waiters must not wait for a compressor that is gone
+                synchronized (queueLock) {
+                    fail(new IOException("The compressor stopped before the file was written."));
+                    draining = false;
+                    queueLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    // Keeps the first failure, which close reports
+    private void fail(IOException e) {
+        synchronized (queueLock) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+    }
+
+    private void compress(Chunk chunk) throws IOException {
+        if (chunk == OPEN) {
+            openFirstSegment();
+            return;
+        }
+        if (chunk == CLOSE) {
+            finishSegment();
+            return;
+        }
+        if (gzip == null) {
+            openSegment();
+        }
+        gzip.write(chunk.data, 0, chunk.length);
+        if (++chunksSinceCheckpoint >= CHECKPOINT_CHUNKS) {
+            gzip.flush(); // Sync flush: everything so far can be decompressed
+            chunksSinceCheckpoint = 0;
+        }
+        if (rotationBytes > 0 && segmentOut.count >= rotationBytes) {
+            finishSegment();
+            segment++;
+        }
+    }
+
+    // Picks the segment to continue from when the file is opened
+    private void openFirstSegment() {
+        segment = 0;
+        if (!append) {
+            deleteSegments();
+            return;
+        }
+        while (segmentFile(file, segment + 1).exists()) {
+            segment++;
+        }
+    }
+
+    private void openSegment() throws IOException {
+        // Appending to a .gz file adds a new GZIP member, which readers decompress as one stream
+        segmentOut = new CountingOutputStream(new FileOutputStream(segmentFile(file, segment), true));
+        gzip = new GZIPOutputStream(segmentOut, CHUNK_SIZE, true) {
+            {
+                def.setLevel(level);
+            }
+        };
+        chunksSinceCheckpoint = 0;
+    }
+
+    private void finishSegment() throws IOException {
+        if (gzip != null) {
+            gzip.close();
+            gzip = null;
+            segmentOut = null;
+        }
+    }
+
+    private void deleteSegments() {
+        for (int index = 0; segmentFile(file, index).exists(); index++) {
+            segmentFile(file, index).delete();
+        }
+    }
+
+    /**
+     * @return the number of chunks waiting for the compressor
+     */
+    int getQueuedChunks() {
+        return queuedChunks; // Without the lock, so stats can poll it without slowing the writing thread
+    }
+
+    @Override
+    int getQueueDepth() {
+        return getQueuedChunks();
+    }
+
+    /**
+     * Waits until the compressor has caught up with every chunk handed off so far.
+     */
+    void awaitCompressed() {
+        boolean interrupted = false;
+        synchronized (queueLock) {
+            while (draining) {
+                try {
+                    queueLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true; // Keep waiting: the game must not finish before its files
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    void delete() {
+        awaitCompressed();
+        super.delete();
+        deleteSegments();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!open) {
+            return;
+        }
+        if (current != null) {
+            handOff();
+        }
+        submit(CLOSE);
+        open = false;
+        awaitCompressed();
+
+        synchronized (queueLock) {
+            if (failure != null) {
+                System.err.println("Error writing to file " + file + ": " + failure.getMessage());
+                failure = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Checks that a game never loses or duplicates a card: every few turns, and once more when the game ends,
+ * the cards in all hands and decks must be exactly the cards of the pack, denomination by denomination.
+ * Each player also counts the cards it draws and discards in fields only its own thread writes, so the checker
+ * can tell which hand or deck went wrong: a hand must hold its dealt cards plus its draws minus its discards,
+ * and a deck its dealt cards plus the previous player's discards minus its own player's draws.
+ * <p>
+ * A sample needs the players to stand still. The player that claims a sample turn asks the others to stop at
+ * the start of their next turn, checks once they have, and lets them go again. Between samples the only cost
+ * is one volatile read per turn, so the checker can stay on in soak tests. A checker serves one game at a time.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public class ConservationChecker {
+    static final int MAX_RECORDED_VIOLATIONS = 100;
+
+    private final long sampleEveryTurns;
+    private final Object lock = new Object();
+    private volatile boolean stopRequested = false; // Read by every player at the start of every turn
+    private int running = 0;  // Player threads in their run loop, guarded by lock
+    private int stopped = 0;  // Player threads waiting for a sample to finish, guarded by lock
+
+    // The game being checked, set when its pack is dealt
+    private int[] pack = new int[0]; // Sorted face values of the pack
+    private int[] dealtHandSizes = new int[0];
+    private int[] dealtDeckSizes = new int[0];
+
+    private long samples = 0;
+    private long violationCount = 0;
+    private final List<String> violations = new ArrayList<>();
+
+    /**
+     * @param sampleEveryTurns how many turns, across all players, between samples; 0 to check only when the game ends
+     */
+    public ConservationChecker(long sampleEveryTurns) {
+        if (sampleEveryTurns < 0) {
+            throw new IllegalArgumentException("Sample interval cannot be negative.");
+        }
+        this.sampleEveryTurns = sampleEveryTurns;
+    }
+
+    /**
+     * Records the pack of a new game before it is dealt.
+     */
+    void packLoaded(List<Card> cards) {
+        int[] values = new int[cards.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = cards.get(i).getFaceValue();
+        }
+        Arrays.sort(values);
+        pack = values;
+    }
+
+    /**
+     * Records the deal as the starting point of the transfer counts, and checks that the deal itself lost nothing.
+     */
+    void dealt(List<List<Card>> hands, List<CardDeck> decks) {
+        dealtHandSizes = new int[hands.size()];
+        dealtDeckSizes = new int[decks.size()];
+        for (int i = 0; i < hands.size(); i++) {
+            dealtHandSizes[i] = hands.get(i).size();
+            dealtDeckSizes[i] = decks.get(i).size();
+        }
+        synchronized (lock) {
+            check(hands, decks, null, "after the deal");
+        }
+    }
+
+    // Called by a player thread when it starts and stops playing
+    void enter() {
+        synchronized (lock) {
+            running++;
+        }
+    }
+
+    void exit() {
+        synchronized (lock) {
+            running--;
+            lock.notifyAll();
+        }
+    }
+
+    boolean isSampleTurn(long turn) {
+        return sampleEveryTurns > 0 && turn % sampleEveryTurns == 0;
+    }
+
+    /**
+     * Called at the start of every turn: stops the calling player while a sample is being taken.
+     * Waits through interrupts, since a sample is short and must not see a player move.
+     */
+    void safepoint() {
+        if (!stopRequested) {
+            return;
+        }
+        synchronized (lock) {
+            awaitSample();
+        }
+    }
+
+    // Waits, holding the lock, until the sample in progress (if any) is over
+    private void awaitSample() {
+        if (!stopRequested) {
+            return;
+        }
+        boolean interrupted = false;
+        stopped++;
+        lock.notifyAll(); // Tell the sampler this player has stopped
+        while (stopRequested) {
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        stopped--;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Takes a sample on the calling player's thread: stops the other players, checks, then lets them go.
+     * Skipped if the calling thread is interrupted while waiting, as it is when the game ends.
+     */
+    void sample(List<List<Card>> hands, List<CardDeck> decks, List<Player> players, long turn) {
+        synchronized (lock) {
+            awaitSample(); // Another player may have started a sample since this one's safepoint
+            stopRequested = true;
+            try {
+                // The caller is running but not stopped; a deterministic game has no player threads at all
+                while (stopped < running - 1) {
+                    lock.wait();
+                }
+                check(hands, decks, players, "after turn " + turn);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                stopRequested = false;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Checks the game once every player has stopped for good.
+     */
+    void gameEnded(List<List<Card>> hands, List<CardDeck> decks, List<Player> players) {
+        synchronized (lock) {
+            check(hands, decks, players, "at the end of the game");
+        }
+    }
+
+    // Compares the hands and decks with the pack and, given the players, with their transfer counts
+    private void check(List<List<Card>> hands, List<CardDeck> decks, List<Player> players, String when) {
+        samples++;
+        int[] found = new int[pack.length];
+        int count = 0;
+        for (int i = 0; i < hands.size(); i++) {
+            List<Card> hand = hands.get(i);
+            int[] deck = decks.get(i).snapshot();
+            if (count + hand.size() + deck.length > found.length) {
+                found = Arrays.copyOf(found, Math.max(found.length * 2, count + hand.size() + deck.length));
+            }
+            for (Card card : hand) {
+                found[count++] = card.getFaceValue();
+            }
+            System.arraycopy(deck, 0, found, count, deck.length);
+            count += deck.length;
+
+            if (players != null) {
+                Player player = players.get(i);
+                Player previous = players.get((i + hands.size() - 1) % hands.size());
+                long expectedHand = dealtHandSizes[i] + player.getCardsDrawn() - player.getCardsDiscarded();
+                if (hand.size() != expectedHand) {
+                    violation(when + ": player " + (i + 1) + " holds " + hand.size() + " cards but its draws and discards leave "
+                            + expectedHand + ".");
+                }
+                long expectedDeck = dealtDeckSizes[i] + previous.getCardsDiscarded() - player.getCardsDrawn();
+                if (deck.length != expectedDeck) {
+                    violation(when + ": deck " + (i + 1) + " holds " + deck.length + " cards but the draws and discards leave "
+                            + expectedDeck + ".");
+                }
+            }
+        }
+
+        int[] sorted = Arrays.copyOf(found, count);
+        Arrays.sort(sorted);
+        if (!Arrays.equals(sorted, pack)) {
+            String total = count != pack.length ? count + " cards instead of the pack's " + pack.length
+                    : "the pack's " + pack.length + " cards in other denominations";
+            violation(when + ": the hands and decks hold " + total + differences(sorted) + ".");
+        }
+    }
+
+    // Describes the first denominations whose counts differ from the pack
+    private String differences(int[] sorted) {
+        StringBuilder text = new StringBuilder();
+        int i = 0;
+        int j = 0;
+        int reported = 0;
+        while ((i < pack.length || j < sorted.length) && reported < 5) {
+            int value = j == sorted.length || (i < pack.length && pack[i] < sorted[j]) ? pack[i] : sorted[j];
+            int expected = 0;
+            int actual = 0;
+            while (i < pack.length && pack[i] == value) {
+                expected++;
+                i++;
+            }
+            while (j < sorted.length && sorted[j] == value) {
+                actual++;
+                j++;
+            }
+            if (expected != actual) {
+                text.append(reported == 0 ? "; " : ", ").append(value).append(": ").append(actual)
+                    .append(" instead of ").append(expected);
+                reported++;
+            }
+        }
+        return text.toString();
+    }
+
+    private void violation(String message) {
+        violationCount++;
+        if (violations.size() < MAX_RECORDED_VIOLATIONS) {
+            violations.add(message);
+        }
+        System.err.println("Card conservation violated " + message);
+    }
+
+    /**
+     * @return the number of checks made, including those after each deal and at the end of each game
+     */
+    public long getSamples() {
+        synchronized (lock) {
+            return samples;
+        }
+    }
+
+    public long getViolationCount() {
+        synchronized (lock) {
+            return violationCount;
+        }
+    }
+
+    /**
+     * @return the first violations found, up to MAX_RECORDED_VIOLATIONS
+     */
+    public List<String> getViolations() {
+        synchronized (lock) {
+            return Collections.unmodifiableList(new ArrayList<>(violations));
+        }
+    }
+
+    /**
+     * @return true if no check has found a lost or duplicated card
+     */
+    public boolean isConserved() {
+        return getViolationCount() == 0;
+    }
+}
@@ -0,0 +1,134 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ConservationCheckerTest {
+
+    private static final String PACK_FILE = "conservation_pack.txt";
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 32; i++) {
+            lines.add(String.valueOf((i * 5) % 8 + 1)); // Four of each value from 1 to 8
+        }
+        Files.write(new File(PACK_FILE).toPath(), lines);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        new File(PACK_FILE).delete();
+        for (int i = 1; i <= 4; i++) {
+            new File("player" + i + "_output.txt").delete();
+            new File("deck" + i + "_output.txt").delete();
+        }
+    }
+
+    private CardGame game(boolean offHeapDecks) {
+        CardGame game = new CardGame(4, PACK_FILE, offHeapDecks);
+        game.setConsoleOutput(false);
+        game.setClock(new SimulatedClock());
+        game.setTurnLimit(2000);
+        return game;
+    }
+
+    private List<Card> cards(int... faceValues) {
+        List<Card> cards = new ArrayList<>();
+        for (int faceValue : faceValues) {
+            cards.add(new Card(faceValue));
+        }
+        return cards;
+    }
+
+    // Test 1: Does a threaded game pass its samples and its final check?
+    @Test
+    public void testThreadedGameConserved() {
+        ConservationChecker checker = new ConservationChecker(25);
+        try (CardGame game = game(false)) {
+            game.setConservationChecker(checker);
+            game.startGame();
+        }
+        assertTrue(checker.isConserved(), "No card should be lost or duplicated: " + checker.getViolations());
+        assertTrue(checker.getSamples() >= 2, "The deal and the end of the game should both be checked.");
+    }
+
+    // Test 2: Is a deterministic game sampled exactly on the sample turns?
+    @Test
+    public void testDeterministicSampleCount() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 32; i++) {
+            lines.add(String.valueOf(i)); // Nobody can win, so every budgeted turn is played
+        }
+        Files.write(new File(PACK_FILE).toPath(), lines);
+
+        ConservationChecker checker = new ConservationChecker(10);
+        try (CardGame game = game(false)) {
+            game.setDeterministic(true);
+            game.setTurnLimit(100);
+            game.setConservationChecker(checker);
+            game.startGame();
+        }
+        assertTrue(checker.isConserved(), "No card should be lost or duplicated: " + checker.getViolations());
+        assertEquals(12, checker.getSamples(), "The deal, turns 10 to 100 and the end should each be checked once.");
+    }
+
+    // Test 3: Do pooled replays with off-heap decks stay conserved?
+    @Test
+    public void testPooledOffHeapReplaysConserved() {
+        ConservationChecker checker = new ConservationChecker(7);
+        try (CardGame game = game(true)) {
+            game.setPooled(true);
+            game.setConservationChecker(checker);
+            for (int i = 0; i < 5; i++) {
+                game.playAgain();
+            }
+        }
+        assertTrue(checker.isConserved(), "No card should be lost or duplicated: " + checker.getViolations());
+        assertTrue(checker.getSamples() >= 10, "Every game should be checked after its deal and at its end.");
+    }
+
+    // Test 4: Is a lost card reported with its denomination?
+    @Test
+    public void testLostCardReported() {
+        ConservationChecker checker = new ConservationChecker(0);
+        checker.packLoaded(cards(1, 1, 2, 2, 3, 3, 4, 4));
+
+        List<List<Card>> hands = List.of(cards(1, 1), cards(2, 2));
+        CardDeck first = new CardDeck();
+        first.offer(new Card(3));
+        first.offer(new Card(3));
+        CardDeck second = new CardDeck();
+        second.offer(new Card(4)); // The other 4 has gone missing
+        checker.dealt(hands, List.of(first, second));
+
+        assertFalse(checker.isConserved(), "The missing card should be noticed.");
+        String violation = checker.getViolations().get(0);
+        assertTrue(violation.contains("7 cards instead of the pack's 8"), "The card count should be reported: " + violation);
+        assertTrue(violation.contains("4: 1 instead of 2"), "The short denomination should be named: " + violation);
+    }
+
+    // Test 5: Is a duplicated card reported even when the total matches?
+    @Test
+    public void testSwappedCardReported() {
+        ConservationChecker checker = new ConservationChecker(0);
+        checker.packLoaded(cards(1, 2, 3, 4));
+
+        CardDeck first = new CardDeck();
+        first.offer(new Card(3));
+        CardDeck second = new CardDeck();
+        second.offer(new Card(3)); // A duplicated 3 in place of the 4
+        checker.dealt(List.of(cards(1), cards(2)), List.of(first, second));
+
+        assertEquals(1, checker.getViolationCount(), "One check should fail.");
+        String violation = checker.getViolations().get(0);
+        assertTrue(violation.contains("3: 2 instead of 1") && violation.contains("4: 0 instead of 1"),
+                "Both denominations should be named: " + violation);
+    }
+}
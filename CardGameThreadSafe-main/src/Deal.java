@@ -0,0 +1,129 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A pack dealt for a game, ready to be played: the first 4 * n cards go round the table into the hands,
+ * the rest round the table into the shared decks, and the deal is analysed for immediate winners.
+ * A deal does not depend on any game, so it can be prepared on another thread while a game is still playing,
+ * as GamePipeline does, and handed over through a queue to CardGame.playDealt.
+ * <p>
+ * A deal keeps the caller's pack rather than a copy, and can be played once: the game that plays it takes
+ * the deck cards into its decks and the deal lets go of the pack, so a game holds no extra copy of a large pack.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public final class Deal {
+    private List<Card> pack; // Both released once a game has taken the deal
+    private int[][] decks; // Face values, so a game can fill its decks with one bulk offer each
+    private final List<List<Card>> hands;
+    private final PackAnalysis analysis;
+
+    private Deal(List<Card> pack, List<List<Card>> hands, int[][] decks, PackAnalysis analysis) {
+        this.pack = pack;
+        this.hands = hands;
+        this.decks = decks;
+        this.analysis = analysis;
+    }
+
+    /**
+     * Deals a pack for a number of players.
+     *
+     * @param pack the cards in pack order; kept, not copied, so it must not be changed while the deal is unplayed
+     * @param players the number of players
+     * @return the deal
+     * @throws IOException if the pack has too few cards for the players
+     */
+    public static Deal of(List<Card> pack, int players) throws IOException {
+        int expectedCardCount = 8 * players; // 4 cards per hand + 4 cards for shared decks
+        if (pack.size() < expectedCardCount) {
+            throw new IOException("Invalid number of cards. The pack must contain exactly " + expectedCardCount + " cards.");
+        }
+
+        List<List<Card>> hands = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            hands.add(new ArrayList<>(4));
+        }
+        for (int i = 0; i < 4 * players; i++) {
+            hands.get(i % players).add(pack.get(i));
+        }
+        List<Card> deckCards = pack.subList(4 * players, pack.size());
+        int[][] decks = new int[players][];
+        for (int i = 0; i < players; i++) {
+            decks[i] = new int[(deckCards.size() - i + players - 1) / players];
+        }
+        for (int i = 0; i < deckCards.size(); i++) {
+            decks[i % players][i / players] = deckCards.get(i).getFaceValue();
+        }
+
+        PackAnalysis analysis = PackAnalysis.analyse(hands, deckCards);
+        for (int i = 0; i < players; i++) {
+            hands.set(i, Collections.unmodifiableList(hands.get(i)));
+        }
+        return new Deal(Collections.unmodifiableList(pack), Collections.unmodifiableList(hands), decks, analysis);
+    }
+
+    /**
+     * @return every card of the pack, in pack order
+     * @throws IllegalStateException if the deal has been played
+     */
+    public List<Card> getPack() {
+        checkUnplayed();
+        return pack;
+    }
+
+    /**
+     * @return true once a game has taken the deal's cards
+     */
+    public boolean isPlayed() {
+        return decks == null;
+    }
+
+    public int getPlayers() {
+        return hands.size();
+    }
+
+    /**
+     * @return the four cards dealt to a player
+     */
+    public List<Card> getHand(int player) {
+        return hands.get(player);
+    }
+
+    /**
+     * @return the cards dealt into a shared deck, top card first, in a new list
+     * @throws IllegalStateException if the deal has been played
+     */
+    public List<Card> getDeck(int deck) {
+        checkUnplayed();
+        List<Card> cards = new ArrayList<>(decks[deck].length);
+        for (int faceValue : decks[deck]) {
+            cards.add(Card.valueOf(faceValue));
+        }
+        return cards;
+    }
+
+    // The face values dealt into a deck, shared rather than copied; callers must not change them
+    int[] deckFaceValues(int deck) {
+        checkUnplayed();
+        return decks[deck];
+    }
+
+    // Called once a game has offered the deck cards into its decks; the deal keeps only the hands and analysis
+    void played() {
+        pack = null;
+        decks = null;
+    }
+
+    private void checkUnplayed() {
+        if (decks == null) {
+            throw new IllegalStateException("The deal has been played; its cards are in the game's decks.");
+        }
+    }
+
+    public PackAnalysis getAnalysis() {
+        return analysis;
+    }
+}
@@ -0,0 +1,101 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Off-heap memory for the OffHeapCardDeck instances of one game.
+ * Memory is taken from large direct buffers in slices, one per deck, and reused from game to game:
+ * reset hands the same blocks out again, so replaying a game allocates nothing.
+ * Closing the arena detaches every deck from its slice and drops the blocks.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public class DeckArena implements AutoCloseable {
+    private static final int MIN_BLOCK_BYTES = 64 * 1024;
+
+    private final List<ByteBuffer> blocks = new ArrayList<>();
+    private final List<OffHeapCardDeck> decks = new ArrayList<>();
+    private int currentBlock = 0; // Blocks before this one are full until the next reset
+    private boolean closed = false;
+
+    /**
+     * Takes a slice big enough for the given number of face values.
+     *
+     * @param cards the number of cards the slice must hold
+     * @return a native-order buffer of exactly cards * 4 bytes
+     * @throws IllegalStateException if the arena has been closed
+     */
+    synchronized ByteBuffer allocate(int cards) {
+        if (closed) {
+            throw new IllegalStateException("The deck arena has been closed.");
+        }
+        if (cards <= 0 || cards > Integer.MAX_VALUE / Integer.BYTES) {
+            throw new IllegalArgumentException("Cannot allocate off-heap storage for " + cards + " cards.");
+        }
+        int bytes = cards * Integer.BYTES;
+
+        for (; currentBlock < blocks.size(); currentBlock++) {
+            ByteBuffer block = blocks.get(currentBlock);
+            if (block.remaining() >= bytes) {
+                return slice(block, bytes);
+            }
+        }
+
+        ByteBuffer block = ByteBuffer.allocateDirect(Math.max(bytes, MIN_BLOCK_BYTES)).order(ByteOrder.nativeOrder());
+        blocks.add(block);
+        return slice(block, bytes);
+    }
+
+    private ByteBuffer slice(ByteBuffer block, int bytes) {
+        ByteBuffer slice = block.slice(block.position(), bytes).order(ByteOrder.nativeOrder());
+        block.position(block.position() + bytes);
+        return slice;
+    }
+
+    /**
+     * Makes every block available again. Decks holding slices must be prepared again before they are used.
+     */
+    synchronized void reset() {
+        for (ByteBuffer block : blocks) {
+            block.clear();
+        }
+        currentBlock = 0;
+    }
+
+    synchronized void register(OffHeapCardDeck deck) {
+        decks.add(deck);
+    }
+
+    /**
+     * @return the number of off-heap bytes held by the arena
+     */
+    public synchronized long getReservedBytes() {
+        long bytes = 0;
+        for (ByteBuffer block : blocks) {
+            bytes += block.capacity();
+        }
+        return bytes;
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Detaches every deck and drops the blocks. The decks cannot be used afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (OffHeapCardDeck deck : decks) {
+            deck.release();
+        }
+        decks.clear();
+        blocks.clear();
+    }
+}
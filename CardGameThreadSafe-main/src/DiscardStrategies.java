@@ -0,0 +1,217 @@
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Built-in discard strategies, driven by decision tables computed once when the class loads.
+ * A hand of up to five cards is reduced to a compact code: each card becomes a label, 0 for the
+ * preferred denomination and 1, 2, ... for the other denominations in the order they first appear.
+ * The hand size and the labels, as base-6 digits, form an index into the tables, so a turn costs
+ * one pass over the hand and one array lookup. Larger hands, which normal play never produces,
+ * are handled by scanning the hand instead.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public final class DiscardStrategies {
+    static final int MAX_TABLE_HAND = 5;
+    private static final int RADIX = MAX_TABLE_HAND + 1;
+    private static final int TABLE_SIZE = (MAX_TABLE_HAND + 1) * pow(RADIX, MAX_TABLE_HAND);
+
+    // Discardable positions per hand code: count in the low 3 bits, then 3 bits per position
+    private static final int[] CANDIDATES = new int[TABLE_SIZE];
+    private static final byte[] OLDEST_TABLE = new byte[TABLE_SIZE];
+    private static final byte[] KEEP_SETS_TABLE = new byte[TABLE_SIZE];
+
+    static {
+        for (int size = 0; size <= MAX_TABLE_HAND; size++) {
+            int[] labels = new int[size];
+            for (int digits = 0; digits < pow(RADIX, size); digits++) {
+                int code = size * pow(RADIX, size) + digits;
+                for (int i = size - 1, rest = digits; i >= 0; i--, rest /= RADIX) {
+                    labels[i] = rest % RADIX;
+                }
+                CANDIDATES[code] = candidates(labels);
+                OLDEST_TABLE[code] = (byte) oldest(labels);
+                KEEP_SETS_TABLE[code] = (byte) keepSets(labels);
+            }
+        }
+    }
+
+    /**
+     * Discards a random card that is not the preferred denomination. This is the default.
+     */
+    public static final DiscardStrategy RANDOM = (hand, preferred, random) -> {
+        int code = encode(hand, preferred);
+        if (code < 0) {
+            int count = countNonPreferred(hand, preferred);
+            return count == 0 ? -1 : nthNonPreferred(hand, preferred, random.nextInt(count));
+        }
+        int candidates = CANDIDATES[code];
+        int count = candidates & 7;
+        return count == 0 ? -1 : (candidates >>> (3 + 3 * random.nextInt(count))) & 7;
+    };
+
+    /**
+     * Discards the non-preferred card that has been held longest, so cards pass round the ring in order.
+     */
+    public static final DiscardStrategy OLDEST = (hand, preferred, random) -> {
+        int code = encode(hand, preferred);
+        return code < 0 ? nthNonPreferred(hand, preferred, 0) : OLDEST_TABLE[code];
+    };
+
+    /**
+     * Discards a card of the rarest non-preferred denomination in the hand,
+     * keeping the denominations closest to four of a kind. Ties go to the card held longest.
+     */
+    public static final DiscardStrategy KEEP_SETS = (hand, preferred, random) -> {
+        int code = encode(hand, preferred);
+        return code < 0 ? rarestNonPreferred(hand, preferred) : KEEP_SETS_TABLE[code];
+    };
+
+    private DiscardStrategies() {
+    }
+
+    /**
+     * Names a built-in strategy, so results played with it can be recognised in a later run.
+     *
+     * @return "RANDOM", "OLDEST" or "KEEP_SETS", or null for any other strategy
+     */
+    static String nameOf(DiscardStrategy strategy) {
+        if (strategy == RANDOM) {
+            return "RANDOM";
+        } else if (strategy == OLDEST) {
+            return "OLDEST";
+        } else if (strategy == KEEP_SETS) {
+            return "KEEP_SETS";
+        }
+        return null;
+    }
+
+    /**
+     * Reduces a hand to its table index.
+     *
+     * @return the hand code, or -1 if the hand is too large for the tables
+     */
+    static int encode(List<Card> hand, int preferred) {
+        int size = hand.size();
+        if (size > MAX_TABLE_HAND) {
+            return -1;
+        }
+
+        int code = size;
+        int labels = 0; // 3 bits per card
+        int nextLabel = 1;
+        for (int i = 0; i < size; i++) {
+            int faceValue = hand.get(i).getFaceValue();
+            int label = 0;
+            if (faceValue != preferred) {
+                for (int j = 0; j < i && label == 0; j++) {
+                    if (hand.get(j).getFaceValue() == faceValue) {
+                        label = (labels >>> (3 * j)) & 7;
+                    }
+                }
+                if (label == 0) {
+                    label = nextLabel++;
+                }
+            }
+            labels |= label << (3 * i);
+            code = code * RADIX + label;
+        }
+        return code;
+    }
+
+    private static int pow(int base, int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
+        }
+        return result;
+    }
+
+    // Table builders, run once per hand code
+
+    private static int candidates(int[] labels) {
+        int packed = 0;
+        int count = 0;
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] != 0) {
+                packed |= i << (3 + 3 * count);
+                count++;
+            }
+        }
+        return packed | count;
+    }
+
+    private static int oldest(int[] labels) {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int keepSets(int[] labels) {
+        int best = -1;
+        int bestCount = Integer.MAX_VALUE;
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == 0) {
+                continue;
+            }
+            int count = 0;
+            for (int label : labels) {
+                if (label == labels[i]) {
+                    count++;
+                }
+            }
+            if (count < bestCount) {
+                best = i;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    // Fallbacks for hands larger than the tables cover
+
+    private static int countNonPreferred(List<Card> hand, int preferred) {
+        int count = 0;
+        for (int i = 0; i < hand.size(); i++) {
+            if (hand.get(i).getFaceValue() != preferred) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int nthNonPreferred(List<Card> hand, int preferred, int n) {
+        for (int i = 0; i < hand.size(); i++) {
+            if (hand.get(i).getFaceValue() != preferred && n-- == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int rarestNonPreferred(List<Card> hand, int preferred) {
+        int best = -1;
+        int bestCount = Integer.MAX_VALUE;
+        for (int i = 0; i < hand.size(); i++) {
+            int faceValue = hand.get(i).getFaceValue();
+            if (faceValue == preferred) {
+                continue;
+            }
+            int count = 0;
+            for (int j = 0; j < hand.size(); j++) {
+                if (hand.get(j).getFaceValue() == faceValue) {
+                    count++;
+                }
+            }
+            if (count < bestCount) {
+                best = i;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+}
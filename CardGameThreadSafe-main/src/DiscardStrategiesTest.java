@@ -0,0 +1,88 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class DiscardStrategiesTest {
+
+    private final Random random = new Random(42);
+
+    private List<Card> hand(int... faceValues) {
+        List<Card> hand = new ArrayList<>();
+        for (int faceValue : faceValues) {
+            hand.add(new Card(faceValue));
+        }
+        return hand;
+    }
+
+    // Test 1: Does the random strategy never discard the preferred denomination?
+    @Test
+    public void testRandomNeverDiscardsPreferred() {
+        List<Card> hand = hand(1, 2, 1, 3, 1);
+        for (int i = 0; i < 200; i++) {
+            int index = DiscardStrategies.RANDOM.chooseDiscard(hand, 1, random);
+            assertTrue(index == 1 || index == 3, "Only the 2 or the 3 may be discarded.");
+        }
+    }
+
+    // Test 2: Does the random strategy pick every candidate?
+    @Test
+    public void testRandomCoversAllCandidates() {
+        List<Card> hand = hand(2, 3, 4, 5, 6);
+        boolean[] seen = new boolean[5];
+        for (int i = 0; i < 500; i++) {
+            seen[DiscardStrategies.RANDOM.chooseDiscard(hand, 1, random)] = true;
+        }
+        for (boolean s : seen) {
+            assertTrue(s, "Every non-preferred card should sometimes be discarded.");
+        }
+    }
+
+    // Test 3: Do all strategies skip when only preferred cards are held?
+    @Test
+    public void testSkipWhenOnlyPreferred() {
+        List<Card> hand = hand(4, 4, 4);
+        assertEquals(-1, DiscardStrategies.RANDOM.chooseDiscard(hand, 4, random), "Random should skip.");
+        assertEquals(-1, DiscardStrategies.OLDEST.chooseDiscard(hand, 4, random), "Oldest should skip.");
+        assertEquals(-1, DiscardStrategies.KEEP_SETS.chooseDiscard(hand, 4, random), "Keep-sets should skip.");
+        assertEquals(-1, DiscardStrategies.OLDEST.chooseDiscard(hand(), 4, random), "An empty hand should skip.");
+    }
+
+    // Test 4: Does the oldest strategy discard the first non-preferred card?
+    @Test
+    public void testOldest() {
+        assertEquals(1, DiscardStrategies.OLDEST.chooseDiscard(hand(2, 7, 2, 9, 7), 2, random),
+                "The 7 at index 1 has been held longest.");
+    }
+
+    // Test 5: Does the keep-sets strategy keep the most common denomination?
+    @Test
+    public void testKeepSets() {
+        assertEquals(3, DiscardStrategies.KEEP_SETS.chooseDiscard(hand(5, 5, 5, 8, 1), 1, random),
+                "The single 8 should go before any of the three 5s.");
+        assertEquals(0, DiscardStrategies.KEEP_SETS.chooseDiscard(hand(6, 5, 5, 8, 8), 1, random),
+                "The single 6 is the rarest card.");
+    }
+
+    // Test 6: Do hands larger than the tables give the same answers?
+    @Test
+    public void testLargeHandFallback() {
+        List<Card> hand = hand(3, 9, 9, 3, 3, 7, 9, 9);
+        assertEquals(-1, DiscardStrategies.encode(hand, 3), "Eight cards are beyond the tables.");
+        assertEquals(1, DiscardStrategies.OLDEST.chooseDiscard(hand, 3, random), "The first 9 is the oldest candidate.");
+        assertEquals(5, DiscardStrategies.KEEP_SETS.chooseDiscard(hand, 3, random), "The 7 is the rarest candidate.");
+        int index = DiscardStrategies.RANDOM.chooseDiscard(hand, 3, random);
+        assertNotEquals(3, hand.get(index).getFaceValue(), "The preferred 3 should never be discarded.");
+    }
+
+    // Test 7: Do hands with the same shape share a code?
+    @Test
+    public void testEncodingIgnoresFaceValues() {
+        assertEquals(DiscardStrategies.encode(hand(1, 4, 4, 9), 1), DiscardStrategies.encode(hand(2, 7, 7, 3), 2),
+                "Hands with the same pattern should share a table entry.");
+        assertNotEquals(DiscardStrategies.encode(hand(1, 4, 4, 9), 1), DiscardStrategies.encode(hand(1, 4, 9, 9), 1),
+                "Hands with different patterns should not share a table entry.");
+    }
+}
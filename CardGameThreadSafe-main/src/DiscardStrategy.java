@@ -0,0 +1,23 @@
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Chooses which card a player discards each turn.
+ * Called once per turn on the player's own thread, so implementations should not allocate or block.
+ * The built-in strategies are in DiscardStrategies.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public interface DiscardStrategy {
+
+    /**
+     * Picks the card to discard from a hand. The preferred denomination must never be discarded.
+     *
+     * @param hand the player's hand, after drawing
+     * @param preferredDenomination the face value the player keeps
+     * @param random the random source to use for any random choice
+     * @return the index in the hand of the card to discard, or -1 to skip the discard
+     */
+    int chooseDiscard(List<Card> hand, int preferredDenomination, RandomGenerator random);
+}
@@ -0,0 +1,23 @@
+/**
+ * The source of time for a game: how long players pause between turns and how the time limit is measured.
+ * RealClock waits in real time, for demo games whose pace can be followed on the console.
+ * SimulatedClock advances instantly, so tests and batch runs play whole games at CPU speed.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public interface GameClock {
+
+    /**
+     * @return the current time in nanoseconds, only meaningful as a difference between two calls
+     */
+    long nanoTime();
+
+    /**
+     * Pauses the calling thread.
+     *
+     * @param millis how long to pause, in milliseconds of this clock's time
+     * @throws InterruptedException if the thread is interrupted before or while it pauses
+     */
+    void sleep(long millis) throws InterruptedException;
+}
@@ -0,0 +1,145 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder events for the card game, so a running game can be profiled in JDK Mission Control.
+ * None of the events record a stack trace, and the frequent ones have thresholds, so only slow operations
+ * (a contended deck, a stalled file write) are written. Start a recording with
+ * {@code java -XX:StartFlightRecording ...} or from JMC; with no recording running the events cost almost nothing.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public final class GameEvents {
+
+    private GameEvents() {
+    }
+
+    /**
+     * One player turn: draw, discard and the win check.
+     */
+    @Name("cardgame.Turn")
+    @Label("Player Turn")
+    @Category("Card Game")
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static class Turn extends Event {
+        @Label("Player")
+        int player;
+
+        @Label("Drawn Card")
+        @Description("Face value of the card drawn, or 0 if the player's deck was empty")
+        int drawn;
+
+        @Label("Discarded Card")
+        @Description("Face value of the card discarded, or 0 if the player kept every card")
+        int discarded;
+
+        @Label("Won")
+        boolean won;
+    }
+
+    /**
+     * A card drawn from a deck, including the time spent waiting for the deck's lock.
+     */
+    @Name("cardgame.DeckDraw")
+    @Label("Deck Draw")
+    @Category("Card Game")
+    @StackTrace(false)
+    @Threshold("20 us")
+    static class DeckDraw extends Event {
+        @Label("Card")
+        @Description("Face value of the card drawn, or 0 if the deck was empty")
+        int card;
+
+        @Label("Deck Empty")
+        boolean empty;
+    }
+
+    /**
+     * A card offered to a deck.
+     */
+    @Name("cardgame.DeckOffer")
+    @Label("Deck Offer")
+    @Category("Card Game")
+    @StackTrace(false)
+    @Threshold("20 us")
+    static class DeckOffer extends Event {
+        @Label("Card")
+        int card;
+
+        @Label("Deck Was Empty")
+        @Description("True if the deck was empty before the offer, so the player drawing from it had nothing to draw")
+        boolean wasEmpty;
+    }
+
+    /**
+     * One line written to a player's output file.
+     */
+    @Name("cardgame.FileWrite")
+    @Label("Output File Write")
+    @Category("Card Game")
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static class FileWrite extends Event {
+        @Label("Player")
+        int player;
+
+        @Label("Characters")
+        int characters;
+
+        @Label("Output Mode")
+        String outputMode;
+    }
+
+    /**
+     * A whole game, from loading the pack to writing the final decks.
+     */
+    @Name("cardgame.Game")
+    @Label("Game")
+    @Category("Card Game")
+    @StackTrace(false)
+    @Threshold("0 ms")
+    static class Game extends Event {
+        @Label("Players")
+        int players;
+
+        @Label("Outcome")
+        @Description("How the game ended, or ERROR if the pack could not be used")
+        String outcome;
+
+        @Label("Winner")
+        @Description("The winning player, or 0 if nobody won")
+        int winner;
+
+        @Label("Turns")
+        long turns;
+
+        @Label("Output Mode")
+        String outputMode;
+
+        @Label("Pooled")
+        boolean pooled;
+    }
+
+    /**
+     * The part of a game in which the player threads run, from starting them to writing the final decks.
+     */
+    @Name("cardgame.Play")
+    @Label("Game Play")
+    @Category("Card Game")
+    @StackTrace(false)
+    @Threshold("0 ms")
+    static class Play extends Event {
+        @Label("Players")
+        int players;
+
+        @Label("Outcome")
+        String outcome;
+    }
+}
@@ -0,0 +1,140 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class GameEventsTest {
+
+    private static final String TEMP_PACK_FILE = "events_pack.txt";
+
+    private static final List<Class<? extends Event>> EVENTS = List.of(
+        GameEvents.Turn.class, GameEvents.DeckDraw.class, GameEvents.DeckOffer.class,
+        GameEvents.FileWrite.class, GameEvents.Game.class, GameEvents.Play.class
+    );
+
+    @AfterEach
+    public void cleanUp() {
+        new File(TEMP_PACK_FILE).delete();
+        for (int i = 0; i < 4; i++) {
+            new File("player" + (i + 1) + "_output.txt").delete();
+            new File("deck" + (i + 1) + "_output.txt").delete();
+        }
+    }
+
+    // Records every card game event, ignoring the thresholds, while the action runs
+    private List<RecordedEvent> record(Runnable action) throws IOException {
+        Path dump = Files.createTempFile("card-game", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (Class<? extends Event> eventClass : EVENTS) {
+                recording.enable(eventClass).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(dump);
+            return RecordingFile.readAllEvents(dump);
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    private List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                matching.add(event);
+            }
+        }
+        return matching;
+    }
+
+    // Test 1: Does a game record one turn event per turn and a game event with its result?
+    @Test
+    public void testGameRecordsTurnsAndLifecycle() throws IOException {
+        List<String> cardValues = new ArrayList<>();
+        for (int i = 1; i <= 32; i++) {
+            cardValues.add(String.valueOf(i));
+        }
+        Files.write(new File(TEMP_PACK_FILE).toPath(), cardValues);
+
+        List<GameResult> results = new ArrayList<>();
+        List<RecordedEvent> events = record(() -> {
+            CardGame game = new CardGame(4, TEMP_PACK_FILE);
+            game.setTurnLimit(8);
+            game.setConsoleOutput(false);
+            results.add(game.startGame());
+        });
+
+        assertEquals(8, named(events, "cardgame.Turn").size(), "Each of the 8 turns should record a turn event.");
+        List<RecordedEvent> games = named(events, "cardgame.Game");
+        assertEquals(1, games.size(), "The game should record one game event.");
+        assertEquals("TIMEOUT", games.get(0).getString("outcome"), "The game event should carry the outcome.");
+        assertEquals(results.get(0).getTurns(), games.get(0).getLong("turns"), "The game event should carry the turn count.");
+        assertEquals(1, named(events, "cardgame.Play").size(), "The game should record one play event.");
+        assertFalse(named(events, "cardgame.FileWrite").isEmpty(), "Writing the player files should record events.");
+    }
+
+    // Test 2: Do deck events flag an empty deck?
+    @Test
+    public void testDeckEventsFlagEmptyDeck() throws IOException {
+        CardDeck deck = new CardDeck();
+        List<RecordedEvent> events = record(() -> {
+            deck.drawCard(); // Nothing to draw yet
+            deck.offer(new Card(7));
+            deck.drawCard();
+        });
+
+        List<RecordedEvent> draws = named(events, "cardgame.DeckDraw");
+        assertEquals(2, draws.size(), "Both draws should be recorded.");
+        assertTrue(draws.get(0).getBoolean("empty"), "The first draw found the deck empty.");
+        assertEquals(7, draws.get(1).getInt("card"), "The second draw should record the card drawn.");
+
+        List<RecordedEvent> offers = named(events, "cardgame.DeckOffer");
+        assertEquals(1, offers.size(), "The offer should be recorded.");
+        assertTrue(offers.get(0).getBoolean("wasEmpty"), "The offer went to an empty deck.");
+    }
+
+    // Test 3: Does a file write record the player and the line length?
+    @Test
+    public void testFileWriteEvent() throws IOException {
+        CardGame game = new CardGame(4, TEMP_PACK_FILE);
+        List<RecordedEvent> events = record(() -> game.writePlayerFile(1, "Player 2 draws 5 from Deck 2"));
+        game.closeLogs();
+
+        List<RecordedEvent> writes = named(events, "cardgame.FileWrite");
+        assertEquals(1, writes.size(), "The write should be recorded.");
+        assertEquals(2, writes.get(0).getInt("player"), "The event should name player 2.");
+        assertEquals(28, writes.get(0).getInt("characters"), "The event should record the line length.");
+        assertNull(writes.get(0).getStackTrace(), "Events should not record stack traces.");
+    }
+
+    // Test 4: Can every event stay enabled cheaply, without stack traces and with thresholds on the frequent ones?
+    @Test
+    public void testEventsConfiguredForProduction() {
+        for (Class<? extends Event> eventClass : EVENTS) {
+            StackTrace stackTrace = eventClass.getAnnotation(StackTrace.class);
+            assertNotNull(stackTrace, eventClass.getSimpleName() + " should configure stack traces.");
+            assertFalse(stackTrace.value(), eventClass.getSimpleName() + " should not record stack traces.");
+            assertNotNull(eventClass.getAnnotation(Threshold.class), eventClass.getSimpleName() + " should set a threshold.");
+        }
+        assertNotEquals("0 ms", GameEvents.DeckDraw.class.getAnnotation(Threshold.class).value(),
+                "Deck draws happen every turn and should only be recorded when slow.");
+        assertNotEquals("0 ms", GameEvents.FileWrite.class.getAnnotation(Threshold.class).value(),
+                "File writes happen every turn and should only be recorded when slow.");
+        assertNotEquals("0 ms", GameEvents.Turn.class.getAnnotation(Threshold.class).value(),
+                "Turns can run millions of times a second and should only be recorded when slow.");
+    }
+}
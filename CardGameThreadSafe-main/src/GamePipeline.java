@@ -0,0 +1,339 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Plays a batch of games as a three-stage pipeline, so the next games' packs are read and dealt while the
+ * current game is playing instead of between games. A loader thread reads and parses each job's pack, a dealer
+ * thread deals it and analyses the deal, and the calling thread plays the deals in job order. The stages are
+ * joined by bounded queues whose capacity is the pipeline depth, so at most that many packs wait in each.
+ * <p>
+ * Each stage counts the time it spends working, waiting for its input (starved) and waiting for room in its
+ * output (blocked). The stage that is busy for most of the run is the bottleneck: if playing is, the pipeline
+ * is hiding all of the setup; if the play stage is starved, loading or dealing cannot keep up.
+ * Run {@code java GamePipeline <games> <players> <pack file> [seed] [turn limit] [depth] [result store]} for a batch;
+ * with a result store directory, every result is appended to that ResultStore.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public final class GamePipeline {
+
+    /**
+     * Plays one dealt game of the batch.
+     */
+    public interface GameRunner {
+        GameResult play(TournamentJob job, Deal deal);
+    }
+
+    /**
+     * Where one stage of the pipeline spent its time during the last run.
+     */
+    public static final class Stage {
+        private final String name;
+        private volatile long items = 0; // Written only by the stage's own thread
+        private volatile long busyNanos = 0;
+        private volatile long starvedNanos = 0;
+        private volatile long blockedNanos = 0;
+        private volatile long elapsedNanos = 0;
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getItems() {
+            return items;
+        }
+
+        public long getBusyNanos() {
+            return busyNanos;
+        }
+
+        /**
+         * @return the time spent waiting for the previous stage
+         */
+        public long getStarvedNanos() {
+            return starvedNanos;
+        }
+
+        /**
+         * @return the time spent waiting for the next stage to make room
+         */
+        public long getBlockedNanos() {
+            return blockedNanos;
+        }
+
+        /**
+         * @return the share of the run this stage spent working, from 0 to 1
+         */
+        public double getUtilisation() {
+            long elapsed = elapsedNanos;
+            return elapsed > 0 ? Math.min(1.0, (double) busyNanos / elapsed) : 0;
+        }
+
+        private void reset() {
+            items = 0;
+            busyNanos = 0;
+            starvedNanos = 0;
+            blockedNanos = 0;
+            elapsedNanos = 0;
+        }
+
+        private Item take(BlockingQueue<Item> input) throws InterruptedException {
+            long start = System.nanoTime();
+            Item item = input.take();
+            starvedNanos += System.nanoTime() - start;
+            return item;
+        }
+
+        private void put(BlockingQueue<Item> output, Item item) throws InterruptedException {
+            long start = System.nanoTime();
+            output.put(item);
+            blockedNanos += System.nanoTime() - start;
+        }
+
+        private void worked(long startNanos) {
+            busyNanos += System.nanoTime() - startNanos;
+            items++;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-5s %6d games  busy %9.1f ms (%3.0f%%)  starved %9.1f ms  blocked %9.1f ms",
+                    name, items, busyNanos / 1e6, getUtilisation() * 100, starvedNanos / 1e6, blockedNanos / 1e6);
+        }
+    }
+
+    // A job on its way through the pipeline, with its pack, its deal, or the reason it cannot be played
+    private static final class Item {
+        static final Item END = new Item(null);
+
+        final TournamentJob job;
+        List<Card> pack;
+        Deal deal;
+        Exception error;
+        RuntimeException stageFailure; // Set, with no job, when a stage died; the run fails with it
+
+        Item(TournamentJob job) {
+            this.job = job;
+        }
+    }
+
+    private final int depth;
+    private final PackCache packCache;
+    private final Stage load = new Stage("load");
+    private final Stage deal = new Stage("deal");
+    private final Stage play = new Stage("play");
+
+    /**
+     * @param depth how many packs may wait between two stages, at least 1
+     * @param packCache the cache to load packs through, or null to read every pack from its file
+     */
+    public GamePipeline(int depth, PackCache packCache) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Pipeline depth must be at least 1.");
+        }
+        this.depth = depth;
+        this.packCache = packCache;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the load, deal and play stages, with their times from the last run
+     */
+    public List<Stage> getStages() {
+        return List.of(load, deal, play);
+    }
+
+    /**
+     * Plays every job, loading and dealing the following jobs while each game plays.
+     * A job whose pack cannot be read or dealt is reported on System.err and gets a null result.
+     * Must not be called again before it returns.
+     *
+     * @param jobs the games to play, in order
+     * @param runner plays each deal on the calling thread
+     * @return the result of each job, in job order
+     * @throws IllegalStateException if the load or deal stage failed unexpectedly, with the stage's exception as the cause
+     * @throws InterruptedException if the calling thread is interrupted; the other stages are stopped
+     */
+    public List<GameResult> run(List<TournamentJob> jobs, GameRunner runner) throws InterruptedException {
+        BlockingQueue<Item> loaded = new ArrayBlockingQueue<>(depth);
+        BlockingQueue<Item> dealt = new ArrayBlockingQueue<>(depth);
+        for (Stage stage : getStages()) {
+            stage.reset();
+        }
+
+        long start = System.nanoTime();
+        Thread loader = startStage("pipeline-load", () -> {
+            for (TournamentJob job : jobs) {
+                long begin = System.nanoTime();
+                Item item = new Item(job);
+                try {
+                    item.pack = loadPack(job);
+                } catch (IOException | RuntimeException e) {
+                    item.error = e;
+                }
+                load.worked(begin);
+                load.put(loaded, item);
+            }
+            load.put(loaded, Item.END);
+        }, loaded);
+        Thread dealer = startStage("pipeline-deal", () -> {
+            for (Item item = deal.take(loaded); item != Item.END; item = deal.take(loaded)) {
+                if (item.stageFailure != null) {
+                    deal.put(dealt, item); // The loader died; pass its failure on to the play stage
+                    continue;
+                }
+                long begin = System.nanoTime();
+                if (item.error == null) {
+                    try {
+                        item.deal = Deal.of(item.pack, item.job.getPlayers());
+                    } catch (IOException | RuntimeException e) {
+                        item.error = e;
+                    }
+                    item.pack = null;
+                }
+                deal.worked(begin);
+                deal.put(dealt, item);
+            }
+            deal.put(dealt, Item.END);
+        }, dealt);
+
+        try {
+            List<GameResult> results = new ArrayList<>(jobs.size());
+            for (Item item = play.take(dealt); item != Item.END; item = play.take(dealt)) {
+                if (item.stageFailure != null) {
+                    throw item.stageFailure;
+                }
+                long begin = System.nanoTime();
+                if (item.error != null) {
+                    System.err.println("Error in " + item.job + ": " + item.error.getMessage());
+                    results.add(null);
+                } else {
+                    results.add(runner.play(item.job, item.deal));
+                }
+                play.worked(begin);
+            }
+            return results;
+        } finally {
+            loader.interrupt(); // Only still running if the run was cut short
+            dealer.interrupt();
+            long elapsed = System.nanoTime() - start;
+            for (Stage stage : getStages()) {
+                stage.elapsedNanos = elapsed;
+            }
+        }
+    }
+
+    private List<Card> loadPack(TournamentJob job) throws IOException {
+        File packFile = new File(job.getPackFilePath());
+        return packCache != null ? packCache.load(packFile).cards() : CardGame.readPack(packFile);
+    }
+
+    private interface StageBody {
+        void run() throws InterruptedException;
+    }
+
+    // Runs a stage on its own thread; if the stage dies, its failure and the end of the batch are passed on
+    // to the next stage, so the run fails instead of waiting for items that will never come
+    private static Thread startStage(String name, StageBody body, BlockingQueue<Item> output) {
+        Thread thread = new Thread(() -> {
+            try {
+                body.run();
+            } catch (InterruptedException e) {
+                // The run was cut short; nobody is waiting for this stage any more
+            } catch (Throwable e) {
+                Item failure = new Item(null);
+                failure.stageFailure = new IllegalStateException("Pipeline stage " + name + " failed: " + e, e);
+                try {
+                    output.put(failure);
+                    output.put(Item.END);
+                } catch (InterruptedException stopped) {
+                    // The run was cut short while the failure was passed on
+                }
+            }
+        }, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: java GamePipeline <games> <players> <pack file> [seed] [turn limit] [depth] [result store]");
+            return;
+        }
+        int games = Integer.parseInt(args[0]);
+        int players = Integer.parseInt(args[1]);
+        String packFilePath = args[2];
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        long turnLimit = args.length > 4 ? Long.parseLong(args[4]) : 0;
+        int depth = args.length > 5 ? Integer.parseInt(args[5]) : 4;
+        ResultStore.Writer store = args.length > 6 ? ResultStore.writer(new File(args[6])) : null;
+
+        List<TournamentJob> jobs = new ArrayList<>();
+        for (int i = 0; i < games; i++) {
+            jobs.add(new TournamentJob(i, players, seed + i, packFilePath));
+        }
+
+        // One pooled game per player count, reset for each job as a tournament worker does
+        Map<Integer, CardGame> byPlayers = new HashMap<>();
+        GamePipeline pipeline = new GamePipeline(depth, PackCache.SHARED);
+        List<GameResult> results;
+        try {
+            results = pipeline.run(jobs, (job, deal) -> {
+                CardGame game = byPlayers.computeIfAbsent(job.getPlayers(), n -> {
+                    CardGame created = new CardGame(n, job.getPackFilePath());
+                    created.setPooled(true);
+                    created.setConsoleOutput(false);
+                    created.setTurnLimit(turnLimit);
+                    created.setClock(new SimulatedClock());
+                    created.setOutputDirectory(new File("pipeline_output", n + "_players"));
+                    return created;
+                });
+                game.reset(job.getPackFilePath());
+                game.setSeed(job.getSeed());
+                try {
+                    GameResult result = game.playDealt(deal);
+                    if (store != null) {
+                        store.append(job.getId(), job.getSeed(), result);
+                    }
+                    return result;
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Error in " + job + ": " + e);
+                    return null;
+                }
+            });
+        } finally {
+            for (CardGame game : byPlayers.values()) {
+                game.close();
+            }
+            if (store != null) {
+                store.close();
+            }
+        }
+
+        Map<GameResult.Outcome, Integer> outcomes = new HashMap<>();
+        for (GameResult result : results) {
+            if (result != null) {
+                outcomes.merge(result.getOutcome(), 1, Integer::sum);
+            }
+        }
+        System.out.println(games + " games, depth " + depth + ": " + outcomes);
+        for (Stage stage : pipeline.getStages()) {
+            System.out.println(stage);
+        }
+    }
+}
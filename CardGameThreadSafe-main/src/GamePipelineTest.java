@@ -0,0 +1,173 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public class GamePipelineTest {
+
+    private static final String PACK_FILE = "pipeline_pack.txt";
+    private static final String BAD_PACK_FILE = "pipeline_bad_pack.txt";
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 32; i++) {
+            lines.add(String.valueOf((i * 5) % 8 + 1)); // Four of each value from 1 to 8
+        }
+        Files.write(new File(PACK_FILE).toPath(), lines);
+        Files.write(new File(BAD_PACK_FILE).toPath(), List.of("1", "2", "3")); // Too few cards for 4 players
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        new File(PACK_FILE).delete();
+        new File(BAD_PACK_FILE).delete();
+        for (int i = 1; i <= 4; i++) {
+            new File("player" + i + "_output.txt").delete();
+            new File("deck" + i + "_output.txt").delete();
+        }
+    }
+
+    private CardGame game() {
+        CardGame game = new CardGame(4, PACK_FILE);
+        game.setConsoleOutput(false);
+        game.setDeterministic(true);
+        game.setTurnLimit(2000);
+        return game;
+    }
+
+    private static List<TournamentJob> jobs(int count, String packFile) {
+        List<TournamentJob> jobs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            jobs.add(new TournamentJob(i, 4, 100 + i, packFile));
+        }
+        return jobs;
+    }
+
+    // Test 1: Does a pipelined batch give the same results, in job order, as playing each game on its own?
+    @Test
+    public void testSameResultsAsUnpipelined() throws InterruptedException {
+        List<TournamentJob> jobs = jobs(6, PACK_FILE);
+        List<GameResult> expected = new ArrayList<>();
+        try (CardGame game = game()) {
+            for (TournamentJob job : jobs) {
+                game.setSeed(job.getSeed());
+                expected.add(game.startGame());
+            }
+        }
+
+        List<GameResult> actual;
+        try (CardGame game = game()) {
+            actual = new GamePipeline(2, null).run(jobs, (job, deal) -> {
+                game.setSeed(job.getSeed());
+                return game.playDealt(deal);
+            });
+        }
+
+        assertEquals(jobs.size(), actual.size(), "Every job should have a result.");
+        for (int i = 0; i < jobs.size(); i++) {
+            assertEquals(expected.get(i).getOutcome(), actual.get(i).getOutcome(), "Job " + i + " outcome should match.");
+            assertEquals(expected.get(i).getWinner(), actual.get(i).getWinner(), "Job " + i + " winner should match.");
+            assertEquals(expected.get(i).getTurns(), actual.get(i).getTurns(), "Job " + i + " turns should match.");
+        }
+    }
+
+    // Test 2: Does a pack that cannot be dealt give a null result without stopping the batch?
+    @Test
+    public void testBadPackSkipped() throws InterruptedException {
+        List<TournamentJob> jobs = new ArrayList<>(jobs(3, PACK_FILE));
+        jobs.set(1, new TournamentJob(1, 4, 101, BAD_PACK_FILE));
+
+        List<GameResult> results;
+        try (CardGame game = game()) {
+            results = new GamePipeline(1, null).run(jobs, (job, deal) -> game.playDealt(deal));
+        }
+
+        assertNotNull(results.get(0), "The first game should be played.");
+        assertNull(results.get(1), "The bad pack should have no result.");
+        assertNotNull(results.get(2), "The game after the bad pack should be played.");
+    }
+
+    // Test 3: Do the loader and dealer stop at the pipeline depth while a game is playing?
+    @Test
+    public void testDepthBoundsPrefetch() throws InterruptedException {
+        int depth = 2;
+        GamePipeline pipeline = new GamePipeline(depth, null);
+        long[] loadedDuringFirstGame = {-1};
+
+        List<GameResult> results = pipeline.run(jobs(20, PACK_FILE), (job, deal) -> {
+            if (job.getId() == 0) {
+                try {
+                    Thread.sleep(300); // A slow game: the other stages run ahead until the queues are full
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                loadedDuringFirstGame[0] = pipeline.getStages().get(0).getItems();
+            }
+            return null;
+        });
+
+        assertEquals(20, results.size(), "Every job should be run.");
+        assertTrue(loadedDuringFirstGame[0] > 1, "The next packs should be loaded while a game plays.");
+        // One pack being played, one held by each stage thread and a full queue between each pair of stages
+        assertTrue(loadedDuringFirstGame[0] <= 2 * depth + 3,
+                "No more packs should be loaded than fit in the pipeline: " + loadedDuringFirstGame[0]);
+        for (GamePipeline.Stage stage : pipeline.getStages()) {
+            assertEquals(20, stage.getItems(), stage.getName() + " should handle every job.");
+            assertTrue(stage.getUtilisation() >= 0 && stage.getUtilisation() <= 1, "Utilisation should be a share of the run.");
+        }
+        assertTrue(pipeline.getStages().get(2).getBusyNanos() >= 300_000_000L, "The slow game should count as play time.");
+    }
+
+    // Test 4: Are a deal for the wrong number of players and a pipeline without depth refused?
+    @Test
+    public void testInvalidArgumentsRejected() throws IOException {
+        Deal deal = Deal.of(CardGame.readPack(new File(PACK_FILE)), 2);
+        try (CardGame game = game()) {
+            assertThrows(IllegalArgumentException.class, () -> game.playDealt(deal), "A 2-player deal should not fit 4 players.");
+        }
+        assertThrows(IllegalArgumentException.class, () -> new GamePipeline(0, null), "Depth 0 should be refused.");
+    }
+
+    // Test 5: Does a stage that dies fail the run instead of leaving it waiting?
+    @Test
+    public void testDeadStageFailsRun() {
+        OutOfMemoryError error = new OutOfMemoryError("Simulated while parsing a pack");
+        PackCache failing = new PackCache(PackCache.DEFAULT_BUDGET_BYTES) {
+            @Override
+            public Pack load(File file) {
+                throw error;
+            }
+        };
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> new GamePipeline(2, failing).run(jobs(3, PACK_FILE), (job, deal) -> null),
+                    "A dead loader should fail the run.");
+            assertSame(error, e.getCause(), "The stage's error should be the cause.");
+        }, "A dead loader should not leave the run waiting.");
+    }
+
+    // Test 6: Does a played deal let go of its pack and refuse to be played again?
+    @Test
+    public void testPlayedDealReleasesPack() throws IOException {
+        Deal deal = Deal.of(CardGame.readPack(new File(PACK_FILE)), 4);
+        assertEquals(32, deal.getPack().size(), "An unplayed deal should hold the whole pack.");
+
+        try (CardGame game = game()) {
+            assertNotNull(game.playDealt(deal), "The deal should be played.");
+            assertTrue(deal.isPlayed(), "The deal should be marked played.");
+            assertEquals(4, deal.getHand(0).size(), "A played deal should keep its hands.");
+            assertThrows(IllegalStateException.class, deal::getPack, "A played deal should not hold its pack.");
+            assertThrows(IllegalStateException.class, () -> deal.getDeck(0), "A played deal should not hold its decks.");
+            assertThrows(IllegalArgumentException.class, () -> game.playDealt(deal), "A deal should be played only once.");
+        }
+    }
+}
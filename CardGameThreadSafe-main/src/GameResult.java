@@ -0,0 +1,74 @@
+/**
+ * Summary of one finished game.
+ * Records how the game ended, which player won (if any), how many turns were played and how long it took.
+ * Instances are immutable so they can be handed between threads freely.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public class GameResult {
+
+    /**
+     * How a game ended.
+     */
+    public enum Outcome {
+        WIN,           // A player collected four of a kind during play
+        IMMEDIATE_WIN, // A player was dealt four of a kind
+        TIMEOUT,       // The turn budget or time limit ran out: a draw
+        INTERRUPTED    // The game was stopped from outside before it finished
+    }
+
+    private final int players;
+    private final Outcome outcome;
+    private final int winner;
+    private final long turns;
+    private final long durationNanos;
+
+    public GameResult(int players, Outcome outcome, int winner, long turns, long durationNanos) {
+        this.players = players;
+        this.outcome = outcome;
+        this.winner = winner;
+        this.turns = turns;
+        this.durationNanos = durationNanos;
+    }
+
+    public int getPlayers() {
+        return players;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return the index of the winning player, or -1 if nobody won
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    public boolean hasWinner() {
+        return winner >= 0;
+    }
+
+    public boolean isImmediateWin() {
+        return outcome == Outcome.IMMEDIATE_WIN;
+    }
+
+    /**
+     * @return the number of turns played across all players
+     */
+    public long getTurns() {
+        return turns;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    @Override
+    public String toString() {
+        String result = outcome + " after " + turns + " turns";
+        return hasWinner() ? result + " (player " + (winner + 1) + ")" : result;
+    }
+}
@@ -0,0 +1,329 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hosts many games at once as a long-running service on the local machine.
+ * Clients connect over a loopback TCP port or a Unix-domain socket and send START requests, naming a pack file,
+ * or START_PACK requests carrying the pack; each names its own request id, player count and seed.
+ * Requests are played on one shared scheduler: a fixed number of game threads behind a bounded queue.
+ * Every game is deterministic and plays on its scheduler thread, so the threads are the only ones playing and
+ * a result depends only on the pack, the players, the seed and the turn limit. A request that finds the queue full
+ * is answered BUSY straight away, so an overloaded server sheds load instead of queueing without limit.
+ * Results are streamed back on the request's connection as each game finishes.
+ * <p>
+ * Each game thread keeps one game per player count, reset for each request as a tournament worker does,
+ * and writes its files under its own directory.
+ * Run {@code java GameServer <port or socket path> [threads] [queue] [turn limit] [output directory]},
+ * and drive it with LoadGenerator.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public class GameServer implements Closeable {
+    static final int MAX_PLAYERS = 1024;
+
+    private final ServerSocketChannel server;
+    private final String address;
+    private final File outputDirectory;
+    private final long turnLimit;
+    private final ThreadPoolExecutor scheduler;
+    private final AtomicInteger threadNumbers = new AtomicInteger();
+    private final ThreadLocal<Map<Integer, CardGame>> games = ThreadLocal.withInitial(HashMap::new);
+    private final ThreadLocal<Integer> threadNumber = new ThreadLocal<>();
+    private final ConcurrentLinkedQueue<CardGame> allGames = new ConcurrentLinkedQueue<>();
+    private final AtomicLong played = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong busy = new AtomicLong();
+    private volatile boolean closed = false;
+
+    /**
+     * Starts listening for clients.
+     *
+     * @param address a loopback port (0 picks a free one) or the path of a Unix-domain socket to create
+     * @param threads the number of games played at once
+     * @param queueCapacity the most requests waiting for a game thread before requests are answered BUSY
+     * @param turnLimit the turn budget of every game, or 0 for no limit
+     * @param outputDirectory the directory under which each game thread writes its files
+     * @throws IOException if the address cannot be bound
+     */
+    public GameServer(String address, int threads, int queueCapacity, long turnLimit, File outputDirectory)
+            throws IOException {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("A server needs at least one thread and room for one waiting request.");
+        }
+        this.turnLimit = turnLimit;
+        this.outputDirectory = outputDirectory;
+        this.scheduler = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    int number = threadNumbers.incrementAndGet();
+                    Thread thread = new Thread(() -> {
+                        threadNumber.set(number);
+                        r.run();
+                    }, "game-server-" + number);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.scheduler.prestartAllCoreThreads();
+
+        this.server = TournamentProtocol.listen(address);
+        this.address = server.getLocalAddress() instanceof InetSocketAddress
+                ? String.valueOf(((InetSocketAddress) server.getLocalAddress()).getPort())
+                : address;
+        Thread acceptor = new Thread(this::acceptClients, "game-server-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Usage: java GameServer address [threads] [queue] [turnLimit] [outputDirectory]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: java GameServer <port or socket path> [threads] [queue] [turn limit] [output directory]");
+            return;
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int queue = args.length > 2 ? Integer.parseInt(args[2]) : 1024;
+        long turnLimit = args.length > 3 ? Long.parseLong(args[3]) : 10_000;
+        File output = new File(args.length > 4 ? args[4] : "server_output");
+
+        GameServer gameServer = new GameServer(args[0], threads, queue, turnLimit, output);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                gameServer.close();
+            } catch (IOException e) {
+                System.err.println("Error: " + e.getMessage());
+            }
+        }));
+        System.out.println("Game server on " + gameServer.getAddress() + " with " + threads + " game threads");
+        while (!gameServer.closed) {
+            Thread.sleep(10_000);
+            System.out.println(gameServer.getPlayed() + " games played, " + gameServer.getBusy() + " busy, "
+                    + gameServer.getRejected() + " rejected, " + gameServer.getQueueDepth() + " queued");
+        }
+    }
+
+    /**
+     * @return the address clients should connect to
+     */
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * @return the games played to a result so far
+     */
+    public long getPlayed() {
+        return played.get();
+    }
+
+    /**
+     * @return the requests whose pack or player count the server refused
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * @return the requests answered BUSY because the queue was full
+     */
+    public long getBusy() {
+        return busy.get();
+    }
+
+    /**
+     * @return the requests waiting for a game thread
+     */
+    public int getQueueDepth() {
+        return scheduler.getQueue().size();
+    }
+
+    private void acceptClients() {
+        while (!closed) {
+            try {
+                SocketChannel channel = server.accept();
+                Thread handler = new Thread(() -> serve(channel), "game-server-connection");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Error accepting client: " + e.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    // One client connection: its requests, and the results of its games that have not been sent yet
+    private final class Connection {
+        private final DataOutputStream out;
+        private int pending = 0; // Guarded by this
+
+        Connection(DataOutputStream out) {
+            this.out = out;
+        }
+
+        synchronized void started() {
+            pending++;
+        }
+
+        // Sends a message from any thread, and counts the game as answered
+        synchronized void answer(TournamentJob job, GameResult result, boolean isBusy) {
+            try {
+                if (isBusy) {
+                    TournamentProtocol.writeBusy(out, job.getId());
+                } else {
+                    TournamentProtocol.writeResult(out, job.getId(), job.getPlayers(), result);
+                }
+                out.flush();
+            } catch (IOException e) {
+                // The client has gone; its remaining games still finish
+            }
+            pending--;
+            notifyAll();
+        }
+
+        // Waits until every game of the connection has been answered, or the server closes
+        synchronized void awaitAnswered() throws InterruptedException {
+            while (pending > 0 && !closed) {
+                wait(100);
+            }
+        }
+    }
+
+    // Reads one client's requests until it disconnects, then waits for the results of its games to be sent
+    private void serve(SocketChannel channel) {
+        try (channel;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+            Connection connection = new Connection(out);
+            try {
+                while (!closed) {
+                    byte type = in.readByte();
+                    if (type == TournamentProtocol.START) {
+                        TournamentJob job = TournamentProtocol.readJob(in);
+                        submit(connection, job, null);
+                    } else if (type == TournamentProtocol.START_PACK) {
+                        long id = in.readLong();
+                        int players = in.readInt();
+                        long seed = in.readLong();
+                        int[] faceValues = TournamentProtocol.readPack(in);
+                        submit(connection, new TournamentJob(id, players, seed, ""), faceValues);
+                    } else {
+                        throw new IOException("Unknown message type " + type + ".");
+                    }
+                }
+            } catch (EOFException e) {
+                // The client has sent everything
+            }
+            connection.awaitAnswered();
+        } catch (IOException e) {
+            if (!closed) {
+                System.err.println("Error serving client: " + e.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(Connection connection, TournamentJob job, int[] faceValues) {
+        connection.started();
+        try {
+            scheduler.execute(() -> connection.answer(job, play(job, faceValues), false));
+        } catch (RejectedExecutionException e) {
+            busy.incrementAndGet();
+            connection.answer(job, null, true);
+        }
+    }
+
+    // Plays one request on the calling game thread; null if its pack or player count cannot be played
+    private GameResult play(TournamentJob job, int[] faceValues) {
+        int n = job.getPlayers();
+        GameResult result = null;
+        if (n >= 1 && n <= MAX_PLAYERS) {
+            try {
+                Deal deal = Deal.of(faceValues != null ? cards(faceValues)
+                        : PackCache.SHARED.load(new File(job.getPackFilePath())).cards(), n);
+                CardGame game = games.get().computeIfAbsent(n, this::createGame);
+                game.setSeed(job.getSeed());
+                result = game.playDealt(deal);
+            } catch (IOException | RuntimeException e) {
+                result = null; // Reported to the client as a rejected pack
+            }
+        }
+        if (result != null) {
+            played.incrementAndGet();
+        } else {
+            rejected.incrementAndGet();
+        }
+        return result;
+    }
+
+    private static List<Card> cards(int[] faceValues) throws IOException {
+        List<Card> cards = new ArrayList<>(faceValues.length);
+        for (int faceValue : faceValues) {
+            if (faceValue <= 0) {
+                throw new IOException("Invalid face value " + faceValue + ".");
+            }
+            cards.add(Card.valueOf(faceValue));
+        }
+        return cards;
+    }
+
+    private CardGame createGame(int n) {
+        CardGame game = new CardGame(n, "");
+        game.setDeterministic(true); // Played on the game thread, so the scheduler bounds the threads in use
+        game.setConsoleOutput(false);
+        game.setTurnLimit(turnLimit);
+        game.setOutputDirectory(new File(outputDirectory, "thread" + threadNumber.get() + File.separator + n + "_players"));
+        allGames.add(game);
+        return game;
+    }
+
+    /**
+     * Stops accepting clients and requests, waits up to 5 seconds for the games being played, and releases them.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        server.close();
+        if (!address.matches("\\d+")) {
+            Files.deleteIfExists(UnixDomainSocketAddress.of(address).getPath()); // Unix sockets leave a file behind
+        }
+        scheduler.shutdownNow(); // Queued requests are dropped; games in play end at their next turn
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (CardGame game : allGames) {
+            game.close();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class GameServerTest {
+
+    private static final String PACK_FILE = "server_pack.txt";
+    private static final File OUTPUT = new File("server_test_output");
+    private final int[] faceValues = new int[32];
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            faceValues[i] = ((i + 1) * 5) % 8 + 1; // Four of each value from 1 to 8
+            lines.add(String.valueOf(faceValues[i]));
+        }
+        Files.write(new File(PACK_FILE).toPath(), lines);
+    }
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        new File(PACK_FILE).delete();
+        if (OUTPUT.exists()) {
+            try (Stream<java.nio.file.Path> paths = Files.walk(OUTPUT.toPath())) {
+                paths.sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    // Test 1: Does the server play requests by pack file and inline pack, and match a local deterministic game?
+    @Test
+    public void testStartRequestsAnswered() throws IOException {
+        GameResult expected;
+        try (CardGame local = new CardGame(4, PACK_FILE)) {
+            local.setConsoleOutput(false);
+            local.setDeterministic(true);
+            local.setTurnLimit(2000);
+            local.setOutputDirectory(new File(OUTPUT, "local"));
+            local.setSeed(5);
+            expected = local.startGame();
+        }
+
+        Map<Long, GameResult> results = new HashMap<>();
+        try (GameServer server = new GameServer("0", 2, 8, 2000, OUTPUT);
+             SocketChannel channel = TournamentProtocol.connect(server.getAddress());
+             DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+            TournamentProtocol.writeStart(out, new TournamentJob(1, 4, 5, new File(PACK_FILE).getAbsolutePath()));
+            TournamentProtocol.writeStartPack(out, 2, 4, 5, faceValues);
+            TournamentProtocol.writeStartPack(out, 3, 4, 5, new int[]{1, 2, 3}); // Too few cards
+            out.flush();
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals(TournamentProtocol.RESULT, in.readByte(), "Every request should get a result.");
+                long id = in.readLong();
+                results.put(id, TournamentProtocol.readResult(in));
+            }
+            assertEquals(2, server.getPlayed(), "Two games should be played.");
+            assertEquals(1, server.getRejected(), "The short pack should be refused.");
+        }
+
+        for (long id : new long[]{1, 2}) {
+            assertEquals(expected.getOutcome(), results.get(id).getOutcome(), "Request " + id + " should play the same game.");
+            assertEquals(expected.getWinner(), results.get(id).getWinner(), "Request " + id + " should have the same winner.");
+            assertEquals(expected.getTurns(), results.get(id).getTurns(), "Request " + id + " should take as many turns.");
+        }
+        assertTrue(results.containsKey(3L), "The refused request should be answered.");
+        assertNull(results.get(3L), "The refused request should have no result.");
+    }
+
+    // Test 2: Does the load generator get every request answered and report its latencies?
+    @Test
+    public void testLoadGeneratorReport() throws IOException, InterruptedException {
+        LoadGenerator.Report report;
+        try (GameServer server = new GameServer("0", 1, 64, 2000, OUTPUT)) {
+            report = LoadGenerator.run(server.getAddress(), 200, 40, 4, PACK_FILE, 2);
+            assertEquals(40, server.getPlayed() + server.getBusy(), "Every request should reach the server.");
+        }
+
+        assertEquals(40, report.getRequests(), "Every request should be sent.");
+        assertEquals(0, report.getUnanswered(), "Every request should be answered.");
+        assertEquals(40, report.getCompleted() + report.getBusy(), "Requests should be played or turned away.");
+        assertTrue(report.getCompleted() > 0, "Some games should be played.");
+        assertTrue(report.getThroughput() > 0, "Throughput should be measured.");
+        assertTrue(report.getLatencyPercentile(50) > 0, "The median latency should be measured.");
+        assertTrue(report.getLatencyPercentile(50) <= report.getLatencyPercentile(99), "Percentiles should not decrease.");
+        assertEquals(report.getLatencyPercentile(100), report.getLatencyPercentile(99.99), "The top percentile should be the slowest.");
+    }
+
+    // Test 3: Is a request that finds the queue full answered BUSY at once?
+    @Test
+    public void testFullQueueAnsweredBusy() throws IOException {
+        int requests = 30;
+        int busy = 0;
+        int played = 0;
+        try (GameServer server = new GameServer("0", 1, 1, 0, OUTPUT);
+             SocketChannel channel = TournamentProtocol.connect(server.getAddress());
+             DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+            for (int i = 0; i < requests; i++) {
+                TournamentProtocol.writeStartPack(out, i, 4, i, faceValues);
+            }
+            out.flush(); // All at once: one thread and one queue slot cannot take them all
+
+            for (int i = 0; i < requests; i++) {
+                byte type = in.readByte();
+                in.readLong();
+                if (type == TournamentProtocol.BUSY) {
+                    busy++;
+                } else {
+                    assertEquals(TournamentProtocol.RESULT, type, "Anything not busy should be a result.");
+                    TournamentProtocol.readResult(in);
+                    played++;
+                }
+            }
+            assertEquals(busy, server.getBusy(), "The server should count the busy answers.");
+        }
+        assertTrue(busy > 0, "Some requests should find the queue full.");
+        assertTrue(played >= 1, "The first request should be played.");
+    }
+
+    // Test 4: Are refused requests counted but left out of the latencies?
+    @Test
+    public void testRejectedRequestsNotTimed() throws IOException, InterruptedException {
+        LoadGenerator.Report report;
+        try (GameServer server = new GameServer("0", 1, 64, 2000, OUTPUT)) {
+            report = LoadGenerator.run(server.getAddress(), 200, 10, 4, "missing_pack.txt", 1);
+        }
+
+        assertEquals(10, report.getRejected(), "Every request for a missing pack should be refused.");
+        assertEquals(0, report.getCompleted(), "No game should be played.");
+        assertEquals(0, report.getLatencyPercentile(100), "Refused requests should not be timed.");
+    }
+}
@@ -0,0 +1,258 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters for the games played in this JVM, and for tournament games reported back by workers.
+ * Players only increment counters of their own, so counting a turn never waits on another thread.
+ * Readers take a Snapshot, which also works out rates from the change since the previous snapshot;
+ * StatsServer takes one on a timer and serves it as JSON and in Prometheus text format.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public class GameStats {
+    private final LongAdder gamesCompleted = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder draws = new LongAdder();
+    private final LongAdder remoteTurns = new LongAdder(); // Turns of games played by tournament workers
+    private final LongAdder emptyDeckDraws = new LongAdder();
+    private volatile LongAdder[] playerTurns = new LongAdder[0]; // Grown when a game with more players attaches
+    private final List<CardGame> games = new CopyOnWriteArrayList<>();
+    private Snapshot previous = null; // Guarded by this
+
+    /**
+     * Returns the turn counter of a player, creating counters up to it if needed. Called once per game, not per turn.
+     */
+    synchronized LongAdder playerTurnCounter(int playerIndex) {
+        if (playerIndex >= playerTurns.length) {
+            LongAdder[] grown = Arrays.copyOf(playerTurns, playerIndex + 1);
+            for (int i = playerTurns.length; i < grown.length; i++) {
+                grown[i] = new LongAdder();
+            }
+            playerTurns = grown;
+        }
+        return playerTurns[playerIndex];
+    }
+
+    void emptyDeckDraw() {
+        emptyDeckDraws.increment();
+    }
+
+    void attach(CardGame game) {
+        games.add(game);
+    }
+
+    void detach(CardGame game) {
+        games.remove(game);
+    }
+
+    /**
+     * Counts a game played in this JVM; its turns have already been counted one by one.
+     */
+    void gameFinished(GameResult result) {
+        countOutcome(result);
+    }
+
+    /**
+     * Counts a game played by a tournament worker, including its turns.
+     */
+    public void tournamentGameFinished(GameResult result) {
+        remoteTurns.add(result.getTurns());
+        countOutcome(result);
+    }
+
+    private void countOutcome(GameResult result) {
+        gamesCompleted.increment();
+        if (result.hasWinner()) {
+            wins.increment();
+        } else if (result.getOutcome() == GameResult.Outcome.TIMEOUT) {
+            draws.increment();
+        }
+    }
+
+    /**
+     * @return the counters now, with rates measured since the previous snapshot
+     */
+    public Snapshot snapshot() {
+        return snapshot(System.nanoTime());
+    }
+
+    synchronized Snapshot snapshot(long nowNanos) {
+        LongAdder[] counters = playerTurns;
+        long[] perPlayer = new long[counters.length];
+        long turns = remoteTurns.sum();
+        for (int i = 0; i < counters.length; i++) {
+            perPlayer[i] = counters[i].sum();
+            turns += perPlayer[i];
+        }
+
+        int queueDepth = 0;
+        for (CardGame game : games) {
+            queueDepth += game.getLogQueueDepth();
+        }
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+
+        Snapshot snapshot = new Snapshot(nowNanos, gamesCompleted.sum(), wins.sum(), draws.sum(), turns, perPlayer,
+                emptyDeckDraws.sum(), queueDepth, heap.getUsed(), heap.getMax(), previous);
+        previous = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * The counters at one moment, immutable once taken.
+     */
+    public static final class Snapshot {
+        private final long timeNanos;
+        private final long gamesCompleted;
+        private final long wins;
+        private final long draws;
+        private final long turns;
+        private final long[] playerTurns;
+        private final long emptyDeckDraws;
+        private final int logQueueDepth;
+        private final long heapUsedBytes;
+        private final long heapMaxBytes;
+        private final double turnsPerSecond;
+        private final double[] playerTurnsPerSecond;
+
+        private Snapshot(long timeNanos, long gamesCompleted, long wins, long draws, long turns, long[] playerTurns,
+                         long emptyDeckDraws, int logQueueDepth, long heapUsedBytes, long heapMaxBytes, Snapshot previous) {
+            this.timeNanos = timeNanos;
+            this.gamesCompleted = gamesCompleted;
+            this.wins = wins;
+            this.draws = draws;
+            this.turns = turns;
+            this.playerTurns = playerTurns;
+            this.emptyDeckDraws = emptyDeckDraws;
+            this.logQueueDepth = logQueueDepth;
+            this.heapUsedBytes = heapUsedBytes;
+            this.heapMaxBytes = heapMaxBytes;
+
+            // Rates need an earlier snapshot; the first one reports 0
+            double seconds = previous == null ? 0 : (timeNanos - previous.timeNanos) / 1e9;
+            this.turnsPerSecond = seconds > 0 ? (turns - previous.turns) / seconds : 0;
+            this.playerTurnsPerSecond = new double[playerTurns.length];
+            for (int i = 0; seconds > 0 && i < playerTurns.length; i++) {
+                long before = i < previous.playerTurns.length ? previous.playerTurns[i] : 0;
+                playerTurnsPerSecond[i] = (playerTurns[i] - before) / seconds;
+            }
+        }
+
+        public long getGamesCompleted() {
+            return gamesCompleted;
+        }
+
+        public long getWins() {
+            return wins;
+        }
+
+        public long getDraws() {
+            return draws;
+        }
+
+        public long getTurns() {
+            return turns;
+        }
+
+        public double getTurnsPerSecond() {
+            return turnsPerSecond;
+        }
+
+        /**
+         * @return the turns played by each player index, in games played in this JVM
+         */
+        public long[] getPlayerTurns() {
+            return playerTurns.clone();
+        }
+
+        public double[] getPlayerTurnsPerSecond() {
+            return playerTurnsPerSecond.clone();
+        }
+
+        public long getEmptyDeckDraws() {
+            return emptyDeckDraws;
+        }
+
+        /**
+         * @return the writes queued for background output threads across all attached games
+         */
+        public int getLogQueueDepth() {
+            return logQueueDepth;
+        }
+
+        public long getHeapUsedBytes() {
+            return heapUsedBytes;
+        }
+
+        public String toJson() {
+            StringBuilder json = new StringBuilder(256);
+            json.append('{')
+                .append("\"gamesCompleted\":").append(gamesCompleted)
+                .append(",\"wins\":").append(wins)
+                .append(",\"draws\":").append(draws)
+                .append(",\"turns\":").append(turns)
+                .append(",\"turnsPerSecond\":").append(rate(turnsPerSecond))
+                .append(",\"emptyDeckDraws\":").append(emptyDeckDraws)
+                .append(",\"logQueueDepth\":").append(logQueueDepth)
+                .append(",\"heapUsedBytes\":").append(heapUsedBytes)
+                .append(",\"heapMaxBytes\":").append(heapMaxBytes)
+                .append(",\"players\":[");
+            for (int i = 0; i < playerTurns.length; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append("{\"player\":").append(i + 1)
+                    .append(",\"turns\":").append(playerTurns[i])
+                    .append(",\"turnsPerSecond\":").append(rate(playerTurnsPerSecond[i]))
+                    .append('}');
+            }
+            return json.append("]}").toString();
+        }
+
+        public String toPrometheus() {
+            StringBuilder text = new StringBuilder(1024);
+            metric(text, "cardgame_games_completed_total", "counter", "Games finished.", gamesCompleted);
+            metric(text, "cardgame_wins_total", "counter", "Games won by a player.", wins);
+            metric(text, "cardgame_draws_total", "counter", "Games ended by a turn or time limit.", draws);
+            metric(text, "cardgame_turns_total", "counter", "Turns played.", turns);
+            metric(text, "cardgame_turns_per_second", "gauge", "Turns played per second since the previous snapshot.",
+                    rate(turnsPerSecond));
+            metric(text, "cardgame_empty_deck_draws_total", "counter", "Turns in which the player's deck was empty.",
+                    emptyDeckDraws);
+            metric(text, "cardgame_log_queue_depth", "gauge", "Output writes waiting for a background thread.",
+                    logQueueDepth);
+            metric(text, "cardgame_heap_used_bytes", "gauge", "Heap memory in use.", heapUsedBytes);
+
+            header(text, "cardgame_player_turns_total", "counter", "Turns played by each player.");
+            for (int i = 0; i < playerTurns.length; i++) {
+                text.append("cardgame_player_turns_total{player=\"").append(i + 1).append("\"} ")
+                    .append(playerTurns[i]).append('\n');
+            }
+            header(text, "cardgame_player_turns_per_second", "gauge", "Turns played by each player per second.");
+            for (int i = 0; i < playerTurns.length; i++) {
+                text.append("cardgame_player_turns_per_second{player=\"").append(i + 1).append("\"} ")
+                    .append(rate(playerTurnsPerSecond[i])).append('\n');
+            }
+            return text.toString();
+        }
+
+        private static void header(StringBuilder text, String name, String type, String help) {
+            text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        }
+
+        private static void metric(StringBuilder text, String name, String type, String help, Object value) {
+            header(text, name, type, help);
+            text.append(name).append(' ').append(value).append('\n');
+        }
+
+        private static String rate(double perSecond) {
+            return String.format(Locale.ROOT, "%.3f", perSecond);
+        }
+    }
+}
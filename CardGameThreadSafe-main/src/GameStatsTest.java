@@ -0,0 +1,127 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameStatsTest {
+
+    private static final String TEMP_PACK_FILE = "stats_pack.txt";
+
+    @AfterEach
+    public void cleanUp() {
+        new File(TEMP_PACK_FILE).delete();
+        for (int i = 1; i <= 4; i++) {
+            new File("player" + i + "_output.txt").delete();
+            new File("deck" + i + "_output.txt").delete();
+        }
+    }
+
+    // Test 1: Are a monitored game's turns and result counted?
+    @Test
+    public void testGameCounted() throws IOException {
+        List<String> cardValues = new ArrayList<>();
+        for (int i = 1; i <= 32; i++) {
+            cardValues.add(String.valueOf(i));
+        }
+        Files.write(new File(TEMP_PACK_FILE).toPath(), cardValues);
+
+        GameStats stats = new GameStats();
+        try (CardGame game = new CardGame(4, TEMP_PACK_FILE)) {
+            game.setStats(stats);
+            game.setClock(new SimulatedClock());
+            game.setConsoleOutput(false);
+            game.setTurnLimit(8);
+            game.startGame();
+        }
+
+        GameStats.Snapshot snapshot = stats.snapshot();
+        assertEquals(1, snapshot.getGamesCompleted(), "One game should have been completed.");
+        assertEquals(1, snapshot.getDraws(), "The game should have been counted as a draw.");
+        assertEquals(8, snapshot.getTurns(), "Every turn should have been counted.");
+        long perPlayerTotal = 0;
+        for (long turns : snapshot.getPlayerTurns()) {
+            perPlayerTurnsCheck(turns);
+            perPlayerTotal += turns;
+        }
+        assertEquals(8, perPlayerTotal, "The per-player turns should add up to the total.");
+    }
+
+    private void perPlayerTurnsCheck(long turns) {
+        assertTrue(turns >= 0 && turns <= 8, "A player cannot have played more turns than the game.");
+    }
+
+    // Test 2: Are rates worked out from the change since the previous snapshot?
+    @Test
+    public void testRatesSincePreviousSnapshot() {
+        GameStats stats = new GameStats();
+        stats.playerTurnCounter(0).add(100);
+        GameStats.Snapshot first = stats.snapshot(0);
+        assertEquals(0.0, first.getTurnsPerSecond(), "The first snapshot has nothing to compare with.");
+
+        stats.playerTurnCounter(0).add(30);
+        stats.playerTurnCounter(1).add(20);
+        GameStats.Snapshot second = stats.snapshot(2_000_000_000L);
+
+        assertEquals(25.0, second.getTurnsPerSecond(), 1e-9, "50 turns in 2 seconds is 25 turns per second.");
+        assertEquals(15.0, second.getPlayerTurnsPerSecond()[0], 1e-9, "Player 1 played 30 turns in 2 seconds.");
+        assertEquals(10.0, second.getPlayerTurnsPerSecond()[1], 1e-9, "Player 2 played 20 turns in 2 seconds.");
+    }
+
+    // Test 3: Are tournament results counted with their turns?
+    @Test
+    public void testTournamentGamesCounted() {
+        GameStats stats = new GameStats();
+        stats.tournamentGameFinished(new GameResult(4, GameResult.Outcome.WIN, 2, 40, 1000));
+        stats.tournamentGameFinished(new GameResult(4, GameResult.Outcome.TIMEOUT, -1, 100, 1000));
+
+        GameStats.Snapshot snapshot = stats.snapshot();
+        assertEquals(2, snapshot.getGamesCompleted(), "Both games should be counted.");
+        assertEquals(1, snapshot.getWins(), "One game was won.");
+        assertEquals(1, snapshot.getDraws(), "One game was a draw.");
+        assertEquals(140, snapshot.getTurns(), "Tournament turns should be added to the total.");
+    }
+
+    // Test 4: Are empty-deck draws counted?
+    @Test
+    public void testEmptyDeckDrawsCounted() {
+        GameStats stats = new GameStats();
+        CardGame game = new CardGame(2, TEMP_PACK_FILE);
+        game.setStats(stats);
+        game.turnPlayed(0, true);
+        game.turnPlayed(1, false);
+        game.close();
+
+        GameStats.Snapshot snapshot = stats.snapshot();
+        assertEquals(1, snapshot.getEmptyDeckDraws(), "One turn found its deck empty.");
+        assertEquals(2, snapshot.getTurns(), "Both turns should be counted.");
+        assertEquals(0, snapshot.getLogQueueDepth(), "A closed game should no longer be watched.");
+        assertTrue(snapshot.getHeapUsedBytes() > 0, "Heap use should be reported.");
+    }
+
+    // Test 5: Do the JSON and Prometheus forms carry the counters?
+    @Test
+    public void testFormats() {
+        GameStats stats = new GameStats();
+        stats.playerTurnCounter(1).add(7);
+        stats.tournamentGameFinished(new GameResult(2, GameResult.Outcome.WIN, 0, 3, 1000));
+        GameStats.Snapshot snapshot = stats.snapshot();
+
+        String json = snapshot.toJson();
+        assertTrue(json.startsWith("{") && json.endsWith("}"), "The JSON should be one object.");
+        assertTrue(json.contains("\"gamesCompleted\":1"), "The JSON should carry the games completed.");
+        assertTrue(json.contains("\"turns\":10"), "The JSON should carry the turns.");
+        assertTrue(json.contains("{\"player\":2,\"turns\":7,"), "The JSON should carry each player's turns.");
+
+        String prometheus = snapshot.toPrometheus();
+        assertTrue(prometheus.contains("# TYPE cardgame_turns_total counter\ncardgame_turns_total 10\n"),
+                "The Prometheus text should declare and report the turn counter.");
+        assertTrue(prometheus.contains("cardgame_player_turns_total{player=\"2\"} 7\n"),
+                "The Prometheus text should label each player's turns.");
+        assertTrue(prometheus.contains("cardgame_heap_used_bytes "), "The Prometheus text should report heap use.");
+    }
+}
@@ -0,0 +1,234 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a GameServer at a target request rate and reports the throughput and latency it got.
+ * Requests are sent on a fixed schedule over a few connections whatever the server does (an open loop), and each
+ * latency runs from the moment its request was due rather than the moment it was sent. A server that falls behind
+ * therefore shows the wait its clients would really see, instead of slowing the generator down to its own pace.
+ * Only requests answered with a played game's result are timed; rejected and BUSY answers are counted but not timed.
+ * Run {@code java LoadGenerator <address> <requests per second> <seconds> <players> <pack file> [connections]}.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public final class LoadGenerator {
+    private static final long ANSWER_TIMEOUT_MILLIS = 60_000; // How long to wait for the last answers
+
+    /**
+     * What one run of the generator measured.
+     */
+    public static final class Report {
+        private final long requests;
+        private final long completed;
+        private final long rejected;
+        private final long busy;
+        private final long elapsedNanos;
+        private final long[] latencies; // Sorted, of every request answered with a result
+
+        Report(long requests, long completed, long rejected, long busy, long elapsedNanos, long[] latencies) {
+            this.requests = requests;
+            this.completed = completed;
+            this.rejected = rejected;
+            this.busy = busy;
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = latencies;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        /**
+         * @return the requests answered with the result of a played game
+         */
+        public long getCompleted() {
+            return completed;
+        }
+
+        /**
+         * @return the requests whose pack or player count the server refused
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * @return the requests answered BUSY because the server's queue was full
+         */
+        public long getBusy() {
+            return busy;
+        }
+
+        /**
+         * @return the requests with no answer when the run ended
+         */
+        public long getUnanswered() {
+            return requests - completed - rejected - busy;
+        }
+
+        /**
+         * @return the games completed per second over the whole run
+         */
+        public double getThroughput() {
+            return elapsedNanos > 0 ? completed * 1e9 / elapsedNanos : 0;
+        }
+
+        /**
+         * @param percent the percentile, from 0 to 100
+         * @return the latency of that percentile of completed requests, in nanoseconds, or 0 if none were completed
+         */
+        public long getLatencyPercentile(double percent) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percent / 100 * latencies.length);
+            return latencies[Math.max(0, Math.min(latencies.length, rank) - 1)];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("%d requests: %d completed, %d rejected, %d busy, %d unanswered%n",
+                    requests, completed, rejected, busy, getUnanswered()));
+            text.append(String.format("Throughput: %.1f games/s over %.2f s%n", getThroughput(), elapsedNanos / 1e9));
+            text.append("Latency ms:");
+            for (double percent : new double[]{50, 90, 99, 99.9, 100}) {
+                text.append(String.format(" p%s %.2f", percent == 100 ? "max" : String.valueOf(percent).replace(".0", ""),
+                        getLatencyPercentile(percent) / 1e6));
+            }
+            return text.toString();
+        }
+    }
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 5) {
+            System.err.println("Usage: java LoadGenerator <address> <requests per second> <seconds> <players> <pack file> [connections]");
+            return;
+        }
+        double rate = Double.parseDouble(args[1]);
+        int requests = (int) Math.round(rate * Double.parseDouble(args[2]));
+        int players = Integer.parseInt(args[3]);
+        int connections = args.length > 5 ? Integer.parseInt(args[5]) : 4;
+        System.out.println(run(args[0], rate, requests, players, args[4], connections));
+    }
+
+    /**
+     * Sends requests to a server on schedule and waits for their answers.
+     *
+     * @param address the server's port or socket path
+     * @param ratePerSecond the requests to send per second
+     * @param requests the number of requests to send
+     * @param players the player count of every game
+     * @param packFilePath the pack every game plays; sent as an absolute path, so the server must share the file
+     * @param connections the number of connections to spread the requests over
+     * @return what was measured
+     * @throws IOException if a connection cannot be opened
+     * @throws InterruptedException if interrupted while sending or waiting
+     */
+    public static Report run(String address, double ratePerSecond, int requests, int players, String packFilePath,
+                             int connections) throws IOException, InterruptedException {
+        if (ratePerSecond <= 0 || connections < 1) {
+            throw new IllegalArgumentException("The rate and the number of connections must be positive.");
+        }
+        String pack = new File(packFilePath).getAbsolutePath();
+        long interval = (long) (1e9 / ratePerSecond);
+        long[] due = new long[requests];
+        long[] latencies = new long[requests];
+        AtomicLong completed = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong busy = new AtomicLong();
+        CountDownLatch answered = new CountDownLatch(requests);
+
+        List<SocketChannel> channels = new ArrayList<>();
+        List<DataOutputStream> outputs = new ArrayList<>();
+        try {
+            for (int c = 0; c < connections; c++) {
+                SocketChannel channel = TournamentProtocol.connect(address);
+                channels.add(channel);
+                outputs.add(new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel))));
+                DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+                Thread reader = new Thread(() -> readAnswers(in, due, latencies, completed, rejected, busy, answered),
+                        "load-generator-reader-" + (c + 1));
+                reader.setDaemon(true);
+                reader.start();
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                long dueNanos = start + i * interval;
+                synchronized (latencies) {
+                    due[i] = dueNanos; // Read by the reader threads, which share this lock
+                }
+                long wait = dueNanos - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                DataOutputStream out = outputs.get(i % connections);
+                TournamentProtocol.writeStart(out, new TournamentJob(i, players, i, pack));
+                out.flush();
+            }
+            answered.await(ANSWER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            long elapsed = System.nanoTime() - start;
+
+            long[] answeredLatencies;
+            synchronized (latencies) {
+                answeredLatencies = Arrays.stream(latencies).filter(latency -> latency > 0).sorted().toArray();
+            }
+            return new Report(requests, completed.get(), rejected.get(), busy.get(), elapsed, answeredLatencies);
+        } finally {
+            for (SocketChannel channel : channels) {
+                channel.close();
+            }
+        }
+    }
+
+    // Reads answers from one connection until it closes, timing each from the moment its request was due
+    private static void readAnswers(DataInputStream in, long[] due, long[] latencies, AtomicLong completed,
+                                    AtomicLong rejected, AtomicLong busy, CountDownLatch answered) {
+        try {
+            while (true) {
+                byte type = in.readByte();
+                long id = in.readLong();
+                long now = System.nanoTime();
+                if (type == TournamentProtocol.BUSY) {
+                    busy.incrementAndGet();
+                } else if (type == TournamentProtocol.RESULT) {
+                    GameResult result = TournamentProtocol.readResult(in);
+                    if (result != null) {
+                        completed.incrementAndGet();
+                        synchronized (latencies) {
+                            latencies[(int) id] = Math.max(1, now - due[(int) id]);
+                        }
+                    } else {
+                        rejected.incrementAndGet(); // Refused before any play, so kept out of the latencies
+                    }
+                } else {
+                    throw new IOException("Unknown message type " + type + ".");
+                }
+                answered.countDown();
+            }
+        } catch (IOException e) {
+            // The connection closed: the run is over, or the server has gone
+        }
+    }
+}
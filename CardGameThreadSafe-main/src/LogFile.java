@@ -0,0 +1,198 @@
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Output file for one player or deck, written a line at a time.
+ * The file is opened on the first line and kept open until the game closes it.
+ * Each line is encoded into a reused byte buffer, so once the buffer has grown to fit
+ * the longest line, writing a line creates no garbage. Subclasses decide how the bytes reach the disk.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+abstract class LogFile implements Closeable {
+    private static final byte[] NEW_LINE = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    protected final File file;
+    protected final boolean append; // False if the first line after opening replaces the old contents
+    private byte[] buffer = new byte[128];
+
+    protected LogFile(File file, boolean append) {
+        this.file = file;
+        this.append = append;
+    }
+
+    /**
+     * Creates the log file for an output mode.
+     *
+     * @param file the file to write
+     * @param append true to add to an existing file, false to replace it when it is first opened
+     * @param mode how the bytes are written
+     * @return the log file, not yet opened
+     */
+    static LogFile create(File file, boolean append, OutputMode mode) {
+        return create(file, append, mode, Deflater.DEFAULT_COMPRESSION, 0);
+    }
+
+    /**
+     * Creates the log file for an output mode, with the settings used by compressed files.
+     *
+     * @param compressionLevel the Deflater level, from -1 (default) to 9
+     * @param rotationBytes the compressed size at which a new segment is started, or 0 for one segment
+     */
+    static LogFile create(File file, boolean append, OutputMode mode, int compressionLevel, long rotationBytes) {
+        switch (mode) {
+            case MAPPED:
+                return new MappedLogFile(file, append);
+            case ASYNC:
+                return new AsyncLogFile(file, append);
+            case COMPRESSED:
+                return new CompressedLogFile(file, append, compressionLevel, rotationBytes);
+            default:
+                return new StreamLogFile(file, append);
+        }
+    }
+
+    /**
+     * Appends a line to the file, and optionally echoes the same bytes to the console.
+     *
+     * @param line the text of the line, without a line separator
+     * @param echo the stream to echo to, or null to only write the file
+     */
+    synchronized void writeLine(CharSequence line, PrintStream echo) {
+        int length = encode(line);
+        if (echo != null) {
+            echo.write(buffer, 0, length);
+        }
+        try {
+            write(buffer, length);
+        } catch (IOException e) {
+            System.err.println("Error writing to file " + file + ": " + e.getMessage());
+        }
+    }
+
+    // Log lines are plain ASCII, so each char maps to one byte
+    private int encode(CharSequence line) {
+        int length = line.length() + NEW_LINE.length;
+        if (buffer.length < length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+        }
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            buffer[i] = c < 0x80 ? (byte) c : (byte) '?';
+        }
+        System.arraycopy(NEW_LINE, 0, buffer, line.length(), NEW_LINE.length);
+        return length;
+    }
+
+    /**
+     * Writes one encoded line, opening the file first if needed.
+     * Called with the lock held, and the bytes must be copied before returning.
+     */
+    protected abstract void write(byte[] bytes, int length) throws IOException;
+
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the number of writes handed to a background thread and not yet written, 0 for synchronous modes
+     */
+    int getQueueDepth() {
+        return 0;
+    }
+
+    /**
+     * Deletes everything this log has written. The log must be closed.
+     */
+    void delete() {
+        file.delete();
+    }
+
+    /**
+     * Flushes and closes the file. A later line opens it again.
+     */
+    @Override
+    public abstract void close();
+
+    /**
+     * Reads the contents of a log file written in any output mode.
+     * Compressed logs are found from their uncompressed name and every segment is decompressed in order.
+     * A segment cut off before it was closed, for example after the game was killed, is read up to its
+     * last checkpoint.
+     *
+     * @param file the uncompressed name of the log file
+     * @return the bytes of the log
+     * @throws IOException if the file cannot be read
+     */
+    static byte[] readBytes(File file) throws IOException {
+        if (file.exists() || !CompressedLogFile.segmentFile(file, 0).exists()) {
+            return Files.readAllBytes(file.toPath());
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        boolean cutOff = false;
+        for (int index = 0; CompressedLogFile.segmentFile(file, index).exists(); index++) {
+            try (InputStream in = new GZIPInputStream(new FileInputStream(CompressedLogFile.segmentFile(file, index)))) {
+                in.transferTo(bytes);
+            } catch (EOFException e) {
+                cutOff = true; // Segment was never finished: keep what was decompressed
+            }
+        }
+
+        byte[] result = bytes.toByteArray();
+        if (cutOff) {
+            // Drop a line that was only partly flushed
+            int length = result.length;
+            while (length > 0 && result[length - 1] != '\n') {
+                length--;
+            }
+            result = Arrays.copyOf(result, length);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the lines of a log file written in any output mode.
+     * Mapped files that were never closed, for example after the game was killed, end in zero padding,
+     * which is ignored.
+     *
+     * @param file the uncompressed name of the log file
+     * @return the lines of the file
+     * @throws IOException if the file cannot be read
+     */
+    static List<String> readLines(File file) throws IOException {
+        byte[] bytes = readBytes(file);
+        int length = bytes.length;
+        while (length > 0 && bytes[length - 1] == 0) {
+            length--;
+        }
+
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == '\n') {
+                int end = i > start && bytes[i - 1] == '\r' ? i - 1 : i;
+                lines.add(new String(bytes, start, end - start, StandardCharsets.US_ASCII));
+                start = i + 1;
+            }
+        }
+        if (start < length) {
+            lines.add(new String(bytes, start, length - start, StandardCharsets.US_ASCII));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,201 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+public class LogFileTest {
+
+    private final File file = new File("test_log_output.txt");
+
+    @AfterEach
+    public void cleanUp() {
+        file.delete();
+        for (int i = 0; CompressedLogFile.segmentFile(file, i).exists(); i++) {
+            CompressedLogFile.segmentFile(file, i).delete();
+        }
+    }
+
+    // Test 1: Are lines appended in stream mode?
+    @Test
+    public void testStreamAppendsLines() throws IOException {
+        LogFile log = LogFile.create(file, true, OutputMode.STREAM);
+        log.writeLine("Player 1 draws 3 from Deck 1", null);
+        log.writeLine(new StringBuilder("Player 1 discards 4 to Deck 2"), null);
+        log.close();
+
+        assertEquals(List.of("Player 1 draws 3 from Deck 1", "Player 1 discards 4 to Deck 2"),
+                Files.readAllLines(file.toPath()), "Both lines should be written in order.");
+    }
+
+    // Test 2: Is a mapped file truncated to its real length on close?
+    @Test
+    public void testMappedTruncatedOnClose() throws IOException {
+        LogFile log = LogFile.create(file, true, OutputMode.MAPPED);
+        log.writeLine("Current hand for player 1: [1, 2, 3, 4]", null);
+        assertTrue(file.length() >= MappedLogFile.INITIAL_REGION_SIZE, "The mapped region should be preallocated.");
+        log.close();
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(List.of("Current hand for player 1: [1, 2, 3, 4]"), lines, "Only the written line should remain.");
+    }
+
+    // Test 3: Does a mapped file grow past its first region?
+    @Test
+    public void testMappedGrowsPastRegion() throws IOException {
+        String line = "Player 2 draws 17 from Deck 2";
+        int count = 2 * MappedLogFile.INITIAL_REGION_SIZE / line.length() + 10;
+
+        LogFile log = LogFile.create(file, true, OutputMode.MAPPED);
+        for (int i = 0; i < count; i++) {
+            log.writeLine(line, null);
+        }
+        log.close();
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(count, lines.size(), "Every line should survive remapping.");
+        assertTrue(lines.stream().allMatch(line::equals), "No line should be split across regions.");
+    }
+
+    // Test 4: Can an unclosed mapped file still be read?
+    @Test
+    public void testUnclosedMappedFileReadable() throws IOException {
+        LogFile log = LogFile.create(file, true, OutputMode.MAPPED);
+        log.writeLine("Player 3 draws 5 from Deck 3", null);
+
+        assertEquals(List.of("Player 3 draws 5 from Deck 3"), LogFile.readLines(file),
+                "The padding after the last line should be ignored.");
+        log.close();
+    }
+
+    // Test 5: Does a replacing log overwrite the old contents each time it is opened?
+    @Test
+    public void testReplaceOnOpen() throws IOException {
+        for (OutputMode mode : OutputMode.values()) {
+            LogFile log = LogFile.create(file, false, mode);
+            log.writeLine("Final Deck 1: [1, 2]", null);
+            log.close();
+            log.writeLine("Final Deck 1: [3]", null);
+            log.close();
+
+            assertEquals(List.of("Final Deck 1: [3]"), LogFile.readLines(file),
+                    "Only the last contents should remain in " + mode + " mode.");
+        }
+    }
+
+    // Test 6: Does an appending log keep existing lines?
+    @Test
+    public void testAppendKeepsExistingLines() throws IOException {
+        for (OutputMode mode : OutputMode.values()) {
+            LogFile log = LogFile.create(file, true, mode);
+            log.writeLine("first", null);
+            log.close();
+            log.writeLine("second", null);
+            log.close();
+
+            assertEquals(List.of("first", "second"), LogFile.readLines(file),
+                    "Existing lines should be kept in " + mode + " mode.");
+            log.delete();
+        }
+    }
+
+    // Test 7: Have all asynchronous writes landed, in order, once the file is closed?
+    @Test
+    public void testAsyncWritesLandBeforeClose() throws IOException {
+        AsyncLogFile log = (AsyncLogFile) LogFile.create(file, true, OutputMode.ASYNC);
+        int count = 5000; // Spans many pooled buffers
+        for (int i = 0; i < count; i++) {
+            log.writeLine("Player 1 draws " + i + " from Deck 1", null);
+        }
+        log.close();
+
+        assertEquals(0, log.getPendingWrites(), "No write should still be in flight after closing.");
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(count, lines.size(), "Every line should be written.");
+        for (int i = 0; i < count; i++) {
+            assertEquals("Player 1 draws " + i + " from Deck 1", lines.get(i), "Lines should stay in order.");
+        }
+    }
+
+    // Test 8: Does a compressed log read back through the transparent reader?
+    @Test
+    public void testCompressedRoundTrip() throws IOException {
+        LogFile log = LogFile.create(file, true, OutputMode.COMPRESSED, 9, 0);
+        for (int i = 0; i < 3000; i++) {
+            log.writeLine("Current hand for player 2: [" + i + ", 2, 2, 7]", null);
+        }
+        log.close();
+
+        File compressed = CompressedLogFile.segmentFile(file, 0);
+        assertTrue(compressed.exists(), "The log should be written as a .gz file.");
+        assertFalse(file.exists(), "No uncompressed file should be written.");
+        List<String> lines = LogFile.readLines(file);
+        assertEquals(3000, lines.size(), "Every line should be decompressed.");
+        assertEquals("Current hand for player 2: [2999, 2, 2, 7]", lines.get(2999), "Lines should stay in order.");
+        long textLength = lines.stream().mapToLong(line -> line.length() + 1).sum();
+        assertTrue(compressed.length() < textLength / 4, "The compressed file should be much smaller than the text.");
+    }
+
+    // Test 9: Are compressed logs rotated into segments that read back in order?
+    @Test
+    public void testCompressedRotation() throws IOException {
+        LogFile log = LogFile.create(file, true, OutputMode.COMPRESSED, 0, 20 * 1024); // Level 0 stores, so size grows quickly
+        int count = 10000;
+        for (int i = 0; i < count; i++) {
+            log.writeLine("Player 3 discards " + i + " to Deck 4", null);
+        }
+        log.close();
+
+        assertTrue(CompressedLogFile.segmentFile(file, 1).exists(), "The log should have rotated at least once.");
+        List<String> lines = LogFile.readLines(file);
+        assertEquals(count, lines.size(), "No line should be lost across segments.");
+        for (int i = 0; i < count; i++) {
+            assertEquals("Player 3 discards " + i + " to Deck 4", lines.get(i), "Segments should be read in order.");
+        }
+
+        log.delete();
+        assertFalse(CompressedLogFile.segmentFile(file, 0).exists(), "Deleting the log should remove every segment.");
+        assertFalse(CompressedLogFile.segmentFile(file, 1).exists(), "Deleting the log should remove every segment.");
+    }
+
+    // Test 10: Can a compressed log that was never closed be read up to its last checkpoint?
+    @Test
+    public void testUnclosedCompressedLogReadable() throws IOException {
+        CompressedLogFile log = (CompressedLogFile) LogFile.create(file, true, OutputMode.COMPRESSED);
+        String line = "Player 4 draws 12 from Deck 4";
+        int perCheckpoint = CompressedLogFile.CHUNK_SIZE * CompressedLogFile.CHECKPOINT_CHUNKS / (line.length() + 1);
+        for (int i = 0; i < 2 * perCheckpoint; i++) {
+            log.writeLine(line, null);
+        }
+        log.awaitCompressed();
+
+        List<String> lines = LogFile.readLines(file);
+        assertTrue(lines.size() >= perCheckpoint / 2, "Lines before the checkpoint should be readable.");
+        assertTrue(lines.stream().allMatch(line::equals), "Only whole lines should be read back.");
+        log.close();
+    }
+
+    // Test 11: Does a mapped file written by an interrupted thread keep every line?
+    @Test
+    public void testMappedWritesSurviveInterrupt() throws IOException {
+        String line = "Player 1 exits after the game ends.";
+        int count = 2 * MappedLogFile.INITIAL_REGION_SIZE / line.length() + 10; // Forces a remap while interrupted
+
+        LogFile log = LogFile.create(file, true, OutputMode.MAPPED);
+        Thread.currentThread().interrupt();
+        try {
+            for (int i = 0; i < count; i++) {
+                log.writeLine(line, null);
+            }
+            log.close();
+            assertTrue(Thread.currentThread().isInterrupted(), "The interrupt should be kept for the caller.");
+        } finally {
+            Thread.interrupted();
+        }
+
+        assertEquals(count, LogFile.readLines(file).size(), "An interrupt should not cost any line.");
+    }
+}
@@ -0,0 +1,645 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Replays the output files of finished games to check that they tell a consistent story.
+ * Every player file of a game is scanned in parallel, straight from a memory mapping: the player's hand is
+ * rebuilt from its starting hand, each draw and discard, and every printed hand must match it.
+ * Then the card flow around the ring is rebuilt. Deck k only ever receives the discards of the player before it,
+ * in order, and is drawn from by player k, in order, so the cards player k drew followed by the final contents of
+ * deck k must be the cards the deck was dealt followed by everything discarded into it. The dealt cards are not
+ * in any file, but their number follows from the counts, and the numbers dealt to the decks must be those of a
+ * pack dealt round the table.
+ * <p>
+ * Many games are checked at once on a fork/join pool, which also runs the per-file scans of each game.
+ * Each game reports only its first inconsistency: player files in player order, then decks in deck order.
+ * Run {@code java LogVerifier <directory> [threads]} to check every game directory below a directory.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public final class LogVerifier {
+
+    /**
+     * What was found in one game directory.
+     */
+    public static final class Result {
+        private final File directory;
+        private final int players;
+        private final long lines;
+        private final String inconsistency;
+
+        Result(File directory, int players, long lines, String inconsistency) {
+            this.directory = directory;
+            this.players = players;
+            this.lines = lines;
+            this.inconsistency = inconsistency;
+        }
+
+        public File getDirectory() {
+            return directory;
+        }
+
+        public int getPlayers() {
+            return players;
+        }
+
+        /**
+         * @return the lines read from the game's player and deck files
+         */
+        public long getLines() {
+            return lines;
+        }
+
+        /**
+         * @return a description of the first inconsistency, or null if the game's files are consistent
+         */
+        public String getInconsistency() {
+            return inconsistency;
+        }
+
+        public boolean isConsistent() {
+            return inconsistency == null;
+        }
+
+        @Override
+        public String toString() {
+            return directory + ": " + (inconsistency == null ? "consistent (" + players + " players, " + lines + " lines)"
+                    : inconsistency);
+        }
+    }
+
+    private LogVerifier() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: java LogVerifier <directory> [threads]");
+            return;
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        List<Result> results = verifyAll(new File(args[0]), threads);
+        long elapsed = System.nanoTime() - start;
+
+        int inconsistent = 0;
+        long lines = 0;
+        for (Result result : results) {
+            lines += result.getLines();
+            if (!result.isConsistent()) {
+                inconsistent++;
+                System.out.println(result);
+            }
+        }
+        System.out.printf("%d games, %d inconsistent, %d lines in %.1f ms%n",
+                results.size(), inconsistent, lines, elapsed / 1e6);
+        if (inconsistent > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Checks every game directory at or below a directory, many at once.
+     * A game directory is one holding player1_output.txt, written in any output mode.
+     *
+     * @param root the directory to search
+     * @param threads the number of threads checking games
+     * @return one result per game directory, in the order the directories were found
+     */
+    public static List<Result> verifyAll(File root, int threads) {
+        List<File> directories = findGames(root);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<GameTask> tasks = new ArrayList<>(directories.size());
+            for (File directory : directories) {
+                tasks.add(new GameTask(directory));
+            }
+            return pool.invoke(new RecursiveTask<List<Result>>() {
+                @Override
+                protected List<Result> compute() {
+                    List<Result> results = new ArrayList<>(tasks.size());
+                    for (GameTask task : ForkJoinTask.invokeAll(tasks)) {
+                        results.add(task.join());
+                    }
+                    return results;
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Checks the files of one game, scanning its player files in parallel on the common pool.
+     *
+     * @param directory the directory the game wrote its files to
+     * @return what was found
+     */
+    public static Result verifyGame(File directory) {
+        return ForkJoinPool.commonPool().invoke(new GameTask(directory));
+    }
+
+    // Directories holding a first player file, searched without recursion so deep trees cannot overflow the stack
+    static List<File> findGames(File root) {
+        List<File> games = new ArrayList<>();
+        Deque<File> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            File directory = pending.pop();
+            if (logExists(playerFile(directory, 0))) {
+                games.add(directory);
+            }
+            File[] children = directory.listFiles(File::isDirectory);
+            if (children != null) {
+                Arrays.sort(children);
+                for (int i = children.length - 1; i >= 0; i--) {
+                    pending.push(children[i]);
+                }
+            }
+        }
+        return games;
+    }
+
+    private static File playerFile(File directory, int player) {
+        return new File(directory, "player" + (player + 1) + "_output.txt");
+    }
+
+    private static File deckFile(File directory, int deck) {
+        return new File(directory, "deck" + (deck + 1) + "_output.txt");
+    }
+
+    // A log exists as a plain file, or as the first segment of a compressed one
+    private static boolean logExists(File file) {
+        return file.exists() || CompressedLogFile.segmentFile(file, 0).exists();
+    }
+
+    @SuppressWarnings("serial") // Tasks are only ever run, never serialized
+    private static final class GameTask extends RecursiveTask<Result> {
+        private final File directory;
+
+        GameTask(File directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected Result compute() {
+            int players = 0;
+            while (logExists(playerFile(directory, players))) {
+                players++;
+            }
+            if (players == 0) {
+                return new Result(directory, 0, 0, "No player files.");
+            }
+
+            List<PlayerTask> tasks = new ArrayList<>(players);
+            for (int i = 0; i < players; i++) {
+                tasks.add(new PlayerTask(directory, i, players));
+            }
+            ForkJoinTask.invokeAll(tasks);
+
+            PlayerLog[] logs = new PlayerLog[players];
+            long lines = 0;
+            String inconsistency = null;
+            for (int i = 0; i < players; i++) {
+                logs[i] = tasks.get(i).join();
+                lines += logs[i].lines;
+                if (inconsistency == null) {
+                    inconsistency = logs[i].problem;
+                }
+            }
+            if (inconsistency != null) {
+                return new Result(directory, players, lines, inconsistency);
+            }
+
+            int[][] finalDecks = new int[players][];
+            for (int i = 0; i < players && inconsistency == null; i++) {
+                LineScanner deck = LineScanner.open(deckFile(directory, i));
+                if (deck == null) {
+                    inconsistency = deckFile(directory, i).getName() + " is missing.";
+                    break;
+                }
+                lines += deck.lines;
+                finalDecks[i] = deck.readFinalDeck(i);
+                inconsistency = deck.problem;
+            }
+            if (inconsistency == null) {
+                inconsistency = checkRing(logs, finalDecks);
+            }
+            return new Result(directory, players, lines, inconsistency);
+        }
+    }
+
+    @SuppressWarnings("serial") // Tasks are only ever run, never serialized
+    private static final class PlayerTask extends RecursiveTask<PlayerLog> {
+        private final File directory;
+        private final int player;
+        private final int players;
+
+        PlayerTask(File directory, int player, int players) {
+            this.directory = directory;
+            this.player = player;
+            this.players = players;
+        }
+
+        @Override
+        protected PlayerLog compute() {
+            return PlayerLog.read(playerFile(directory, player), player, players);
+        }
+    }
+
+    /**
+     * Rebuilds each deck from what was drawn from it, what was discarded into it and what it finally held.
+     *
+     * @return the first inconsistency, or null
+     */
+    static String checkRing(PlayerLog[] logs, int[][] finalDecks) {
+        int players = logs.length;
+        int[] dealt = new int[players];
+        for (int deck = 0; deck < players; deck++) {
+            PlayerLog drawer = logs[deck];
+            PlayerLog discarder = logs[(deck + players - 1) % players];
+            int[] finalDeck = finalDecks[deck];
+
+            // Cards out of the deck, in order, must be the dealt cards followed by the discards into it
+            int out = drawer.draws.size + finalDeck.length;
+            dealt[deck] = out - discarder.discards.size;
+            if (dealt[deck] < 0) {
+                return "Deck " + (deck + 1) + " gave out " + out + " cards but player " + (discarder.player + 1)
+                        + " discarded " + discarder.discards.size + " into it.";
+            }
+            for (int j = 0; j < discarder.discards.size; j++) {
+                int position = dealt[deck] + j;
+                int discarded = discarder.discards.values[j];
+                if (position < drawer.draws.size) {
+                    if (drawer.draws.values[position] != discarded) {
+                        return "player" + (deck + 1) + "_output.txt line " + drawer.drawLines.values[position]
+                                + ": draws " + drawer.draws.values[position] + " from Deck " + (deck + 1)
+                                + ", but the card due was the " + discarded + " discarded by player "
+                                + (discarder.player + 1) + " on line " + discarder.discardLines.values[j] + ".";
+                    }
+                } else if (finalDeck[position - drawer.draws.size] != discarded) {
+                    return "Final Deck " + (deck + 1) + " holds " + finalDeck[position - drawer.draws.size]
+                            + " where the " + discarded + " discarded by player " + (discarder.player + 1)
+                            + " on line " + discarder.discardLines.values[j] + " should be.";
+                }
+            }
+        }
+
+        // A pack is dealt to the decks in turn, so no deck has more than the first or fewer than the last
+        for (int deck = 1; deck < players; deck++) {
+            if (dealt[deck] > dealt[deck - 1] || dealt[0] - dealt[deck] > 1) {
+                return "The decks were dealt " + Arrays.toString(dealt) + " cards, which no pack deals.";
+            }
+        }
+        return null;
+    }
+
+    // A growable list of ints, so a long game's draws and discards are not boxed
+    static final class IntList {
+        int[] values = new int[16];
+        int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        boolean remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    System.arraycopy(values, i + 1, values, i, size - i - 1);
+                    size--;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Same cards in any order; hands are a handful of cards, so sorting copies is cheap
+        boolean sameCards(int[] cards) {
+            if (cards.length != size) {
+                return false;
+            }
+            int[] mine = Arrays.copyOf(values, size);
+            int[] theirs = cards.clone();
+            Arrays.sort(mine);
+            Arrays.sort(theirs);
+            return Arrays.equals(mine, theirs);
+        }
+
+        void set(int[] cards) {
+            size = 0;
+            for (int card : cards) {
+                add(card);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(Arrays.copyOf(values, size));
+        }
+    }
+
+    /**
+     * The draws and discards of one player file, read while replaying the player's hand.
+     */
+    static final class PlayerLog {
+        final int player;
+        final IntList draws = new IntList();
+        final IntList drawLines = new IntList();
+        final IntList discards = new IntList();
+        final IntList discardLines = new IntList();
+        long lines = 0;
+        String problem = null;
+
+        private PlayerLog(int player) {
+            this.player = player;
+        }
+
+        static PlayerLog read(File file, int player, int players) {
+            PlayerLog log = new PlayerLog(player);
+            LineScanner scanner = LineScanner.open(file);
+            if (scanner == null) {
+                log.problem = file.getName() + " cannot be read.";
+                return log;
+            }
+            scanner.replayPlayer(log, player, players);
+            log.lines = scanner.lines;
+            if (log.problem == null) {
+                log.problem = scanner.problem;
+            }
+            return log;
+        }
+    }
+
+    /**
+     * Walks the lines of a log file in place, parsing numbers and hands from the bytes without building strings.
+     */
+    static final class LineScanner {
+        private final File file;
+        private final ByteBuffer bytes;
+        private final int limit;
+        private int next = 0;  // Start of the next line
+        private int start;     // Start of the current line
+        private int position;  // Parse position within the current line
+        private int end;       // End of the current line, without its line separator
+        private long lines = 0;
+        String problem = null;
+
+        private LineScanner(File file, ByteBuffer bytes) {
+            this.file = file;
+            this.bytes = bytes;
+            int length = bytes.limit();
+            while (length > 0 && bytes.get(length - 1) == 0) {
+                length--; // Padding of a mapped log that was never closed
+            }
+            this.limit = length;
+        }
+
+        /**
+         * Maps a plain log file, or decompresses a compressed one.
+         *
+         * @return the scanner, or null if the file cannot be read
+         */
+        static LineScanner open(File file) {
+            try {
+                if (file.exists()) {
+                    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                        return new LineScanner(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                    }
+                }
+                if (!CompressedLogFile.segmentFile(file, 0).exists()) {
+                    return null;
+                }
+                return new LineScanner(file, ByteBuffer.wrap(LogFile.readBytes(file)));
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        private boolean nextLine() {
+            if (next >= limit) {
+                return false;
+            }
+            start = next;
+            position = next;
+            int i = next;
+            while (i < limit && bytes.get(i) != '\n') {
+                i++;
+            }
+            end = i > position && bytes.get(i - 1) == '\r' ? i - 1 : i;
+            next = i + 1;
+            lines++;
+            return true;
+        }
+
+        // Consumes the text if the line continues with it
+        private boolean skip(byte[] text) {
+            if (end - position < text.length) {
+                return false;
+            }
+            for (int i = 0; i < text.length; i++) {
+                if (bytes.get(position + i) != text[i]) {
+                    return false;
+                }
+            }
+            position += text.length;
+            return true;
+        }
+
+        private boolean atEnd() {
+            return position == end;
+        }
+
+        // A face value, or -1 if the line does not continue with digits
+        private int number() {
+            int start = position;
+            int value = 0;
+            while (position < end && position - start < 9) {
+                byte b = bytes.get(position);
+                if (b < '0' || b > '9') {
+                    break;
+                }
+                value = value * 10 + (b - '0');
+                position++;
+            }
+            return position > start ? value : -1;
+        }
+
+        // A hand or deck in List.toString form, or null if the rest of the line is not one
+        private int[] cards() {
+            if (!skip(OPEN)) {
+                return null;
+            }
+            IntList cards = new IntList();
+            if (skip(CLOSE)) {
+                return atEnd() ? new int[0] : null;
+            }
+            do {
+                int value = number();
+                if (value < 0) {
+                    return null;
+                }
+                cards.add(value);
+            } while (skip(SEPARATOR));
+            return skip(CLOSE) && atEnd() ? Arrays.copyOf(cards.values, cards.size) : null;
+        }
+
+        private String currentLine() {
+            byte[] text = new byte[end - start];
+            for (int i = 0; i < text.length; i++) {
+                text[i] = bytes.get(start + i);
+            }
+            return new String(text, StandardCharsets.US_ASCII);
+        }
+
+        private void fail(String message) {
+            if (problem == null) {
+                problem = file.getName() + " line " + lines + " \"" + currentLine() + "\": " + message;
+            }
+        }
+
+        /**
+         * Reads the single line of a deck file.
+         *
+         * @return the final cards of the deck, or an empty array after recording a problem
+         */
+        int[] readFinalDeck(int deck) {
+            if (!nextLine()) {
+                problem = file.getName() + " is empty.";
+                return new int[0];
+            }
+            int[] cards = skip(ascii("Final Deck " + (deck + 1) + ": ")) ? cards() : null;
+            if (cards == null) {
+                fail("expected the final deck.");
+                return new int[0];
+            }
+            if (nextLine()) {
+                fail("expected the end of the file.");
+            }
+            return cards;
+        }
+
+        /**
+         * Replays a player file line by line, keeping the hand it describes and recording its draws and discards.
+         */
+        void replayPlayer(PlayerLog log, int player, int players) {
+            String name = "Player " + (player + 1);
+            byte[] startingHand = ascii("Starting hand for player " + (player + 1) + ": ");
+            byte[] currentHand = ascii("Current hand for player " + (player + 1) + ": ");
+            byte[] finalHand = ascii("Final hand of player " + (player + 1) + ": ");
+            byte[] playerName = ascii(name + " ");
+            byte[] draws = ascii("draws ");
+            byte[] fromDeck = ascii(" from Deck " + (player + 1));
+            byte[] discards = ascii("discards ");
+            byte[] toDeck = ascii(" to Deck " + ((player + 1) % players + 1));
+            byte[] winsWithHand = ascii("wins with hand: ");
+            byte[] immediateWin = ascii("wins with an immediate win!");
+            byte[][] messages = {
+                    immediateWin, ascii("exits after the game ends."),
+                    ascii("exits after the game ends in a draw."), ascii("has no cards to discard."),
+                    ascii("has only preferred cards and skips discard."), ascii("was interrupted.")
+            };
+
+            IntList hand = null;
+            boolean wonImmediately = false;
+            while (problem == null && nextLine()) {
+                if (hand == null) {
+                    if (!wonImmediately && skip(playerName) && skip(immediateWin) && atEnd()) {
+                        wonImmediately = true; // Written before the starting hand
+                        continue;
+                    }
+                    position = start;
+                    int[] dealt = skip(startingHand) ? cards() : null;
+                    if (dealt == null) {
+                        fail("expected the starting hand.");
+                    } else if (wonImmediately && !isWin(dealt)) {
+                        fail("the player won immediately with a hand that does not win.");
+                    } else {
+                        hand = new IntList();
+                        hand.set(dealt);
+                    }
+                } else if (skip(currentHand) || skip(finalHand)) {
+                    int[] shown = cards();
+                    if (shown == null) {
+                        fail("cannot read the hand.");
+                    } else if (!hand.sameCards(shown)) {
+                        fail("the hand should be " + hand + ".");
+                    }
+                } else if (!skip(playerName)) {
+                    fail("not a line of " + name + ".");
+                } else if (skip(draws)) {
+                    int card = number();
+                    if (card < 0 || !skip(fromDeck) || !atEnd()) {
+                        fail("cannot read the draw.");
+                    } else {
+                        hand.add(card);
+                        log.draws.add(card);
+                        log.drawLines.add((int) lines);
+                    }
+                } else if (skip(discards)) {
+                    int card = number();
+                    if (card < 0 || !skip(toDeck) || !atEnd()) {
+                        fail("cannot read the discard.");
+                    } else if (!hand.remove(card)) {
+                        fail("the discarded card is not in the hand " + hand + ".");
+                    } else {
+                        log.discards.add(card);
+                        log.discardLines.add((int) lines);
+                    }
+                } else if (skip(winsWithHand)) {
+                    int[] shown = cards();
+                    if (shown == null || !hand.sameCards(shown)) {
+                        fail("the winning hand should be " + hand + ".");
+                    } else if (!isWin(shown)) {
+                        fail("the hand does not win.");
+                    }
+                } else if (!skipAny(messages)) {
+                    fail("unrecognised line.");
+                }
+            }
+            if (problem == null && hand == null) {
+                problem = file.getName() + " is empty.";
+            }
+        }
+
+        // Consumes one of the messages if it is the whole rest of the line
+        private boolean skipAny(byte[][] messages) {
+            int from = position;
+            for (byte[] message : messages) {
+                if (skip(message) && atEnd()) {
+                    return true;
+                }
+                position = from;
+            }
+            return false;
+        }
+
+        private static boolean isWin(int[] cards) {
+            return cards.length == 4 && cards[0] == cards[1] && cards[0] == cards[2] && cards[0] == cards[3];
+        }
+    }
+
+    private static final byte[] OPEN = ascii("[");
+    private static final byte[] CLOSE = ascii("]");
+    private static final byte[] SEPARATOR = ascii(", ");
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
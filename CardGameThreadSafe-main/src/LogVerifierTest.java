@@ -0,0 +1,126 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LogVerifierTest {
+
+    private static final String PACK_FILE = "log_verifier_pack.txt";
+    private static final File OUTPUT = new File("log_verifier_output");
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        writePack(i -> (i * 5) % 8 + 1); // Four of each value from 1 to 8
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        new File(PACK_FILE).delete();
+        delete(OUTPUT);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private interface CardAt {
+        int value(int position);
+    }
+
+    private void writePack(CardAt cardAt) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 32; i++) {
+            lines.add(String.valueOf(cardAt.value(i)));
+        }
+        Files.write(new File(PACK_FILE).toPath(), lines);
+    }
+
+    // Plays a game of 4 players into its own directory
+    private File play(String name, OutputMode mode) {
+        File directory = new File(OUTPUT, name);
+        try (CardGame game = new CardGame(4, PACK_FILE)) {
+            game.setConsoleOutput(false);
+            game.setClock(new SimulatedClock());
+            game.setTurnLimit(2000);
+            game.setOutputMode(mode);
+            game.setOutputDirectory(directory);
+            assertNotNull(game.startGame(), "The game should run.");
+        }
+        return directory;
+    }
+
+    private static void replaceLine(File file, String prefix, String replacement) throws IOException {
+        List<String> lines = new ArrayList<>(Files.readAllLines(file.toPath()));
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).startsWith(prefix)) {
+                lines.set(i, replacement);
+                Files.write(file.toPath(), lines);
+                return;
+            }
+        }
+        fail(file + " should have a line starting with " + prefix);
+    }
+
+    // Test 1: Are the files of a threaded game consistent?
+    @Test
+    public void testThreadedGameConsistent() {
+        LogVerifier.Result result = LogVerifier.verifyGame(play("threaded", OutputMode.STREAM));
+
+        assertTrue(result.isConsistent(), "A real game should replay cleanly: " + result);
+        assertEquals(4, result.getPlayers(), "Every player file should be found.");
+        assertTrue(result.getLines() > 4 * 4, "Every line should be read.");
+    }
+
+    // Test 2: Is a draw that does not match the player's hand reported with its file and line?
+    @Test
+    public void testTamperedDrawReported() throws IOException {
+        File directory = play("tampered_draw", OutputMode.STREAM);
+        replaceLine(new File(directory, "player2_output.txt"), "Player 2 draws", "Player 2 draws 99 from Deck 2");
+
+        LogVerifier.Result result = LogVerifier.verifyGame(directory);
+        assertFalse(result.isConsistent(), "The changed draw should be found.");
+        assertTrue(result.getInconsistency().startsWith("player2_output.txt line "),
+                "The inconsistency should name the file and line: " + result);
+    }
+
+    // Test 3: Is a card missing from a final deck reported?
+    @Test
+    public void testTamperedFinalDeckReported() throws IOException {
+        File directory = play("tampered_deck", OutputMode.STREAM);
+        File deck = new File(directory, "deck3_output.txt");
+        String line = Files.readAllLines(deck.toPath()).get(0);
+        String shorter = line.contains(", ") ? line.substring(0, line.lastIndexOf(", ")) + "]" : "Final Deck 3: [42]";
+        replaceLine(deck, "Final Deck 3", shorter);
+
+        LogVerifier.Result result = LogVerifier.verifyGame(directory);
+        assertFalse(result.isConsistent(), "The changed deck should break the card flow.");
+    }
+
+    // Test 4: Are games in every output mode, and an immediate win, found and checked together?
+    @Test
+    public void testVerifyAllOutputModes() throws IOException {
+        play("stream", OutputMode.STREAM);
+        play("mapped", OutputMode.MAPPED);
+        play("nested/compressed", OutputMode.COMPRESSED);
+        writePack(i -> i % 4 == 1 ? 7 : i); // Player 1 is dealt four 7s
+        play("immediate", OutputMode.STREAM);
+
+        List<LogVerifier.Result> results = LogVerifier.verifyAll(OUTPUT, 3);
+        assertEquals(4, results.size(), "Every game directory should be found, however deep.");
+        for (LogVerifier.Result result : results) {
+            assertTrue(result.isConsistent(), "Every game should replay cleanly: " + result);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Log file written into a memory-mapped region of the file.
+ * A region is mapped ahead of the data, so a line is copied straight into memory without a system call;
+ * when a region fills up the next one is mapped, twice as large, up to a maximum size.
+ * The file is truncated to the bytes actually written when it is closed. The mapping is shared with the
+ * operating system's page cache, so if the game is killed the lines written so far are still in the file,
+ * followed by zero padding that LogFile.readLines ignores.
+ * FileChannel calls are interruptible, and an interrupt would close the channel and lose the rest of the file;
+ * players are interrupted to end a game just as they log their last lines, so the calls are made uninterruptibly.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+class MappedLogFile extends LogFile {
+    static final int INITIAL_REGION_SIZE = 64 * 1024;
+    static final int MAX_REGION_SIZE = 8 * 1024 * 1024;
+
+    private FileChannel channel;
+    private MappedByteBuffer region;
+    private int regionSize = INITIAL_REGION_SIZE;
+    private long length; // Bytes written to the file so far
+
+    MappedLogFile(File file, boolean append) {
+        super(file, append);
+    }
+
+    @Override
+    protected void write(byte[] bytes, int count) throws IOException {
+        if (channel == null) {
+            open();
+        }
+        if (region.remaining() < count) {
+            regionSize = Math.max(Math.min(regionSize * 2, MAX_REGION_SIZE), count);
+            mapRegion();
+        }
+        region.put(bytes, 0, count);
+        length += count;
+    }
+
+    private void open() throws IOException {
+        channel = openChannel();
+        uninterruptibly(() -> {
+            if (!append) {
+                channel.truncate(0);
+            }
+            length = channel.size();
+        });
+        regionSize = INITIAL_REGION_SIZE;
+        mapRegion();
+    }
+
+    private FileChannel openChannel() throws IOException {
+        return FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    // Maps the next region, starting where the written data ends
+    private void mapRegion() throws IOException {
+        uninterruptibly(() -> region = channel.map(FileChannel.MapMode.READ_WRITE, length, regionSize));
+    }
+
+    private interface ChannelCall {
+        void run() throws IOException;
+    }
+
+    // Makes a channel call with the thread's interrupt held back. If an interrupt arrives during the call and
+    // closes the channel, the file is reopened and the call repeated; the interrupt is restored afterwards.
+    private void uninterruptibly(ChannelCall call) throws IOException {
+        boolean interrupted = Thread.interrupted();
+        try {
+            while (true) {
+                try {
+                    call.run();
+                    return;
+                } catch (ClosedByInterruptException e) {
+                    interrupted = true;
+                    Thread.interrupted();
+                    channel = openChannel(); // The mapped regions and the bytes written stay valid
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel != null) {
+            region = null;
+            try {
+                uninterruptibly(() -> channel.truncate(length)); // Drop the unused part of the last region
+            } catch (IOException e) {
+                // Some platforms refuse to truncate a mapped file; the padding is left and readers skip it
+                System.err.println("Error truncating file " + file + ": " + e.getMessage());
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing file " + file + ": " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+}
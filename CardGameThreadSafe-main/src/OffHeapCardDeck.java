@@ -0,0 +1,262 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A deck that keeps its face values as packed ints in off-heap memory from a DeckArena,
+ * instead of one Card object and one queue node per card on the heap.
+ * The cards form a ring buffer with a head index advanced by drawing threads and a tail index
+ * advanced by offering threads. Drawing and offering use separate locks, so a player drawing from
+ * its own deck never waits for the player offering to it; the indices are published with
+ * release and acquire VarHandle accesses so each side sees the other's cards.
+ * Drawn cards come from Card.valueOf, so common face values create no objects at all.
+ * A deck created with a capacity holds at most that many cards; a deck created without one starts empty and
+ * doubles its ring whenever an offer does not fit, so its memory follows the cards it really holds.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public final class OffHeapCardDeck extends CardDeck {
+    private static final VarHandle FACE_VALUES = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(OffHeapCardDeck.class, "head", long.class);
+            TAIL = lookup.findVarHandle(OffHeapCardDeck.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final DeckArena arena;
+    private final Object drawLock = new Object();
+    private final Object offerLock = new Object();
+    private ByteBuffer storage; // Null until a growing deck first holds a card
+    private boolean released = false; // Set once the arena is closed
+    private int capacity;
+    private final boolean growable;
+    private long head = 0; // Total cards ever drawn
+    private long tail = 0; // Total cards ever offered
+
+    /**
+     * Creates a deck with room for the given number of cards.
+     *
+     * @param arena the arena that owns the deck's memory
+     * @param capacity the most cards the deck can hold at once
+     */
+    public OffHeapCardDeck(DeckArena arena, int capacity) {
+        this.arena = arena;
+        this.growable = false;
+        arena.register(this);
+        prepare(capacity);
+    }
+
+    /**
+     * Creates a deck that takes no memory until cards are offered, then grows as it needs.
+     *
+     * @param arena the arena that owns the deck's memory
+     */
+    public OffHeapCardDeck(DeckArena arena) {
+        this.arena = arena;
+        this.growable = true;
+        arena.register(this);
+    }
+
+    /**
+     * Empties the deck and gives it a new ring from the arena: the most cards it can hold, or, for a deck
+     * that grows, the room it starts with.
+     */
+    @Override
+    void prepare(int capacity) {
+        synchronized (drawLock) {
+            synchronized (offerLock) {
+                this.storage = arena.allocate(capacity);
+                this.capacity = capacity;
+                HEAD.setRelease(this, 0L);
+                TAIL.setRelease(this, 0L);
+            }
+        }
+    }
+
+    /**
+     * @return the most cards the deck can hold before it must grow
+     */
+    public int getCapacity() {
+        synchronized (offerLock) {
+            return capacity;
+        }
+    }
+
+    // Moves the cards into a ring at least twice as big with room for the given number more. Takes both locks,
+    // so it is called with neither held. The indices keep counting, so lock-free readers of size see no jump.
+    private void grow(int more) {
+        synchronized (drawLock) {
+            synchronized (offerLock) {
+                long h = head;
+                long t = tail;
+                if (t - h + more <= capacity) {
+                    return; // Another offer grew the ring first
+                }
+                ByteBuffer values = storage();
+                int needed = (int) Math.min(Integer.MAX_VALUE / Integer.BYTES, t - h + more);
+                int newCapacity = Math.max(needed, Math.max(8, 2 * capacity));
+                ByteBuffer grown = arena.allocate(newCapacity);
+                for (long i = h; i < t; i++) {
+                    FACE_VALUES.set(grown, (int) (i % newCapacity) * Integer.BYTES, (int) FACE_VALUES.get(values, offset(i)));
+                }
+                storage = grown; // The old slice is reused once the arena is reset
+                capacity = newCapacity;
+            }
+        }
+    }
+
+    // Called by the arena when it closes
+    void release() {
+        synchronized (drawLock) {
+            synchronized (offerLock) {
+                storage = null;
+                capacity = 0;
+                released = true;
+                HEAD.setRelease(this, 0L);
+                TAIL.setRelease(this, 0L);
+            }
+        }
+    }
+
+    // Null with a capacity of 0 for a growing deck that has never held a card, so callers reading cards need none
+    private ByteBuffer storage() {
+        if (released) {
+            throw new IllegalStateException("The deck's arena has been closed.");
+        }
+        return storage;
+    }
+
+    private int offset(long index) {
+        return (int) (index % capacity) * Integer.BYTES;
+    }
+
+    @Override
+    Card take() {
+        synchronized (drawLock) {
+            ByteBuffer values = storage();
+            long h = head;
+            if (h == (long) TAIL.getAcquire(this)) {
+                return null;
+            }
+            int faceValue = (int) FACE_VALUES.get(values, offset(h));
+            HEAD.setRelease(this, h + 1); // Frees the slot for the offering side
+            return Card.valueOf(faceValue);
+        }
+    }
+
+    @Override
+    void put(Card card) {
+        while (true) {
+            synchronized (offerLock) {
+                ByteBuffer values = storage();
+                long t = tail;
+                if (t - (long) HEAD.getAcquire(this) < capacity) {
+                    FACE_VALUES.set(values, offset(t), card.getFaceValue());
+                    TAIL.setRelease(this, t + 1); // Publishes the card to the drawing side
+                    return;
+                }
+                if (!growable) {
+                    throw new IllegalStateException("Deck is full: it holds at most " + capacity + " cards.");
+                }
+            }
+            grow(1);
+        }
+    }
+
+    @Override
+    public void addCard(Card card) {
+        put(card);
+    }
+
+    @Override
+    public void clear() {
+        synchronized (drawLock) {
+            synchronized (offerLock) {
+                HEAD.setRelease(this, tail);
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return (long) HEAD.getAcquire(this) == (long) TAIL.getAcquire(this);
+    }
+
+    @Override
+    public int size() {
+        long h = (long) HEAD.getAcquire(this); // Read first: the tail can only have moved further since
+        return (int) ((long) TAIL.getAcquire(this) - h);
+    }
+
+    // Bulk transfers take their lock once and move the index once, so the other side sees every card together
+
+    @Override
+    public void offerAll(int[] faceValues, int from, int to) {
+        while (true) {
+            synchronized (offerLock) {
+                ByteBuffer values = storage();
+                long t = tail;
+                if (t + (to - from) - (long) HEAD.getAcquire(this) <= capacity) {
+                    for (int i = from; i < to; i++) {
+                        FACE_VALUES.set(values, offset(t++), faceValues[i]);
+                    }
+                    TAIL.setRelease(this, t);
+                    return;
+                }
+                if (!growable) {
+                    throw new IllegalStateException("Deck is full: it holds at most " + capacity + " cards.");
+                }
+            }
+            grow(to - from);
+        }
+    }
+
+    @Override
+    public int drainTo(int[] faceValues, int offset, int max) {
+        synchronized (drawLock) {
+            ByteBuffer values = storage();
+            long h = head;
+            int drawn = (int) Math.min(max, (long) TAIL.getAcquire(this) - h);
+            for (int i = 0; i < drawn; i++) {
+                faceValues[offset + i] = (int) FACE_VALUES.get(values, offset(h + i));
+            }
+            HEAD.setRelease(this, h + drawn);
+            return drawn;
+        }
+    }
+
+    @Override
+    public int[] snapshot() {
+        synchronized (drawLock) {
+            synchronized (offerLock) {
+                int[] faceValues = new int[(int) (tail - head)];
+                ByteBuffer values = storage();
+                for (int i = 0; i < faceValues.length; i++) {
+                    faceValues[i] = (int) FACE_VALUES.get(values, offset(head + i));
+                }
+                return faceValues;
+            }
+        }
+    }
+
+    @Override
+    public List<Card> getCardsAsList() {
+        int[] faceValues = snapshot();
+        List<Card> cards = new ArrayList<>(faceValues.length);
+        for (int faceValue : faceValues) {
+            cards.add(Card.valueOf(faceValue));
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,196 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OffHeapCardDeckTest {
+
+    private DeckArena arena;
+    private OffHeapCardDeck deck;
+
+    @BeforeEach
+    public void setUp() {
+        arena = new DeckArena();
+        deck = new OffHeapCardDeck(arena, 8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        arena.close();
+    }
+
+    // Test 1: Are cards drawn in the order they were offered?
+    @Test
+    public void testFirstInFirstOut() {
+        deck.offer(new Card(3));
+        deck.offer(new Card(1));
+        deck.addCard(new Card(2));
+
+        assertEquals(3, deck.size(), "The deck should hold three cards.");
+        assertEquals(3, deck.drawCard().getFaceValue(), "The first card offered should be drawn first.");
+        assertEquals(1, deck.drawCard().getFaceValue(), "The second card offered should be drawn second.");
+        assertEquals(2, deck.drawCard().getFaceValue(), "The third card offered should be drawn third.");
+        assertNull(deck.drawCard(), "Drawing from an empty deck should return null.");
+        assertTrue(deck.isEmpty(), "The deck should be empty.");
+    }
+
+    // Test 2: Does the ring wrap round when cards keep passing through?
+    @Test
+    public void testWrapsAround() {
+        for (int i = 1; i <= 100; i++) {
+            deck.offer(new Card(i));
+            deck.offer(new Card(i + 1000));
+            assertEquals(i, deck.drawCard().getFaceValue(), "Cards should keep their order across the end of the ring.");
+            assertEquals(i + 1000, deck.drawCard().getFaceValue(), "Cards should keep their order across the end of the ring.");
+        }
+    }
+
+    // Test 3: Is offering to a full deck rejected?
+    @Test
+    public void testFullDeckRejected() {
+        for (int i = 1; i <= 8; i++) {
+            deck.offer(new Card(i));
+        }
+        assertThrows(IllegalStateException.class, () -> deck.offer(new Card(9)), "A full deck should reject another card.");
+        assertEquals(8, deck.size(), "The rejected card should not be stored.");
+    }
+
+    // Test 4: Do clear, toString and getCardsAsList match a heap deck?
+    @Test
+    public void testMatchesHeapDeck() {
+        CardDeck heapDeck = new CardDeck();
+        for (int value : new int[] {10, 20, 30}) {
+            deck.offer(new Card(value));
+            heapDeck.offer(new Card(value));
+        }
+        deck.drawCard();
+        heapDeck.drawCard();
+
+        assertEquals(heapDeck.toString(), deck.toString(), "Both decks should print the same.");
+        assertEquals(heapDeck.getCardsAsList(), deck.getCardsAsList(), "Both decks should list the same cards.");
+
+        deck.clear();
+        assertTrue(deck.isEmpty(), "A cleared deck should be empty.");
+        assertEquals(List.of(), deck.getCardsAsList(), "A cleared deck should list no cards.");
+    }
+
+    // Test 5: Does one thread offering while another draws keep every card in order?
+    @Test
+    public void testConcurrentOfferAndDraw() throws InterruptedException {
+        int cards = 20_000;
+        List<Integer> drawn = new ArrayList<>(cards);
+
+        Thread offerer = new Thread(() -> {
+            for (int i = 1; i <= cards; i++) {
+                while (deck.size() == 8) {
+                    Thread.yield(); // Let the drawer make room, even on a single CPU
+                }
+                deck.offer(Card.valueOf(i));
+            }
+        });
+        Thread drawer = new Thread(() -> {
+            while (drawn.size() < cards) {
+                Card card = deck.drawCard();
+                if (card != null) {
+                    drawn.add(card.getFaceValue());
+                } else {
+                    Thread.yield(); // Let the offerer catch up
+                }
+            }
+        });
+
+        offerer.start();
+        drawer.start();
+        offerer.join();
+        drawer.join();
+
+        for (int i = 0; i < cards; i++) {
+            assertEquals(i + 1, (int) drawn.get(i), "Card " + (i + 1) + " should be drawn in order.");
+        }
+        assertTrue(deck.isEmpty(), "Every card should have been drawn.");
+    }
+
+    // Test 6: Does closing the arena detach its decks?
+    @Test
+    public void testClosedArenaReleasesDecks() {
+        deck.offer(new Card(5));
+        assertTrue(arena.getReservedBytes() > 0, "The arena should hold memory for its deck.");
+
+        arena.close();
+
+        assertTrue(arena.isClosed(), "The arena should report that it is closed.");
+        assertEquals(0, arena.getReservedBytes(), "A closed arena should hold no memory.");
+        assertThrows(IllegalStateException.class, deck::drawCard, "A deck of a closed arena cannot be used.");
+        assertThrows(IllegalStateException.class, () -> new OffHeapCardDeck(arena, 8), "A closed arena cannot hand out memory.");
+    }
+
+    // Test 7: Does resetting the arena reuse its memory for the next game?
+    @Test
+    public void testResetReusesMemory() {
+        long reserved = arena.getReservedBytes();
+        for (int game = 0; game < 10; game++) {
+            arena.reset();
+            deck.prepare(8);
+            deck.offer(new Card(game + 1));
+            assertEquals(game + 1, deck.drawCard().getFaceValue(), "The prepared deck should work like a new one.");
+        }
+        assertEquals(reserved, arena.getReservedBytes(), "Replaying should not allocate more memory.");
+    }
+
+    // Test 8: Do bulk transfers match a heap deck, also when the ring wraps round?
+    @Test
+    public void testBulkTransfersMatchHeapDeck() {
+        CardDeck heapDeck = new CardDeck();
+        int[] buffer = new int[8];
+        for (int round = 0; round < 5; round++) {
+            int[] values = {round + 1, round + 2, round + 3, round + 4, round + 5};
+            for (CardDeck each : List.of(deck, heapDeck)) {
+                each.offerAll(values, 0, 5);
+                assertEquals(5, each.drainTo(buffer, 0, 5), "Every offered card should be drawn.");
+                each.offerAll(values, 2, 5);
+            }
+            assertArrayEquals(heapDeck.snapshot(), deck.snapshot(), "Both decks should hold the same cards in round " + round);
+            assertEquals(heapDeck.size(), deck.size(), "Both decks should count the same cards.");
+            deck.drainTo(buffer);
+            heapDeck.drainTo(buffer);
+        }
+        assertTrue(deck.isEmpty(), "The off-heap deck should be drained.");
+    }
+
+    // Test 9: Is a bulk offer that does not fit rejected without adding any card?
+    @Test
+    public void testBulkOfferToFullDeckRejected() {
+        deck.offerAll(new int[]{1, 2, 3, 4, 5, 6});
+
+        assertThrows(IllegalStateException.class, () -> deck.offerAll(new int[]{7, 8, 9}), "Nine cards do not fit in eight.");
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6}, deck.snapshot(), "The rejected offer should leave the deck as it was.");
+    }
+
+    // Test 10: Does a deck created without a capacity grow to fit its cards, keeping their order?
+    @Test
+    public void testGrowingDeck() {
+        OffHeapCardDeck growing = new OffHeapCardDeck(arena);
+        assertNull(growing.drawCard(), "A new growing deck should be empty.");
+        assertEquals(0, growing.getCapacity(), "A new growing deck should hold no memory.");
+
+        growing.prepare(4);
+        growing.offerAll(new int[]{1, 2, 3});
+        assertEquals(1, growing.drawCard().getFaceValue(), "The first card should be drawn first.");
+        for (int i = 4; i <= 40; i++) {
+            growing.offer(new Card(i)); // Wraps round the small ring, then outgrows it
+        }
+        growing.offerAll(new int[]{41, 42, 43, 44, 45, 46, 47, 48, 49, 50});
+
+        assertTrue(growing.getCapacity() >= 49, "The ring should have grown to fit every card.");
+        assertTrue(growing.getCapacity() <= 2 * 49, "The ring should grow by doubling, not without limit.");
+        int[] expected = new int[49];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = i + 2;
+        }
+        assertArrayEquals(expected, growing.snapshot(), "Growing should keep every card in order.");
+        assertEquals(49, growing.size(), "Growing should not change the number of cards.");
+    }
+}
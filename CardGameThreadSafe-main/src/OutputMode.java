@@ -0,0 +1,12 @@
+/**
+ * How a game writes its player and deck output files.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public enum OutputMode {
+    STREAM,    // One write call per line on a file kept open for the game
+    MAPPED,    // Lines copied into a growing memory-mapped region, truncated to length on close
+    ASYNC,     // Lines collected in pooled direct buffers and written by an AsynchronousFileChannel
+    COMPRESSED // Lines gzipped on a background thread into rotating .gz segments
+}
@@ -0,0 +1,97 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-game analysis of a dealt pack.
+ * Runs once after the hands and decks have been dealt, before any player thread exists.
+ * Finds players who hold a winning hand straight from the deal, and packs in which
+ * no denomination appears four times, so no player can ever collect a winning hand.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public class PackAnalysis {
+    private final List<Integer> immediateWinners;
+    private final boolean winPossible;
+
+    private PackAnalysis(List<Integer> immediateWinners, boolean winPossible) {
+        this.immediateWinners = immediateWinners;
+        this.winPossible = winPossible;
+    }
+
+    /**
+     * Analyses the dealt hands together with the cards left over for the shared decks.
+     *
+     * @param playerHands the hand dealt to each player
+     * @param deckCards the cards dealt into the shared decks
+     * @return the analysis of the deal
+     */
+    public static PackAnalysis analyse(List<List<Card>> playerHands, List<Card> deckCards) {
+        List<Integer> winners = new ArrayList<>();
+        for (int winner : WinScanner.of(playerHands).scan()) {
+            winners.add(winner);
+        }
+
+        // A win needs four cards of one denomination somewhere in the pack
+        Map<Integer, Integer> counts = new HashMap<>();
+        boolean winPossible = !winners.isEmpty();
+        for (int i = 0; i < playerHands.size() && !winPossible; i++) {
+            winPossible = countCards(playerHands.get(i), counts);
+        }
+        if (!winPossible) {
+            winPossible = countCards(deckCards, counts);
+        }
+
+        return new PackAnalysis(Collections.unmodifiableList(winners), winPossible);
+    }
+
+    /**
+     * Checks whether a hand is four cards of the same denomination.
+     *
+     * @param hand the hand to check
+     * @return true if the hand wins
+     */
+    public static boolean isWinningHand(List<Card> hand) {
+        if (hand.size() != 4) {
+            return false;
+        }
+        int faceValue = hand.get(0).getFaceValue();
+        for (int i = 1; i < 4; i++) {
+            if (hand.get(i).getFaceValue() != faceValue) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Adds the cards to the running counts, returns true once any denomination reaches four
+    private static boolean countCards(List<Card> cards, Map<Integer, Integer> counts) {
+        for (Card card : cards) {
+            if (counts.merge(card.getFaceValue(), 1, Integer::sum) >= 4) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the indices of players whose dealt hand already wins, in player order
+     */
+    public List<Integer> getImmediateWinners() {
+        return immediateWinners;
+    }
+
+    public boolean hasImmediateWinner() {
+        return !immediateWinners.isEmpty();
+    }
+
+    /**
+     * @return false if no denomination appears four times, so the game could never end with a winner
+     */
+    public boolean isWinPossible() {
+        return winPossible;
+    }
+}
@@ -0,0 +1,65 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PackAnalysisTest {
+
+    private List<Card> cards(int... faceValues) {
+        List<Card> cards = new ArrayList<>();
+        for (int faceValue : faceValues) {
+            cards.add(new Card(faceValue));
+        }
+        return cards;
+    }
+
+    // Test 1: Is a dealt winning hand found?
+    @Test
+    public void testImmediateWinnerFound() {
+        List<List<Card>> hands = List.of(cards(1, 2, 3, 4), cards(5, 5, 5, 5));
+        PackAnalysis analysis = PackAnalysis.analyse(hands, cards(1, 2, 3, 4, 6, 7, 8, 9));
+
+        assertTrue(analysis.hasImmediateWinner(), "Player 2 should win straight from the deal.");
+        assertEquals(List.of(1), analysis.getImmediateWinners(), "Only player 2 should be an immediate winner.");
+        assertTrue(analysis.isWinPossible(), "A pack with an immediate winner can be won.");
+    }
+
+    // Test 2: Are all immediate winners reported in player order?
+    @Test
+    public void testMultipleImmediateWinners() {
+        List<List<Card>> hands = List.of(cards(2, 2, 2, 2), cards(1, 3, 4, 5), cards(7, 7, 7, 7));
+        PackAnalysis analysis = PackAnalysis.analyse(hands, cards(1, 3, 4, 5, 6, 8, 9, 10, 11, 12, 13, 14));
+
+        assertEquals(List.of(0, 2), analysis.getImmediateWinners(), "Players 1 and 3 should both be immediate winners.");
+    }
+
+    // Test 3: Is a pack where no denomination appears four times flagged?
+    @Test
+    public void testWinImpossible() {
+        List<List<Card>> hands = List.of(cards(1, 2, 3, 4), cards(1, 2, 3, 4));
+        PackAnalysis analysis = PackAnalysis.analyse(hands, cards(1, 2, 3, 4, 5, 6, 7, 8));
+
+        assertFalse(analysis.hasImmediateWinner(), "No hand should win from the deal.");
+        assertFalse(analysis.isWinPossible(), "Three of each denomination at most means nobody can win.");
+    }
+
+    // Test 4: Do cards left in the decks count towards a possible win?
+    @Test
+    public void testWinPossibleFromDeckCards() {
+        List<List<Card>> hands = List.of(cards(1, 2, 3, 4), cards(5, 6, 7, 8));
+        PackAnalysis analysis = PackAnalysis.analyse(hands, cards(9, 9, 9, 9, 10, 11, 12, 13));
+
+        assertFalse(analysis.hasImmediateWinner(), "No hand should win from the deal.");
+        assertTrue(analysis.isWinPossible(), "Four 9s in the decks make a win possible.");
+    }
+
+    // Test 5: Is a winning hand only four cards of one denomination?
+    @Test
+    public void testIsWinningHand() {
+        assertTrue(PackAnalysis.isWinningHand(cards(3, 3, 3, 3)), "Four 3s should be a winning hand.");
+        assertFalse(PackAnalysis.isWinningHand(cards(3, 3, 3, 4)), "Mixed denominations should not win.");
+        assertFalse(PackAnalysis.isWinningHand(cards(3, 3, 3)), "Three cards should not win.");
+        assertFalse(PackAnalysis.isWinningHand(cards(3, 3, 3, 3, 3)), "Five cards should not win.");
+    }
+}
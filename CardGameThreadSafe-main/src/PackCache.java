@@ -0,0 +1,242 @@
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Parsed packs shared by every game in the JVM, so a batch that plays one pack file many times reads and parses it once.
+ * A pack is kept as an immutable array of face values, keyed by the file's path, size and modification time,
+ * so editing the file makes the next game parse it again. Packs are held strongly up to a memory budget, evicting
+ * the least recently used first; an evicted pack is still held softly, and is taken back if the collector
+ * has not needed its memory by the time it is asked for again.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public class PackCache {
+    public static final long DEFAULT_BUDGET_BYTES = 64L * 1024 * 1024;
+    private static final int ENTRY_OVERHEAD_BYTES = 64; // Key, array header and map entry, roughly
+
+    /**
+     * The cache shared by games that do not set their own, with the default budget.
+     */
+    public static final PackCache SHARED = new PackCache(DEFAULT_BUDGET_BYTES);
+
+    private final long budgetBytes;
+    private final LinkedHashMap<Key, Pack> packs = new LinkedHashMap<>(16, 0.75f, true); // Least recently used first
+    private final Map<Key, SoftReference<Pack>> evicted = new HashMap<>();
+    private long weightBytes = 0;
+
+    private long hits = 0;
+    private long softHits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * @param budgetBytes how much memory the strongly held packs may take
+     */
+    public PackCache(long budgetBytes) {
+        if (budgetBytes <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive.");
+        }
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Returns a pack file's cards, parsing the file only if this version of it is not cached.
+     *
+     * @param file a text pack or a BinaryPack
+     * @return the parsed pack
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public Pack load(File file) throws IOException {
+        File canonical = file.getCanonicalFile();
+        Key key = new Key(canonical.getPath(), canonical.length(), canonical.lastModified());
+
+        synchronized (this) {
+            Pack pack = packs.get(key);
+            if (pack != null) {
+                hits++;
+                return pack;
+            }
+            SoftReference<Pack> reference = evicted.remove(key);
+            pack = reference != null ? reference.get() : null;
+            if (pack != null) {
+                softHits++;
+                keep(key, pack);
+                return pack;
+            }
+            misses++;
+        }
+
+        // Parse outside the lock, so games loading other packs are not held up
+        Pack pack = new Pack(faceValues(CardGame.readPack(canonical)));
+        synchronized (this) {
+            Pack raced = packs.get(key);
+            if (raced != null) {
+                return raced; // Another game parsed it first
+            }
+            forget(key.path); // Older versions of the file will not be asked for again
+            keep(key, pack);
+        }
+        return pack;
+    }
+
+    private static int[] faceValues(List<Card> cards) {
+        int[] values = new int[cards.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = cards.get(i).getFaceValue();
+        }
+        return values;
+    }
+
+    // Holds a pack strongly, then evicts the least recently used packs until the budget is met
+    private void keep(Key key, Pack pack) {
+        packs.put(key, pack);
+        weightBytes += pack.getWeightBytes();
+        Iterator<Map.Entry<Key, Pack>> eldest = packs.entrySet().iterator();
+        while (weightBytes > budgetBytes && eldest.hasNext()) {
+            Map.Entry<Key, Pack> entry = eldest.next();
+            eldest.remove();
+            weightBytes -= entry.getValue().getWeightBytes();
+            evicted.put(entry.getKey(), new SoftReference<>(entry.getValue()));
+            evictions++;
+        }
+        evicted.values().removeIf(reference -> reference.get() == null); // Drop packs the collector has taken
+    }
+
+    private void forget(String path) {
+        Iterator<Map.Entry<Key, Pack>> entries = packs.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Key, Pack> entry = entries.next();
+            if (entry.getKey().path.equals(path)) {
+                weightBytes -= entry.getValue().getWeightBytes();
+                entries.remove();
+            }
+        }
+        evicted.keySet().removeIf(key -> key.path.equals(path));
+    }
+
+    /**
+     * Drops every pack, for example after pack files were rewritten within the file system's timestamp resolution.
+     */
+    public synchronized void clear() {
+        packs.clear();
+        evicted.clear();
+        weightBytes = 0;
+    }
+
+    /**
+     * @return the number of packs held strongly
+     */
+    public synchronized int size() {
+        return packs.size();
+    }
+
+    /**
+     * @return the estimated memory taken by the packs held strongly
+     */
+    public synchronized long getWeightBytes() {
+        return weightBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the lookups answered by a pack that had been evicted but not yet collected
+     */
+    public synchronized long getSoftHits() {
+        return softHits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "PackCache[" + packs.size() + " packs, " + weightBytes + " of " + budgetBytes + " bytes, " + hits + " hits, "
+                + softHits + " soft hits, " + misses + " misses, " + evictions + " evictions]";
+    }
+
+    /**
+     * One parsed pack. Immutable, so a single instance is shared by every game that plays it.
+     */
+    public static final class Pack {
+        private final int[] faceValues;
+
+        private Pack(int[] faceValues) {
+            this.faceValues = faceValues;
+        }
+
+        /**
+         * @return the number of cards in the pack
+         */
+        public int size() {
+            return faceValues.length;
+        }
+
+        /**
+         * @return the face value of the card at a position in the pack
+         */
+        public int getFaceValue(int index) {
+            return faceValues[index];
+        }
+
+        /**
+         * Returns a new list of the cards, in pack order, for one game to deal from and consume.
+         */
+        public List<Card> cards() {
+            List<Card> cards = new ArrayList<>(faceValues.length);
+            for (int faceValue : faceValues) {
+                cards.add(Card.valueOf(faceValue));
+            }
+            return cards;
+        }
+
+        long getWeightBytes() {
+            return 4L * faceValues.length + ENTRY_OVERHEAD_BYTES;
+        }
+    }
+
+    // Identifies one version of a pack file
+    private static final class Key {
+        private final String path;
+        private final long size;
+        private final long lastModified;
+
+        Key(String path, long size, long lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return size == key.size && lastModified == key.lastModified && path.equals(key.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, lastModified);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PackCacheTest {
+
+    private final File packA = new File("pack_cache_a.txt");
+    private final File packB = new File("pack_cache_b.txt");
+
+    @AfterEach
+    public void cleanUp() {
+        packA.delete();
+        packB.delete();
+        for (int i = 1; i <= 4; i++) {
+            new File("player" + i + "_output.txt").delete();
+            new File("deck" + i + "_output.txt").delete();
+        }
+    }
+
+    private void writePack(File file, int cardCount, int firstValue) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < cardCount; i++) {
+            lines.add(String.valueOf(firstValue + i));
+        }
+        Files.write(file.toPath(), lines);
+    }
+
+    // Test 1: Is a pack parsed once and then served from the cache?
+    @Test
+    public void testSecondLoadHits() throws IOException {
+        writePack(packA, 32, 1);
+        PackCache cache = new PackCache(PackCache.DEFAULT_BUDGET_BYTES);
+
+        PackCache.Pack first = cache.load(packA);
+        PackCache.Pack second = cache.load(packA);
+
+        assertSame(first, second, "The second load should return the cached pack.");
+        assertEquals(1, cache.getMisses(), "Only the first load should parse the file.");
+        assertEquals(1, cache.getHits(), "The second load should hit.");
+        assertEquals(32, first.size(), "Every card should be parsed.");
+        assertEquals(32, first.getFaceValue(31), "The values should be in pack order.");
+    }
+
+    // Test 2: Does every game get its own list of cards to consume?
+    @Test
+    public void testCardsAreCopiedPerGame() throws IOException {
+        writePack(packA, 8, 1);
+        PackCache.Pack pack = new PackCache(PackCache.DEFAULT_BUDGET_BYTES).load(packA);
+
+        List<Card> dealt = pack.cards();
+        dealt.subList(0, 4).clear(); // As a game dealing from its copy could
+
+        assertEquals(8, pack.cards().size(), "Dealing from one copy should not change the pack.");
+        assertEquals(1, pack.cards().get(0).getFaceValue(), "The next copy should start from the first card again.");
+    }
+
+    // Test 3: Is a changed pack file parsed again?
+    @Test
+    public void testChangedFileReloaded() throws IOException {
+        writePack(packA, 8, 1);
+        PackCache cache = new PackCache(PackCache.DEFAULT_BUDGET_BYTES);
+        cache.load(packA);
+
+        writePack(packA, 12, 1); // A different size, so the change shows even within one timestamp tick
+        PackCache.Pack reloaded = cache.load(packA);
+
+        assertEquals(12, reloaded.size(), "The new version of the file should be parsed.");
+        assertEquals(2, cache.getMisses(), "The changed file should miss.");
+        assertEquals(1, cache.size(), "The old version should be dropped.");
+    }
+
+    // Test 4: Does the cache evict the least recently used pack to stay within its budget?
+    @Test
+    public void testBudgetEviction() throws IOException {
+        writePack(packA, 1000, 1);
+        writePack(packB, 1000, 1);
+        PackCache cache = new PackCache(6000); // Room for one pack of 1000 cards
+
+        PackCache.Pack a = cache.load(packA);
+        cache.load(packB);
+
+        assertEquals(1, cache.size(), "Only one pack should be held strongly.");
+        assertEquals(1, cache.getEvictions(), "The first pack should be evicted.");
+        assertTrue(cache.getWeightBytes() <= 6000, "The strongly held packs should fit the budget.");
+
+        // The evicted pack is still softly reachable, and a is still strongly held here
+        assertSame(a, cache.load(packA), "An evicted pack that was not collected should be taken back.");
+        assertEquals(1, cache.getSoftHits(), "Taking it back should count as a soft hit.");
+    }
+
+    // Test 5: Does a game with a pack cache play from the cached pack?
+    @Test
+    public void testGameUsesPackCache() throws IOException {
+        writePack(packA, 32, 1);
+        PackCache cache = new PackCache(PackCache.DEFAULT_BUDGET_BYTES);
+        try (CardGame game = new CardGame(4, packA.getPath())) {
+            game.setConsoleOutput(false);
+            game.setClock(new SimulatedClock());
+            game.setTurnLimit(40);
+            game.setPackCache(cache);
+
+            assertEquals(GameResult.Outcome.TIMEOUT, game.startGame().getOutcome(), "The first game should play.");
+            assertEquals(GameResult.Outcome.TIMEOUT, game.playAgain().getOutcome(), "The replay should play.");
+        }
+        assertEquals(1, cache.getMisses(), "The pack file should be parsed once.");
+        assertEquals(1, cache.getHits(), "The replay should take the cached pack.");
+    }
+}
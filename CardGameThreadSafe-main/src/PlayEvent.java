@@ -0,0 +1,113 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One piece of game activity, published to the subscribers of a game's PlayEventPublisher.
+ * Player events carry the player's index and the card or hand involved; game events carry the result.
+ * Instances are immutable, so one event can be handed to every subscriber.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public final class PlayEvent {
+
+    /**
+     * What happened.
+     */
+    public enum Kind {
+        GAME_STARTED, // The pack has been dealt
+        DRAW,         // A player drew a card from its deck
+        DISCARD,      // A player discarded a card to the next deck
+        HAND,         // A player's hand at the end of a turn
+        WIN,          // A player won, during play or straight from the deal
+        GAME_ENDED    // The game is over; carries its result
+    }
+
+    private final Kind kind;
+    private final int player;
+    private final int card;
+    private final int[] hand;
+    private final GameResult result;
+
+    private PlayEvent(Kind kind, int player, int card, int[] hand, GameResult result) {
+        this.kind = kind;
+        this.player = player;
+        this.card = card;
+        this.hand = hand;
+        this.result = result;
+    }
+
+    static PlayEvent gameStarted() {
+        return new PlayEvent(Kind.GAME_STARTED, -1, 0, null, null);
+    }
+
+    static PlayEvent draw(int player, Card card) {
+        return new PlayEvent(Kind.DRAW, player, card.getFaceValue(), null, null);
+    }
+
+    static PlayEvent discard(int player, Card card) {
+        return new PlayEvent(Kind.DISCARD, player, card.getFaceValue(), null, null);
+    }
+
+    static PlayEvent hand(int player, List<Card> hand) {
+        return new PlayEvent(Kind.HAND, player, 0, faceValues(hand), null);
+    }
+
+    static PlayEvent win(int player, List<Card> hand) {
+        return new PlayEvent(Kind.WIN, player, 0, faceValues(hand), null);
+    }
+
+    static PlayEvent gameEnded(GameResult result) {
+        return new PlayEvent(Kind.GAME_ENDED, result.getWinner(), 0, null, result);
+    }
+
+    private static int[] faceValues(List<Card> hand) {
+        int[] values = new int[hand.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = hand.get(i).getFaceValue();
+        }
+        return values;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the index of the player involved, or -1 for a game event without a winner
+     */
+    public int getPlayer() {
+        return player;
+    }
+
+    /**
+     * @return the face value drawn or discarded, or 0 for other kinds
+     */
+    public int getCard() {
+        return card;
+    }
+
+    /**
+     * @return the face values of the hand for HAND and WIN events, or null for other kinds
+     */
+    public int[] getHand() {
+        return hand == null ? null : hand.clone();
+    }
+
+    /**
+     * @return the result of the game for GAME_ENDED events, or null for other kinds
+     */
+    public GameResult getResult() {
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return switch (kind) {
+            case DRAW, DISCARD -> kind + " player " + (player + 1) + ": " + card;
+            case HAND, WIN -> kind + " player " + (player + 1) + ": " + Arrays.toString(hand);
+            case GAME_ENDED -> kind + ": " + result;
+            default -> kind.toString();
+        };
+    }
+}
@@ -0,0 +1,270 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes a game's PlayEvents to any number of Flow subscribers.
+ * Each subscriber has its own bounded buffer and overflow policy, and is fed on the executor
+ * as fast as it requests events, so the thread publishing an event only copies it into the buffers.
+ * Players check hasSubscribers before building an event, so a game nobody watches does no extra work.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public class PlayEventPublisher implements Flow.Publisher<PlayEvent> {
+
+    /**
+     * What happens to an event published while a subscriber's buffer is full.
+     */
+    public enum OverflowPolicy {
+        BLOCK,       // The publishing thread waits for room, so no event is lost but a slow subscriber slows the game
+        DROP_OLDEST, // The oldest buffered event is dropped to make room
+        SAMPLE       // The newest event replaces the last buffered one, so the subscriber sees the latest state
+    }
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final Executor executor;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean closed = false;
+
+    public PlayEventPublisher() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor runs the delivery of events to subscribers
+     */
+    public PlayEventPublisher(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    /**
+     * Subscribes with a buffer of DEFAULT_CAPACITY events that drops the oldest when full.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super PlayEvent> subscriber) {
+        subscribe(subscriber, DEFAULT_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Subscribes with a buffer of the given size and overflow policy.
+     *
+     * @param subscriber the subscriber
+     * @param capacity how many undelivered events to buffer for it
+     * @param policy what to do with an event published while the buffer is full
+     */
+    public void subscribe(Flow.Subscriber<? super PlayEvent> subscriber, int capacity, OverflowPolicy policy) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        Objects.requireNonNull(policy, "policy");
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be positive.");
+        }
+
+        Subscription subscription = new Subscription(subscriber, capacity, policy);
+        subscriber.onSubscribe(subscription);
+        subscriptions.add(subscription);
+        if (closed) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * @return true if anyone is subscribed, so events are worth building
+     */
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * @return the number of current subscribers
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * @param subscriber a current subscriber
+     * @return the number of events its overflow policy has dropped, or 0 if it is not subscribed
+     */
+    public long getDropped(Flow.Subscriber<? super PlayEvent> subscriber) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.subscriber == subscriber) {
+                return subscription.getDropped();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Hands an event to every subscriber. Only blocks for subscribers whose policy is BLOCK.
+     */
+    void publish(PlayEvent event) {
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    /**
+     * Completes every subscriber once it has received its buffered events. Later subscribers complete at once.
+     */
+    public void close() {
+        closed = true;
+        for (Subscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    private final class Subscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super PlayEvent> subscriber;
+        private final OverflowPolicy policy;
+        private final PlayEvent[] buffer; // Ring of undelivered events, guarded by this
+        private int head = 0;
+        private int count = 0;
+        private long demand = 0;
+        private long dropped = 0;
+        private boolean completing = false;
+        private boolean cancelled = false;
+        private Throwable error = null;
+        private final AtomicInteger pendingDrains = new AtomicInteger(0); // Serialises delivery
+
+        Subscription(Flow.Subscriber<? super PlayEvent> subscriber, int capacity, OverflowPolicy policy) {
+            this.subscriber = subscriber;
+            this.policy = policy;
+            this.buffer = new PlayEvent[capacity];
+        }
+
+        void offer(PlayEvent event) {
+            synchronized (this) {
+                while (count == buffer.length && !cancelled) {
+                    switch (policy) {
+                        case BLOCK -> {
+                            try {
+                                wait();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt(); // The game is ending: give up on this event
+                                dropped++;
+                                return;
+                            }
+                        }
+                        case DROP_OLDEST -> {
+                            buffer[head] = null;
+                            head = (head + 1) % buffer.length;
+                            count--;
+                            dropped++;
+                        }
+                        case SAMPLE -> {
+                            buffer[(head + count - 1) % buffer.length] = event;
+                            dropped++;
+                            return; // The subscriber is behind, so a drain is already pending
+                        }
+                    }
+                }
+                if (cancelled || completing) {
+                    return;
+                }
+                buffer[(head + count) % buffer.length] = event;
+                count++;
+            }
+            drain();
+        }
+
+        void complete() {
+            synchronized (this) {
+                completing = true;
+            }
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (n <= 0) {
+                    error = new IllegalArgumentException("Subscribers must request a positive number of events, not " + n + ".");
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n; // Saturate instead of overflowing
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                Arrays.fill(buffer, null);
+                count = 0;
+                notifyAll(); // Release publishers blocked on this subscriber
+            }
+            subscriptions.remove(this);
+        }
+
+        synchronized long getDropped() {
+            return dropped;
+        }
+
+        // Delivers what the subscriber has asked for on the executor, one drain at a time
+        private void drain() {
+            if (pendingDrains.getAndIncrement() == 0) {
+                executor.execute(this::deliver);
+            }
+        }
+
+        private void deliver() {
+            int missed = 1;
+            do {
+                while (true) {
+                    PlayEvent event;
+                    Throwable failure = null;
+                    boolean finished = false;
+                    synchronized (this) {
+                        if (cancelled) {
+                            return;
+                        }
+                        if (error != null) {
+                            failure = error;
+                            event = null;
+                        } else if (count > 0 && demand > 0) {
+                            event = buffer[head];
+                            buffer[head] = null;
+                            head = (head + 1) % buffer.length;
+                            count--;
+                            demand--;
+                            notifyAll(); // Room for a blocked publisher
+                        } else {
+                            event = null;
+                            finished = completing && count == 0;
+                        }
+                    }
+
+                    if (failure != null) {
+                        cancel();
+                        subscriber.onError(failure);
+                        return;
+                    }
+                    if (finished) {
+                        cancel();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    if (event == null) {
+                        break; // Nothing to deliver until more demand or events arrive
+                    }
+                    try {
+                        subscriber.onNext(event);
+                    } catch (RuntimeException e) {
+                        cancel();
+                        subscriber.onError(e);
+                        return;
+                    }
+                }
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
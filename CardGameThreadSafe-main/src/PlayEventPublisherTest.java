@@ -0,0 +1,224 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+public class PlayEventPublisherTest {
+
+    private static final String TEMP_PACK_FILE = "events_flow_pack.txt";
+
+    @AfterEach
+    public void cleanUp() {
+        new File(TEMP_PACK_FILE).delete();
+        for (int i = 1; i <= 4; i++) {
+            new File("player" + i + "_output.txt").delete();
+            new File("deck" + i + "_output.txt").delete();
+        }
+    }
+
+    // Subscriber that records what it receives and asks for a set number of events up front
+    private static class Collector implements Flow.Subscriber<PlayEvent> {
+        private final long initialRequest;
+        final List<PlayEvent> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+
+        Collector(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(PlayEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+
+        List<Integer> cards() {
+            List<Integer> cards = new ArrayList<>();
+            for (PlayEvent event : events) {
+                cards.add(event.getCard());
+            }
+            return cards;
+        }
+    }
+
+    private void publishDraws(PlayEventPublisher publisher, int from, int to) {
+        for (int i = from; i <= to; i++) {
+            publisher.publish(PlayEvent.draw(0, Card.valueOf(i)));
+        }
+    }
+
+    // Test 1: Does every subscriber receive every event in order?
+    @Test
+    public void testMultipleSubscribersInOrder() {
+        PlayEventPublisher publisher = new PlayEventPublisher(Runnable::run);
+        Collector first = new Collector(Long.MAX_VALUE);
+        Collector second = new Collector(Long.MAX_VALUE);
+        assertFalse(publisher.hasSubscribers(), "A new publisher should have no subscribers.");
+        publisher.subscribe(first);
+        publisher.subscribe(second);
+
+        publishDraws(publisher, 1, 5);
+
+        assertEquals(2, publisher.getSubscriberCount(), "Both subscribers should be counted.");
+        assertEquals(List.of(1, 2, 3, 4, 5), first.cards(), "The first subscriber should get every event in order.");
+        assertEquals(List.of(1, 2, 3, 4, 5), second.cards(), "The second subscriber should get every event in order.");
+    }
+
+    // Test 2: Are events only delivered as the subscriber requests them?
+    @Test
+    public void testDeliveryFollowsDemand() {
+        PlayEventPublisher publisher = new PlayEventPublisher(Runnable::run);
+        Collector collector = new Collector(2);
+        publisher.subscribe(collector, 16, PlayEventPublisher.OverflowPolicy.BLOCK);
+
+        publishDraws(publisher, 1, 5);
+        assertEquals(List.of(1, 2), collector.cards(), "Only the two requested events should be delivered.");
+
+        collector.subscription.request(10);
+        assertEquals(List.of(1, 2, 3, 4, 5), collector.cards(), "The buffered events should follow the new demand.");
+    }
+
+    // Test 3: Does DROP_OLDEST keep the newest events when the buffer is full?
+    @Test
+    public void testDropOldest() {
+        PlayEventPublisher publisher = new PlayEventPublisher(Runnable::run);
+        Collector collector = new Collector(0);
+        publisher.subscribe(collector, 4, PlayEventPublisher.OverflowPolicy.DROP_OLDEST);
+
+        publishDraws(publisher, 1, 10);
+        assertEquals(6, publisher.getDropped(collector), "Six events should have been dropped.");
+
+        collector.subscription.request(Long.MAX_VALUE);
+        assertEquals(List.of(7, 8, 9, 10), collector.cards(), "The four newest events should be kept.");
+    }
+
+    // Test 4: Does SAMPLE keep the first events and the latest one when the buffer is full?
+    @Test
+    public void testSample() {
+        PlayEventPublisher publisher = new PlayEventPublisher(Runnable::run);
+        Collector collector = new Collector(0);
+        publisher.subscribe(collector, 4, PlayEventPublisher.OverflowPolicy.SAMPLE);
+
+        publishDraws(publisher, 1, 10);
+        collector.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(List.of(1, 2, 3, 10), collector.cards(), "The last slot should hold the latest event.");
+    }
+
+    // Test 5: Does BLOCK make the publisher wait for room without losing events?
+    @Test
+    public void testBlockWaitsForRoom() throws InterruptedException {
+        PlayEventPublisher publisher = new PlayEventPublisher(Runnable::run);
+        Collector collector = new Collector(0);
+        publisher.subscribe(collector, 2, PlayEventPublisher.OverflowPolicy.BLOCK);
+
+        Thread player = new Thread(() -> publishDraws(publisher, 1, 5));
+        player.start();
+        player.join(200);
+        assertTrue(player.isAlive(), "The publisher should wait while the buffer is full.");
+
+        collector.subscription.request(Long.MAX_VALUE);
+        player.join(5000);
+        assertFalse(player.isAlive(), "The publisher should continue once the subscriber makes room.");
+        assertEquals(List.of(1, 2, 3, 4, 5), collector.cards(), "No event should be lost.");
+        assertEquals(0, publisher.getDropped(collector), "Blocking should drop nothing.");
+    }
+
+    // Test 6: Does closing complete subscribers after their buffered events?
+    @Test
+    public void testCloseCompletesAfterBufferedEvents() {
+        PlayEventPublisher publisher = new PlayEventPublisher(Runnable::run);
+        Collector collector = new Collector(0);
+        publisher.subscribe(collector);
+        publishDraws(publisher, 1, 3);
+
+        publisher.close();
+        assertEquals(1, collector.done.getCount(), "Completion should wait for the buffered events.");
+
+        collector.subscription.request(Long.MAX_VALUE);
+        assertEquals(List.of(1, 2, 3), collector.cards(), "The buffered events should be delivered first.");
+        assertEquals(0, collector.done.getCount(), "The subscriber should then be completed.");
+        assertFalse(publisher.hasSubscribers(), "A completed subscriber should be removed.");
+
+        Collector late = new Collector(1);
+        publisher.subscribe(late);
+        assertEquals(0, late.done.getCount(), "Subscribing to a closed publisher should complete at once.");
+    }
+
+    // Test 7: Is a request for no events an error, and does cancelling stop delivery?
+    @Test
+    public void testInvalidRequestAndCancel() {
+        PlayEventPublisher publisher = new PlayEventPublisher(Runnable::run);
+        Collector invalid = new Collector(0);
+        Collector cancelled = new Collector(Long.MAX_VALUE);
+        publisher.subscribe(invalid);
+        publisher.subscribe(cancelled);
+
+        invalid.subscription.request(0);
+        assertTrue(invalid.error instanceof IllegalArgumentException, "Requesting zero events should be an error.");
+
+        cancelled.subscription.cancel();
+        publishDraws(publisher, 1, 3);
+        assertTrue(cancelled.events.isEmpty(), "A cancelled subscriber should receive nothing.");
+        assertFalse(publisher.hasSubscribers(), "Both subscribers should have been removed.");
+    }
+
+    // Test 8: Does a game publish its draws, discards, hands and result?
+    @Test
+    public void testGamePublishesEvents() throws IOException, InterruptedException {
+        List<String> cardValues = new ArrayList<>();
+        for (int i = 1; i <= 32; i++) {
+            cardValues.add(String.valueOf(i));
+        }
+        Files.write(new File(TEMP_PACK_FILE).toPath(), cardValues);
+
+        Collector collector = new Collector(Long.MAX_VALUE);
+        try (CardGame game = new CardGame(4, TEMP_PACK_FILE)) {
+            game.getPlayEvents().subscribe(collector, 1024, PlayEventPublisher.OverflowPolicy.BLOCK);
+            game.setClock(new SimulatedClock());
+            game.setConsoleOutput(false);
+            game.setTurnLimit(8);
+            game.startGame();
+        }
+        assertTrue(collector.done.await(5, TimeUnit.SECONDS), "Closing the game should complete the subscriber.");
+
+        List<PlayEvent> events = collector.events;
+        assertEquals(PlayEvent.Kind.GAME_STARTED, events.get(0).getKind(), "The first event should start the game.");
+        PlayEvent last = events.get(events.size() - 1);
+        assertEquals(PlayEvent.Kind.GAME_ENDED, last.getKind(), "The last event should end the game.");
+        assertEquals(GameResult.Outcome.TIMEOUT, last.getResult().getOutcome(), "The result should be a draw.");
+        assertEquals(8, events.stream().filter(e -> e.getKind() == PlayEvent.Kind.HAND).count(),
+                "Each of the 8 turns should publish the player's hand.");
+        assertEquals(8, events.stream().filter(e -> e.getKind() == PlayEvent.Kind.DISCARD).count(),
+                "Each of the 8 turns should publish a discard.");
+    }
+}
@@ -1,8 +1,9 @@
 import java.util.List;
 //import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 //import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.random.RandomGenerator;
 
 public class Player implements Runnable {
     private final int playerID;
@@ -11,8 +12,27 @@ public class Player implements Runnable {
     private final CardDeck nextDeck;
     private final CardGame game;
     private final AtomicBoolean gameWon;
-    private final Random random = new Random();
     private final int preferredDenomination; // Player's preferred denomination
+    private DiscardStrategy discardStrategy = DiscardStrategies.RANDOM;
+    private RandomGenerator random = null; // Null to use the thread's own random source
+    private long cardsDrawn = 0;     // Transfers this game, written only by the thread playing this player
+    private long cardsDiscarded = 0;
+
+    // Log text that never changes for this player, built once so a turn only appends card values
+    private final String drawsPrefix;
+    private final String drawsSuffix;
+    private final String discardsPrefix;
+    private final String discardsSuffix;
+    private final String currentHandPrefix;
+    private final String winsPrefix;
+    private final String finalHandPrefix;
+    private final String noCardsMessage;
+    private final String skipsDiscardMessage;
+    private final String interruptedMessage;
+    private final String exitsMessage;
+    private final String exitsDrawMessage;
+    private final StringBuilder line = new StringBuilder(64); // Reused for every log line
+    private final GameEvents.Turn turnEvent = new GameEvents.Turn(); // Reused for every turn, so turns allocate no events
 
     public Player(int playerID, List<Card> hand, CardDeck ownDeck,
               CardDeck nextDeck, CardGame game, AtomicBoolean gameWon) {
@@ -23,6 +43,79 @@ public class Player implements Runnable {
         this.game = game;
         this.gameWon = gameWon;
         this.preferredDenomination = playerID + 1; // Preferred denomination is index + 1
+
+        String name = "Player " + (playerID + 1);
+        this.drawsPrefix = name + " draws ";
+        this.drawsSuffix = " from Deck " + (playerID + 1);
+        this.discardsPrefix = name + " discards ";
+        this.discardsSuffix = " to Deck " + ((playerID + 1) % game.n + 1);
+        this.currentHandPrefix = "Current hand for player " + (playerID + 1) + ": ";
+        this.winsPrefix = name + " wins with hand: ";
+        this.finalHandPrefix = "Final hand of player " + (playerID + 1) + ": ";
+        this.noCardsMessage = name + " has no cards to discard.";
+        this.skipsDiscardMessage = name + " has only preferred cards and skips discard.";
+        this.interruptedMessage = name + " was interrupted.";
+        this.exitsMessage = name + " exits after the game ends.";
+        this.exitsDrawMessage = name + " exits after the game ends in a draw.";
+    }
+
+    /**
+     * Changes how this player picks its discard. Must not be called while the player is running.
+     */
+    public void setDiscardStrategy(DiscardStrategy discardStrategy) {
+        this.discardStrategy = discardStrategy;
+    }
+
+    /**
+     * Gives this player its own random source, for seeded games. Must not be called while the player is running.
+     *
+     * @param random the random source, or null to use the thread's own
+     */
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Zeroes the draw and discard counts for a new game. Must not be called while the player is running.
+     */
+    void resetCounts() {
+        cardsDrawn = 0;
+        cardsDiscarded = 0;
+    }
+
+    /**
+     * @return the cards this player has drawn this game; only reliable from its own thread or while it is stopped
+     */
+    long getCardsDrawn() {
+        return cardsDrawn;
+    }
+
+    /**
+     * @return the cards this player has discarded this game; only reliable from its own thread or while it is stopped
+     */
+    long getCardsDiscarded() {
+        return cardsDiscarded;
+    }
+
+    // Writes the reused line builder to the console and the player's file
+    private void logLine() {
+        game.logLine(playerID, line);
+    }
+
+    private void logLine(String message) {
+        game.logLine(playerID, message);
+    }
+
+    // Appends the hand in the same form as List.toString, without creating strings
+    private void appendHand() {
+        line.append('[');
+        for (int i = 0; i < hand.size(); i++) {
+            if (i > 0) {
+                line.append(", ");
+            }
+            line.append(hand.get(i).getFaceValue());
+        }
+        line.append(']');
     }
 
     /**
@@ -32,43 +125,49 @@ public class Player implements Runnable {
         Card drawnCard = ownDeck.drawCard();
         if (drawnCard != null) {
             hand.add(drawnCard);
-            String message = "Player " + (playerID + 1) + " draws " + drawnCard + " from Deck " + (playerID + 1);
-            System.out.println(message);
-            game.writePlayerFile(playerID, message);
+            cardsDrawn++;
+            line.setLength(0);
+            line.append(drawsPrefix).append(drawnCard.getFaceValue()).append(drawsSuffix);
+            logLine();
+            if (game.isPublishing()) {
+                game.publish(PlayEvent.draw(playerID, drawnCard));
+            }
         }
         return drawnCard;
     }
 
     /**
      * Discards a card (if available) that is not the preferred card and logs it.
+     * The discard strategy picks the card.
+     *
+     * @return the discarded card, or null if the player kept every card
      */
-    void discardCard() {
+    Card discardCard() {
         if (hand.isEmpty()) {
-            String message = "Player " + (playerID + 1) + " has no cards to discard.";
-            System.out.println(message);
-            game.writePlayerFile(playerID, message);
-            return;
+            logLine(noCardsMessage);
+            return null;
         }
-    
-        // Filter hand to find cards that are NOT the preferred denomination
-        List<Card> nonPreferredCards = hand.stream()
-                                            .filter(card -> card.getFaceValue() != preferredDenomination)
-                                            .toList();
-    
-        if (!nonPreferredCards.isEmpty()) {
-            Card discardedCard = nonPreferredCards.get(random.nextInt(nonPreferredCards.size())); // Select random card
-            hand.remove(discardedCard); // Remove card from hand
+
+        // Let the strategy pick a card that is NOT the preferred denomination
+        int discardIndex = discardStrategy.chooseDiscard(hand, preferredDenomination,
+                random != null ? random : ThreadLocalRandom.current());
+
+        if (discardIndex >= 0) {
+            Card discardedCard = hand.remove(discardIndex); // Remove card from hand
             nextDeck.offer(discardedCard); // Add card to next player's deck
-    
-            String message = "Player " + (playerID + 1) + " discards " + discardedCard + " to Deck " + ((playerID + 1) % game.n + 1);
-            System.out.println(message);
-            game.writePlayerFile(playerID, message);
-        } else {
-            // No available card to discard, skip discard
-            String message = "Player " + (playerID + 1) + " has only preferred cards and skips discard.";
-            System.out.println(message);
-            game.writePlayerFile(playerID, message);
+            cardsDiscarded++;
+
+            line.setLength(0);
+            line.append(discardsPrefix).append(discardedCard.getFaceValue()).append(discardsSuffix);
+            logLine();
+            if (game.isPublishing()) {
+                game.publish(PlayEvent.discard(playerID, discardedCard));
+            }
+            return discardedCard;
         }
+        // No available card to discard, skip discard
+        logLine(skipsDiscardMessage);
+        return null;
     }
     
 
@@ -76,49 +175,95 @@ public class Player implements Runnable {
      * Checks if the player has won and logs it if true.
      */
     boolean winner() {
-        boolean hasWon = hand.size() == 4 && hand.stream().map(Card::getFaceValue).distinct().count() == 1;
+        boolean hasWon = PackAnalysis.isWinningHand(hand);
         if (hasWon) {
-            String message = "Player " + (playerID + 1) + " wins with hand: " + hand;
-            System.out.println(message);
-            game.writePlayerFile(playerID, message);
+            line.setLength(0);
+            line.append(winsPrefix);
+            appendHand();
+            logLine();
+            if (game.isPublishing()) {
+                game.publish(PlayEvent.win(playerID, hand));
+            }
             gameWon.set(true);
+            game.declareWinner(playerID); // Set after gameWon, so the game thread sees the win when woken
         }
         return hasWon;
     }
 
     /**
      * Executes the player's turn, drawing, discarding, and checking for a win.
+     * Called by run, or by the game itself when the players take turns in order on one thread.
      */
-    private void playTurn() {
-        drawCard();
-        discardCard();
-        game.logCurrentHand(playerID, hand); // Log current hand state
-        winner();
+    void playTurn() {
+        GameEvents.Turn event = turnEvent; // Only one thread plays a player's turns at a time
+        event.begin();
+        Card drawn = drawCard();
+        Card discarded = discardCard();
+        line.setLength(0); // Log current hand state
+        line.append(currentHandPrefix);
+        appendHand();
+        logLine();
+        if (game.isPublishing()) {
+            game.publish(PlayEvent.hand(playerID, hand));
+        }
+        boolean won = winner();
+        game.turnPlayed(playerID, drawn == null);
+        event.end();
+        if (event.shouldCommit()) {
+            event.player = playerID + 1;
+            event.drawn = drawn != null ? drawn.getFaceValue() : 0;
+            event.discarded = discarded != null ? discarded.getFaceValue() : 0;
+            event.won = won;
+            event.commit();
+        }
     }
 
     @Override
     public void run() {
+        game.playerStarted();
+        try {
+            playUntilOver();
+        } finally {
+            game.playerStopped();
+        }
+        // The other players are interrupted when the game ends; the flag is held back while the last lines are
+        // logged, so interruptible file writes still complete, and restored for whoever runs the thread
+        boolean interrupted = Thread.interrupted();
+        try {
+            finish();
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void playUntilOver() {
         while (!gameWon.get() && !Thread.currentThread().isInterrupted()) {
             try {
+                if (!game.startTurn()) {
+                    break; // Turn budget used up or time limit reached
+                }
                 playTurn();
-                Thread.sleep(100); // Simulate gameplay pace
+                game.pace(); // Simulate gameplay pace
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-                String message = "Player " + (playerID + 1) + " was interrupted.";
-                System.out.println(message);
-                game.writePlayerFile(playerID, message);
+                logLine(interruptedMessage);
             }
         }
+    }
 
-        // Final logging when the game ends
-        if (gameWon.get()) {
-            String message = "Player " + (playerID + 1) + " exits after the game ends.";
-            System.out.println(message);
-            game.writePlayerFile(playerID, message);
+    /**
+     * Logs the player's exit and final hand, if the game ended with a win or a draw.
+     */
+    void finish() {
+        if (gameWon.get() || game.isTimedOut()) {
+            logLine(gameWon.get() ? exitsMessage : exitsDrawMessage);
 
-            String finalHandMessage = "Final hand of player " + (playerID +1) + ": " + hand;
-            System.out.println(finalHandMessage);
-            game.writePlayerFile(playerID, finalHandMessage);
+            line.setLength(0);
+            line.append(finalHandPrefix);
+            appendHand();
+            logLine();
         }
     }
 }
@@ -0,0 +1,24 @@
+/**
+ * Thrown by CardGame.startGame when a player failed with an unexpected exception.
+ * The game is stopped as soon as the failure happens, its files are closed, and the player's exception is the cause.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public class PlayerFailureException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int player;
+
+    public PlayerFailureException(int player, Throwable cause) {
+        super("Player " + (player + 1) + " failed: " + cause, cause);
+        this.player = player;
+    }
+
+    /**
+     * @return the index of the player that failed
+     */
+    public int getPlayer() {
+        return player;
+    }
+}
@@ -0,0 +1,115 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the players of one game as a group that starts, stops and fails together, in the manner of
+ * StructuredTaskScope (still a preview API in Java 21): every player is forked on its own thread,
+ * a player that throws reports its exception and cancels the others at once, and the scope is not
+ * closed until every thread has finished or the shutdown timeout has passed.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+class PlayerScope implements AutoCloseable {
+
+    /**
+     * Told about the first exception thrown by a player.
+     */
+    interface FailureHandler {
+        void playerFailed(int playerIndex, Throwable error);
+    }
+
+    private final FailureHandler failureHandler;
+    private final long shutdownTimeoutMillis;
+    private final List<Thread> threads = new ArrayList<>(); // Guarded by this
+    private boolean shutdown = false; // Guarded by this
+
+    /**
+     * @param failureHandler told about the first player to throw
+     * @param shutdownTimeoutMillis how long close waits for the players to finish
+     */
+    PlayerScope(FailureHandler failureHandler, long shutdownTimeoutMillis) {
+        this.failureHandler = failureHandler;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    /**
+     * Starts a player on a new thread of this scope.
+     */
+    synchronized void fork(int playerIndex, Runnable player) {
+        Thread thread = new Thread(() -> {
+            try {
+                player.run();
+            } catch (RuntimeException | Error e) {
+                shutdown(); // Cancel the other players before anyone waits on this one
+                failureHandler.playerFailed(playerIndex, e);
+            }
+        }, "card-game-player-" + (playerIndex + 1));
+        thread.setDaemon(true); // A player that ignores cancellation must not keep the JVM alive
+        threads.add(thread);
+        thread.start();
+        if (shutdown) {
+            thread.interrupt(); // The game ended while the players were being forked
+        }
+    }
+
+    /**
+     * Cancels every player by interrupting its thread, except the calling thread, so a player ending the game
+     * can finish its own turn. Only the first call has any effect.
+     */
+    synchronized void shutdown() {
+        if (!shutdown) {
+            shutdown = true;
+            for (Thread thread : threads) {
+                if (thread != Thread.currentThread()) {
+                    thread.interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for every player thread to finish, for at most the given time.
+     *
+     * @return true if every thread finished in time
+     */
+    boolean join(long timeoutMillis) {
+        List<Thread> forked;
+        synchronized (this) {
+            forked = new ArrayList<>(threads);
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        boolean interrupted = false;
+        try {
+            for (Thread thread : forked) {
+                while (thread.isAlive()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    try {
+                        thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
+                    } catch (InterruptedException e) {
+                        interrupted = true; // Keep waiting: the players must be stopped before the files are closed
+                    }
+                }
+            }
+            return true;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Cancels any players still running and waits for them, for at most the shutdown timeout, so no player
+     * is still logging when the game closes its files. Returns at once if the players were already joined.
+     */
+    @Override
+    public void close() {
+        shutdown();
+        join(shutdownTimeoutMillis);
+    }
+}
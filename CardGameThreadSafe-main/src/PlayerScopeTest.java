@@ -0,0 +1,111 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class PlayerScopeTest {
+
+    // Test 1: Does a failing player cancel its siblings and report its exception?
+    @Test
+    public void testFailureCancelsSiblings() throws InterruptedException {
+        AtomicReference<Throwable> reported = new AtomicReference<>();
+        AtomicInteger failedPlayer = new AtomicInteger(-1);
+        AtomicBoolean siblingInterrupted = new AtomicBoolean(false);
+        CountDownLatch siblingWaiting = new CountDownLatch(1);
+
+        try (PlayerScope scope = new PlayerScope((player, error) -> {
+            failedPlayer.set(player);
+            reported.set(error);
+        }, 5000)) {
+            scope.fork(0, () -> {
+                siblingWaiting.countDown();
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    siblingInterrupted.set(true);
+                }
+            });
+            assertTrue(siblingWaiting.await(5, TimeUnit.SECONDS), "The sibling should start.");
+            scope.fork(1, () -> {
+                throw new IllegalStateException("broken strategy");
+            });
+
+            assertTrue(scope.join(5000), "Both players should stop well within the timeout.");
+        }
+        assertEquals(1, failedPlayer.get(), "The failing player should be reported.");
+        assertEquals("broken strategy", reported.get().getMessage(), "Its exception should be reported.");
+        assertTrue(siblingInterrupted.get(), "The sibling should have been cancelled.");
+    }
+
+    // Test 2: Does join give up on a player that ignores cancellation?
+    @Test
+    public void testJoinIsBounded() {
+        AtomicBoolean release = new AtomicBoolean(false);
+        try (PlayerScope scope = new PlayerScope((player, error) -> { }, 100)) {
+            scope.fork(0, () -> {
+                while (!release.get()) {
+                    Thread.yield(); // Ignores interrupts
+                }
+            });
+            scope.shutdown();
+
+            long start = System.nanoTime();
+            assertFalse(scope.join(100), "The stuck player should not be waited for past the timeout.");
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "Join should return near its timeout.");
+        } finally {
+            release.set(true);
+        }
+    }
+
+    // Test 3: Is the player that shuts the scope down left to finish its own turn?
+    @Test
+    public void testShutdownSparesCaller() throws InterruptedException {
+        AtomicBoolean callerInterrupted = new AtomicBoolean(true);
+        AtomicReference<PlayerScope> holder = new AtomicReference<>();
+        CountDownLatch forked = new CountDownLatch(1);
+
+        try (PlayerScope scope = new PlayerScope((player, error) -> { }, 5000)) {
+            holder.set(scope);
+            scope.fork(0, () -> {
+                try {
+                    forked.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                holder.get().shutdown(); // As a winning player does
+                callerInterrupted.set(Thread.currentThread().isInterrupted());
+            });
+            forked.countDown();
+            assertTrue(scope.join(5000), "The player should finish.");
+        }
+        assertFalse(callerInterrupted.get(), "The calling player should not be interrupted.");
+    }
+
+    // Test 4: Does closing the scope wait for players still finishing, as when the game is left by an exception?
+    @Test
+    public void testCloseWaitsForPlayers() throws InterruptedException {
+        AtomicBoolean finished = new AtomicBoolean(false);
+        CountDownLatch started = new CountDownLatch(1);
+
+        try (PlayerScope scope = new PlayerScope((player, error) -> { }, 5000)) {
+            scope.fork(0, () -> {
+                started.countDown();
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+                    while (System.nanoTime() < end) {
+                        Thread.yield(); // Logs its final hand after being cancelled
+                    }
+                    finished.set(true);
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS), "The player should start.");
+        }
+        assertTrue(finished.get(), "Closing the scope should wait for the player to finish.");
+    }
+}
@@ -240,13 +240,34 @@ public class PlayerTest {
         assertTrue(gameWon.get(), "Game state should reflect a win.");
     }
 
+    // Test 13: Does the player use its discard strategy?
+    @Test
+    public void testDiscardStrategyUsed() {
+        playerHand.add(new Card(1));
+        playerHand.add(new Card(6));
+        playerHand.add(new Card(7));
+        playerHand.add(new Card(8));
+        player.setDiscardStrategy(DiscardStrategies.OLDEST);
 
+        player.discardCard();
+        assertEquals(6, nextDeck.drawCard().getFaceValue(), "The oldest non-preferred card should be discarded.");
+        assertEquals(3, playerHand.size(), "Player hand should contain 3 cards after discarding.");
+    }
 
+    // Test 14: Does the player pace its turns on the game's clock?
+    @Test
+    public void testPacedOnGameClock() {
+        SimulatedClock clock = new SimulatedClock();
+        game.setClock(clock);
+        game.setPace(250);
+        game.setTurnLimit(5);
+        gameWon.set(false);
 
+        long start = System.nanoTime();
+        player.run(); // Returns once the turn budget runs out
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
 
+        assertEquals(5 * 250_000_000L, clock.nanoTime(), "Each of the 5 turns should be followed by one 250 ms pause.");
+        assertTrue(elapsedMillis < 1000, "Pausing on a simulated clock should not wait in real time.");
+    }
 }
-
-
-
-
-
@@ -0,0 +1,104 @@
+import java.util.List;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Keeps one thread per player alive between games, so a pooled CardGame does not create threads for every game.
+ * Each game takes two phases of a Phaser shared by the workers and the game thread:
+ * one to start every player together and one to wait until they have all finished.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+class PlayerThreadPool {
+    private final List<? extends Runnable> players;
+    private final PlayerScope.FailureHandler failureHandler;
+    private final Thread[] threads;
+    private final Phaser phaser;
+    private volatile boolean closed = false;
+
+    PlayerThreadPool(List<? extends Runnable> players, PlayerScope.FailureHandler failureHandler) {
+        this.players = players;
+        this.failureHandler = failureHandler;
+        this.threads = new Thread[players.size()];
+        this.phaser = new Phaser(players.size() + 1); // Every worker plus the game thread
+
+        for (int i = 0; i < threads.length; i++) {
+            int playerIndex = i;
+            threads[i] = new Thread(() -> work(playerIndex), "card-game-player-" + (i + 1));
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+    }
+
+    private void work(int playerIndex) {
+        while (true) {
+            phaser.arriveAndAwaitAdvance(); // Wait for the next game
+            if (closed) {
+                return;
+            }
+            Thread.interrupted(); // Clear an interrupt left over from the previous game
+
+            try {
+                players.get(playerIndex).run();
+            } catch (RuntimeException | Error e) {
+                interruptAll(); // Cancel the other players at once
+                failureHandler.playerFailed(playerIndex, e);
+            }
+
+            phaser.arriveAndAwaitAdvance(); // Report this player as finished
+        }
+    }
+
+    /**
+     * Starts every player on its worker thread.
+     */
+    void start() {
+        phaser.arriveAndAwaitAdvance();
+    }
+
+    /**
+     * Interrupts every worker but the calling one, waking players that are waiting between turns.
+     */
+    void interruptAll() {
+        for (Thread thread : threads) {
+            if (thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Waits until every player started by the last call to start has finished, for at most the given time.
+     *
+     * @return true if every player finished in time; if not, the pool must be abandoned
+     */
+    boolean awaitFinished(long timeoutMillis) {
+        try {
+            phaser.awaitAdvanceInterruptibly(phaser.arrive(), timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Gives up on workers that did not finish in time: each exits as soon as its player returns.
+     */
+    void abandon() {
+        closed = true;
+        phaser.forceTermination(); // Nobody waits on the phaser any more
+    }
+
+    /**
+     * Lets the worker threads exit. Must only be called between games.
+     */
+    void close() {
+        closed = true;
+        phaser.arrive();
+    }
+}
@@ -0,0 +1,22 @@
+/**
+ * A clock that follows real time. This is the default for every game.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public final class RealClock implements GameClock {
+    public static final RealClock INSTANCE = new RealClock();
+
+    private RealClock() {
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+}
@@ -0,0 +1,336 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers the results of deterministic games, so a sweep that replays a pack with the same seed skips the game.
+ * A result is keyed by a hash of the pack's face values, the number of players, the discard strategy, the seed
+ * and the turn limit. Results are kept in a bounded least-recently-used map, and optionally in a file that
+ * outlives the JVM: the file is memory-mapped and only ever appended to, one fixed-size record per result.
+ * <pre>
+ *   header: magic "CRES" (4 bytes), version (2), record size (2), reserved (8)
+ *   record: pack hash (8), seed (8), turn limit (8), players (4), winner (4), turns (8), duration in ns (8),
+ *           strategy name in ASCII, zero-padded (15), outcome ordinal + 1 (1), written last
+ * </pre>
+ * A record whose last byte is still 0 was never finished, so a file cut short by a crash loses at most
+ * the result being written. CardGame only consults the cache in deterministic mode; see CardGame.setResultCache.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public class ResultCache implements Closeable {
+    static final int MAGIC = 0x43524553; // "CRES"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 64;
+    static final int MAX_STRATEGY_NAME = 15;
+    private static final int INITIAL_MAPPED_RECORDS = 1024;
+
+    private final int capacity;
+    // In access order, so the eldest entry is the least recently used
+    private final LinkedHashMap<Key, GameResult> memory = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, GameResult> eldest) {
+            if (size() > capacity) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+    private final File file;
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private final Map<Key, Integer> diskIndex = new HashMap<>(); // Record number of every result in the file
+    private int records = 0;
+
+    private long memoryHits = 0;
+    private long diskHits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Creates a cache held in memory only.
+     *
+     * @param capacity the most results to keep
+     */
+    public ResultCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive.");
+        }
+        this.capacity = capacity;
+        this.file = null;
+    }
+
+    /**
+     * Creates a cache that also keeps every result in a file, loading the results already there.
+     *
+     * @param capacity the most results to keep in memory
+     * @param file the cache file, created if missing
+     * @throws IOException if the file cannot be used or is not a result cache
+     */
+    public ResultCache(int capacity, File file) throws IOException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive.");
+        }
+        this.capacity = capacity;
+        this.file = file;
+        openFile();
+    }
+
+    private void openFile() throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (size > 0 && size < HEADER_BYTES) {
+                throw new IOException("Invalid result cache " + file + ": the file is shorter than its header.");
+            }
+            long slots = Math.max(INITIAL_MAPPED_RECORDS, (size - HEADER_BYTES) / RECORD_BYTES);
+            map(slots);
+
+            if (size == 0) {
+                mapped.putInt(0, MAGIC).putShort(4, VERSION).putShort(6, (short) RECORD_BYTES);
+            } else if (mapped.getInt(0) != MAGIC) {
+                throw new IOException("Invalid result cache " + file + ": wrong magic number.");
+            } else if (mapped.getShort(4) != VERSION || mapped.getShort(6) != RECORD_BYTES) {
+                throw new IOException("Unsupported result cache version " + mapped.getShort(4) + ".");
+            }
+
+            // Index the finished records; the first unfinished one is where appending resumes
+            while (records < slots && mapped.get(offset(records) + RECORD_BYTES - 1) != 0) {
+                diskIndex.put(readKey(records), records);
+                records++;
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Maps the header and the given number of record slots, growing the file as needed
+    private void map(long slots) throws IOException {
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + slots * RECORD_BYTES);
+    }
+
+    private static int offset(int record) {
+        return HEADER_BYTES + record * RECORD_BYTES;
+    }
+
+    /**
+     * Hashes the face values of a pack, in order, into 64 bits. Text and binary packs of the same cards hash the same.
+     */
+    public static long hash(List<Card> cards) {
+        long hash = 0x9E3779B97F4A7C15L ^ cards.size();
+        for (int i = 0; i < cards.size(); i++) {
+            hash = (hash ^ cards.get(i).getFaceValue()) * 0xBF58476D1CE4E5B9L;
+            hash ^= hash >>> 31;
+        }
+        // Final mix, so packs that differ in one late card still differ in every bit
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    /**
+     * Looks a result up, first in memory and then in the file. A result found in the file is kept in memory too.
+     *
+     * @return the stored result, or null if this game has not been cached
+     */
+    public synchronized GameResult get(Key key) {
+        GameResult result = memory.get(key);
+        if (result != null) {
+            memoryHits++;
+            return result;
+        }
+        Integer record = diskIndex.get(key);
+        if (record != null) {
+            result = readResult(record);
+            memory.put(key, result);
+            diskHits++;
+            return result;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Stores a result, appending it to the file unless the file already has it.
+     */
+    public synchronized void put(Key key, GameResult result) {
+        memory.put(key, result);
+        if (channel == null || diskIndex.containsKey(key) || key.strategy.length() > MAX_STRATEGY_NAME) {
+            return;
+        }
+        try {
+            if (offset(records + 1) > mapped.capacity()) {
+                map(2L * records); // Double the mapped region
+            }
+            writeRecord(records, key, result);
+            diskIndex.put(key, records);
+            records++;
+        } catch (IOException e) {
+            System.err.println("Error writing result cache " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void writeRecord(int record, Key key, GameResult result) {
+        int offset = offset(record);
+        mapped.putLong(offset, key.packHash)
+                .putLong(offset + 8, key.seed)
+                .putLong(offset + 16, key.turnLimit)
+                .putInt(offset + 24, key.players)
+                .putInt(offset + 28, result.getWinner())
+                .putLong(offset + 32, result.getTurns())
+                .putLong(offset + 40, result.getDurationNanos());
+        byte[] name = key.strategy.getBytes(StandardCharsets.US_ASCII);
+        mapped.put(offset + 48, name);
+        mapped.put(offset + RECORD_BYTES - 1, (byte) (result.getOutcome().ordinal() + 1)); // Marks the record finished
+    }
+
+    private Key readKey(int record) {
+        int offset = offset(record);
+        byte[] name = new byte[MAX_STRATEGY_NAME];
+        mapped.get(offset + 48, name);
+        int length = 0;
+        while (length < name.length && name[length] != 0) {
+            length++;
+        }
+        return new Key(mapped.getLong(offset), mapped.getInt(offset + 24),
+                new String(name, 0, length, StandardCharsets.US_ASCII), mapped.getLong(offset + 8), mapped.getLong(offset + 16));
+    }
+
+    private GameResult readResult(int record) {
+        int offset = offset(record);
+        GameResult.Outcome outcome = GameResult.Outcome.values()[mapped.get(offset + RECORD_BYTES - 1) - 1];
+        return new GameResult(mapped.getInt(offset + 24), outcome, mapped.getInt(offset + 28),
+                mapped.getLong(offset + 32), mapped.getLong(offset + 40));
+    }
+
+    /**
+     * @return the number of results held in memory
+     */
+    public synchronized int size() {
+        return memory.size();
+    }
+
+    /**
+     * @return the number of results in the file, or 0 for a memory-only cache
+     */
+    public synchronized int getDiskSize() {
+        return records;
+    }
+
+    public synchronized long getMemoryHits() {
+        return memoryHits;
+    }
+
+    public synchronized long getDiskHits() {
+        return diskHits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of results dropped from memory to stay within capacity; they remain in the file, if any
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the share of lookups answered from memory or the file, or 0 before the first lookup
+     */
+    public synchronized double getHitRate() {
+        long lookups = memoryHits + diskHits + misses;
+        return lookups == 0 ? 0 : (double) (memoryHits + diskHits) / lookups;
+    }
+
+    /**
+     * Closes the file, trimming it to the records written. A memory-only cache keeps working after close.
+     */
+    @Override
+    public synchronized void close() {
+        if (channel != null) {
+            mapped = null;
+            try {
+                channel.truncate(offset(records)); // Drop the unused part of the mapped region
+            } catch (IOException e) {
+                // Some platforms refuse to truncate a mapped file; the zeroed slots are skipped on the next open
+                System.err.println("Error truncating result cache " + file + ": " + e.getMessage());
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing result cache " + file + ": " + e.getMessage());
+            }
+            channel = null;
+            diskIndex.clear();
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ResultCache[" + memory.size() + " in memory, " + records + " on disk, " + memoryHits + " memory hits, "
+                + diskHits + " disk hits, " + misses + " misses, " + evictions + " evictions]";
+    }
+
+    /**
+     * Everything that decides the result of a deterministic game.
+     */
+    public static final class Key {
+        private final long packHash;
+        private final int players;
+        private final String strategy;
+        private final long seed;
+        private final long turnLimit;
+
+        /**
+         * @param packHash the hash of the pack, from ResultCache.hash
+         * @param players the number of players
+         * @param strategy the name of the discard strategy
+         * @param seed the seed of the players' random choices
+         * @param turnLimit the turn limit, or 0 for none
+         */
+        public Key(long packHash, int players, String strategy, long seed, long turnLimit) {
+            this.packHash = packHash;
+            this.players = players;
+            this.strategy = Objects.requireNonNull(strategy, "strategy");
+            this.seed = seed;
+            this.turnLimit = turnLimit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return packHash == key.packHash && players == key.players && seed == key.seed
+                    && turnLimit == key.turnLimit && strategy.equals(key.strategy);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(packHash, players, strategy, seed, turnLimit);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("pack %016x, %d players, %s, seed %d, turn limit %d", packHash, players, strategy, seed, turnLimit);
+        }
+    }
+}
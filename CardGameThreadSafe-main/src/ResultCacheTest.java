@@ -0,0 +1,227 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResultCacheTest {
+
+    private static final String PACK_FILE = "result_cache_pack.txt";
+    private final File cacheFile = new File("result_cache_test.bin");
+
+    @AfterEach
+    public void cleanUp() {
+        new File(PACK_FILE).delete();
+        cacheFile.delete();
+        for (int i = 1; i <= 4; i++) {
+            new File("player" + i + "_output.txt").delete();
+            new File("deck" + i + "_output.txt").delete();
+        }
+    }
+
+    private ResultCache.Key key(long seed) {
+        return new ResultCache.Key(42L, 4, "RANDOM", seed, 500);
+    }
+
+    private GameResult result(int winner, long turns) {
+        return new GameResult(4, GameResult.Outcome.WIN, winner, turns, 1_000_000);
+    }
+
+    private void assertSameResult(GameResult expected, GameResult actual, String message) {
+        assertNotNull(actual, message);
+        assertEquals(expected.getOutcome(), actual.getOutcome(), message);
+        assertEquals(expected.getWinner(), actual.getWinner(), message);
+        assertEquals(expected.getTurns(), actual.getTurns(), message);
+        assertEquals(expected.getDurationNanos(), actual.getDurationNanos(), message);
+    }
+
+    // Creates a pack of 32 distinct cards, which nobody can win, or of four of each value from 1 to 8
+    private void createPackFile(boolean winnable) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 32; i++) {
+            lines.add(String.valueOf(winnable ? (i * 5) % 8 + 1 : i));
+        }
+        Files.write(new File(PACK_FILE).toPath(), lines);
+    }
+
+    private CardGame deterministicGame(long seed) {
+        CardGame game = new CardGame(4, PACK_FILE);
+        game.setConsoleOutput(false);
+        game.setDeterministic(true);
+        game.setSeed(seed);
+        game.setTurnLimit(400);
+        return game;
+    }
+
+    // Test 1: Is a stored result found again, and is a missing one reported as a miss?
+    @Test
+    public void testMemoryHitAndMiss() {
+        ResultCache cache = new ResultCache(8);
+        GameResult result = result(2, 120);
+        cache.put(key(1), result);
+
+        assertSame(result, cache.get(key(1)), "A stored result should be returned as it was stored.");
+        assertNull(cache.get(key(2)), "A game with another seed should not be found.");
+        assertEquals(1, cache.getMemoryHits(), "One lookup should have hit.");
+        assertEquals(1, cache.getMisses(), "One lookup should have missed.");
+        assertEquals(0.5, cache.getHitRate(), 1e-9, "Half the lookups should have hit.");
+    }
+
+    // Test 2: Does the memory tier drop the least recently used result once full?
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        ResultCache cache = new ResultCache(2);
+        cache.put(key(1), result(0, 10));
+        cache.put(key(2), result(1, 20));
+        cache.get(key(1)); // Seed 2 is now the least recently used
+        cache.put(key(3), result(2, 30));
+
+        assertEquals(2, cache.size(), "The cache should stay within its capacity.");
+        assertEquals(1, cache.getEvictions(), "One result should have been evicted.");
+        assertNotNull(cache.get(key(1)), "The recently used result should be kept.");
+        assertNull(cache.get(key(2)), "The least recently used result should be evicted.");
+    }
+
+    // Test 3: Do results in the file survive closing and reopening the cache?
+    @Test
+    public void testDiskTierPersists() throws IOException {
+        GameResult result = new GameResult(4, GameResult.Outcome.TIMEOUT, -1, 500, 2_000_000);
+        try (ResultCache cache = new ResultCache(8, cacheFile)) {
+            cache.put(key(7), result);
+            cache.put(new ResultCache.Key(42L, 4, "KEEP_SETS", 7, 500), result(3, 77));
+        }
+        assertEquals(ResultCache.HEADER_BYTES + 2 * ResultCache.RECORD_BYTES, cacheFile.length(),
+                "The file should be trimmed to its records when closed.");
+
+        try (ResultCache cache = new ResultCache(8, cacheFile)) {
+            assertEquals(2, cache.getDiskSize(), "Both records should be loaded.");
+            assertSameResult(result, cache.get(key(7)), "The result should be read back from the file.");
+            assertEquals(1, cache.getDiskHits(), "The lookup should be answered by the file.");
+            assertNotNull(cache.get(key(7)), "The result should now also be in memory.");
+            assertEquals(1, cache.getMemoryHits(), "The second lookup should be answered from memory.");
+            assertEquals(3, cache.get(new ResultCache.Key(42L, 4, "KEEP_SETS", 7, 500)).getWinner(),
+                    "The strategy name should be part of the stored key.");
+        }
+    }
+
+    // Test 4: Is an unfinished record at the end of the file ignored and then overwritten?
+    @Test
+    public void testUnfinishedRecordIgnored() throws IOException {
+        try (ResultCache cache = new ResultCache(8, cacheFile)) {
+            cache.put(key(1), result(0, 10));
+            cache.put(key(2), result(1, 20));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(cacheFile, "rw")) {
+            file.seek(ResultCache.HEADER_BYTES + 2 * ResultCache.RECORD_BYTES - 1);
+            file.write(0); // As if the game had crashed before finishing the second record
+        }
+
+        try (ResultCache cache = new ResultCache(8, cacheFile)) {
+            assertEquals(1, cache.getDiskSize(), "Only the finished record should be loaded.");
+            assertNull(cache.get(key(2)), "The unfinished result should not be found.");
+            cache.put(key(3), result(2, 30));
+        }
+        try (ResultCache cache = new ResultCache(8, cacheFile)) {
+            assertEquals(2, cache.getDiskSize(), "The new record should take the unfinished one's place.");
+            assertEquals(30, cache.get(key(3)).getTurns(), "The new record should read back.");
+        }
+    }
+
+    // Test 5: Does a deterministic game with the same seed produce the same result every time?
+    @Test
+    public void testDeterministicGamesRepeat() throws IOException {
+        createPackFile(true);
+        List<GameResult> results = new ArrayList<>();
+        List<List<String>> decks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            try (CardGame game = deterministicGame(99)) {
+                results.add(game.startGame());
+            }
+            decks.add(Files.readAllLines(new File("deck1_output.txt").toPath()));
+        }
+        for (int i = 1; i < results.size(); i++) {
+            assertEquals(results.get(0).getOutcome(), results.get(i).getOutcome(), "Every run should end the same way.");
+            assertEquals(results.get(0).getTurns(), results.get(i).getTurns(), "Every run should play the same turns.");
+            assertEquals(results.get(0).getWinner(), results.get(i).getWinner(), "Every run should have the same winner.");
+            assertEquals(decks.get(0), decks.get(i), "Every run should leave the same final deck.");
+        }
+    }
+
+    // Test 6: Is the second identical game answered from the cache, and a game with another seed played?
+    @Test
+    public void testGameUsesCache() throws IOException {
+        createPackFile(false);
+        ResultCache cache = new ResultCache(16);
+
+        GameResult first;
+        try (CardGame game = deterministicGame(5)) {
+            game.setResultCache(cache);
+            first = game.startGame();
+            assertSame(first, game.startGame(), "The replay should return the stored result.");
+        }
+        assertEquals(1, cache.getMemoryHits(), "The replay should hit the cache.");
+        assertEquals(1, cache.getMisses(), "Only the first game should miss.");
+        assertFalse(new File("player1_output.txt").exists(), "A cached game should not write player files.");
+
+        try (CardGame game = deterministicGame(6)) {
+            game.setResultCache(cache);
+            game.startGame();
+        }
+        assertEquals(2, cache.getMisses(), "A game with another seed should be played.");
+    }
+
+    // Test 7: Are games that are not deterministic left out of the cache?
+    @Test
+    public void testNonDeterministicGamesNotCached() throws IOException {
+        createPackFile(false);
+        ResultCache cache = new ResultCache(16);
+        try (CardGame game = new CardGame(4, PACK_FILE)) {
+            game.setConsoleOutput(false);
+            game.setClock(new SimulatedClock());
+            game.setSeed(5);
+            game.setTurnLimit(100);
+            game.setResultCache(cache);
+            game.startGame();
+            game.startGame();
+        }
+        assertEquals(0, cache.size(), "Threaded games should not be cached.");
+        assertEquals(0, cache.getMisses(), "Threaded games should not even be looked up.");
+    }
+
+    // Test 8: Does replaying a seed on one game play the same game as a fresh instance, with or without a cache?
+    @Test
+    public void testReplayedSeedRepeatsOnOneInstance() throws IOException {
+        createPackFile(true);
+        GameResult fresh;
+        try (CardGame game = deterministicGame(99)) {
+            fresh = game.startGame();
+        }
+
+        List<GameResult> replays = new ArrayList<>();
+        try (CardGame game = deterministicGame(99)) {
+            for (int i = 0; i < 4; i++) {
+                replays.add(game.playAgain());
+            }
+        }
+        ResultCache cache = new ResultCache(16);
+        try (CardGame game = deterministicGame(99)) {
+            game.startGame(); // Plays a game, so the cached result comes from a used instance
+            game.setResultCache(cache);
+            replays.add(game.playAgain()); // Played and stored
+            replays.add(game.playAgain()); // Answered from the cache
+        }
+        assertEquals(1, cache.getMemoryHits(), "The last replay should come from the cache.");
+
+        for (GameResult replay : replays) { // Durations differ from run to run; the play itself must not
+            String message = "Every game with seed 99 should play like the first game of a fresh instance.";
+            assertEquals(fresh.getOutcome(), replay.getOutcome(), message);
+            assertEquals(fresh.getWinner(), replay.getWinner(), message);
+            assertEquals(fresh.getTurns(), replay.getTurns(), message);
+        }
+    }
+}
@@ -0,0 +1,472 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the results of many games in a directory as columns, one file of fixed-width values per column,
+ * so that millions of games take a few dozen bytes each instead of a directory of text files each.
+ * A Writer appends results in large batches, one sequential write per column; a store opened for reading
+ * maps each column and answers filtered counts, group-by counts and sums by scanning only the columns
+ * the query names.
+ * <pre>
+ *   store.meta: magic "CRST" (4 bytes), version (2), column count (2), committed rows (8)
+ *   &lt;column&gt;.col: one big-endian value per row, of the column's width
+ * </pre>
+ * Each batch's columns are forced to disk before the row count in store.meta is updated and forced, so a batch
+ * cut short by a crash of the process or of the machine is ignored by readers and overwritten by the next writer.
+ * Run {@code java ResultStore <directory> [players]} to summarise a store.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public final class ResultStore {
+    static final int MAGIC = 0x43525354; // "CRST"
+    static final short VERSION = 1;
+    static final int META_BYTES = 16;
+    static final String META_FILE = "store.meta";
+    static final long MAX_ROWS = Integer.MAX_VALUE / 8; // Each column must fit one mapping
+    static final int BATCH_ROWS = 1 << 16;
+
+    /**
+     * The columns of a store, each a fixed number of bytes per row.
+     */
+    public enum Column {
+        ID(8),            // The game id given when the result was appended
+        PLAYERS(4),
+        SEED(8),
+        WINNER(4),        // The winning seat, or -1 if nobody won
+        TURNS(8),
+        DURATION(8),      // In nanoseconds
+        IMMEDIATE_WIN(1), // 1 if a player was dealt four of a kind, else 0
+        OUTCOME(1);       // The ordinal of the GameResult.Outcome
+
+        private final int width;
+
+        Column(int width) {
+            this.width = width;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        File file(File directory) {
+            return new File(directory, name().toLowerCase() + ".col");
+        }
+    }
+
+    /**
+     * The rows a query counts: every condition restricts one column to a range of values, and a row must
+     * meet them all. A new filter selects every row.
+     */
+    public static final class Filter {
+        private final List<Column> columns = new ArrayList<>();
+        private final List<long[]> ranges = new ArrayList<>();
+
+        /**
+         * Keeps the rows whose column holds exactly a value.
+         *
+         * @return this filter
+         */
+        public Filter where(Column column, long value) {
+            return where(column, value, value);
+        }
+
+        /**
+         * Keeps the rows whose column holds a value from min to max, inclusive.
+         *
+         * @return this filter
+         */
+        public Filter where(Column column, long min, long max) {
+            columns.add(column);
+            ranges.add(new long[]{min, max});
+            return this;
+        }
+    }
+
+    private final File directory;
+    private final int rows;
+    private final MappedByteBuffer[] columns = new MappedByteBuffer[Column.values().length];
+
+    private ResultStore(File directory, int rows) {
+        this.directory = directory;
+        this.rows = rows;
+    }
+
+    /**
+     * Opens a store for reading, mapping every committed row. Rows appended afterwards are not seen.
+     *
+     * @param directory the store's directory
+     * @return the store
+     * @throws IOException if the directory does not hold a store
+     */
+    public static ResultStore open(File directory) throws IOException {
+        ResultStore store = new ResultStore(directory, (int) readRows(directory));
+        for (Column column : Column.values()) {
+            try (FileChannel channel = FileChannel.open(column.file(directory).toPath(), StandardOpenOption.READ)) {
+                long bytes = (long) store.rows * column.width;
+                if (channel.size() < bytes) {
+                    throw new IOException("Invalid result store " + directory + ": column " + column
+                            + " is shorter than the store.");
+                }
+                store.columns[column.ordinal()] = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes);
+            }
+        }
+        return store;
+    }
+
+    // Reads the committed row count from the store's meta file
+    private static long readRows(File directory) throws IOException {
+        File meta = new File(directory, META_FILE);
+        try (FileChannel channel = FileChannel.open(meta.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(META_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is full or the file ends
+            }
+            header.flip();
+            if (header.remaining() < META_BYTES || header.getInt(0) != MAGIC) {
+                throw new IOException("Invalid result store " + directory + ": wrong magic number.");
+            }
+            if (header.getShort(4) != VERSION || header.getShort(6) != Column.values().length) {
+                throw new IOException("Unsupported result store version " + header.getShort(4) + ".");
+            }
+            long rows = header.getLong(8);
+            if (rows < 0 || rows > MAX_ROWS) {
+                throw new IOException("Invalid result store " + directory + ": " + rows + " rows.");
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Opens a store for appending, creating it if the directory holds none.
+     *
+     * @param directory the store's directory, created if missing
+     * @return a writer positioned after the last committed row
+     * @throws IOException if the store cannot be created or is invalid
+     */
+    public static Writer writer(File directory) throws IOException {
+        return new Writer(directory);
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the value of one column in one row; flags and outcomes as their numbers
+     */
+    public long get(Column column, int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rows + ".");
+        }
+        MappedByteBuffer values = columns[column.ordinal()];
+        switch (column.width) {
+            case 1:
+                return values.get(row);
+            case 4:
+                return values.getInt(row * 4);
+            default:
+                return values.getLong(row * 8);
+        }
+    }
+
+    /**
+     * @return the number of rows the filter keeps
+     */
+    public long count(Filter filter) {
+        long[] selected = select(filter);
+        long count = 0;
+        for (long word : selected) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Counts the rows the filter keeps by their value in one column, for example wins by seat.
+     *
+     * @return the number of rows with each value, in value order; values with no rows are left out
+     */
+    public Map<Long, Long> countBy(Column column, Filter filter) {
+        long[] selected = select(filter);
+        Map<Long, long[]> counts = new TreeMap<>();
+        forEachSelected(selected, column, value -> counts.computeIfAbsent(value, v -> new long[1])[0]++);
+        Map<Long, Long> result = new TreeMap<>();
+        for (Map.Entry<Long, long[]> entry : counts.entrySet()) {
+            result.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return result;
+    }
+
+    /**
+     * @return the sum of one column over the rows the filter keeps, for example the total turns
+     */
+    public long sum(Column column, Filter filter) {
+        long[] selected = select(filter);
+        long[] sum = {0};
+        forEachSelected(selected, column, value -> sum[0] += value);
+        return sum[0];
+    }
+
+    private interface ValueConsumer {
+        void accept(long value);
+    }
+
+    // Passes the column's value of every selected row to the consumer, skipping 64 unselected rows at a time
+    private void forEachSelected(long[] selected, Column column, ValueConsumer consumer) {
+        for (int w = 0; w < selected.length; w++) {
+            for (long word = selected[w]; word != 0; word &= word - 1) {
+                consumer.accept(get(column, w * 64 + Long.numberOfTrailingZeros(word)));
+            }
+        }
+    }
+
+    // One bit per row, set for the rows that meet every condition; each condition scans only its own column
+    private long[] select(Filter filter) {
+        long[] selected = new long[(rows + 63) / 64];
+        Arrays.fill(selected, -1L);
+        if (rows % 64 != 0) {
+            selected[selected.length - 1] = (1L << (rows % 64)) - 1;
+        }
+        for (int i = 0; i < filter.columns.size(); i++) {
+            Column column = filter.columns.get(i);
+            long[] range = filter.ranges.get(i);
+            keep(selected, columns[column.ordinal()], column.width, range[0], range[1]);
+        }
+        return selected;
+    }
+
+    // Clears the bits of the rows whose value lies outside min..max, reading the column sequentially
+    private static void keep(long[] selected, MappedByteBuffer values, int width, long min, long max) {
+        for (int w = 0; w < selected.length; w++) {
+            long word = selected[w];
+            if (word == 0) {
+                continue; // An earlier condition already ruled these rows out
+            }
+            int base = w * 64;
+            int end = Math.min(64, values.capacity() / width - base);
+            long kept = 0;
+            for (int b = 0; b < end; b++) {
+                int row = base + b;
+                long value = width == 1 ? values.get(row) : width == 4 ? values.getInt(row * 4) : values.getLong(row * 8);
+                kept |= (value >= min && value <= max ? 1L : 0L) << b;
+            }
+            selected[w] = word & kept;
+        }
+    }
+
+    /**
+     * Appends results to a store. Rows are buffered and written a batch at a time, each column with one
+     * sequential write, and count as stored once flush or close returns. A writer may be shared between threads.
+     * A batch that fails to be written breaks the writer: its rows are lost, the store keeps the rows committed
+     * before it, and every later append or flush throws. Open a new writer to carry on.
+     */
+    public static final class Writer implements Closeable {
+        private final File directory;
+        private final FileChannel meta;
+        private final FileChannel[] channels = new FileChannel[Column.values().length];
+        private final ByteBuffer[] buffers = new ByteBuffer[Column.values().length];
+        private long rows;     // Committed to disk
+        private int buffered = 0;
+        private boolean closed = false;
+        private IOException failure; // The failed batch's error; the buffers no longer line up with the columns
+
+        private Writer(File directory) throws IOException {
+            this.directory = directory;
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Cannot create result store " + directory + ".");
+            }
+            boolean exists = new File(directory, META_FILE).exists();
+            this.rows = exists ? readRows(directory) : 0;
+            this.meta = FileChannel.open(new File(directory, META_FILE).toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+            try {
+                for (Column column : Column.values()) {
+                    FileChannel channel = FileChannel.open(column.file(directory).toPath(), StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE);
+                    channels[column.ordinal()] = channel;
+                    long bytes = rows * column.width;
+                    if (channel.size() < bytes) {
+                        throw new IOException("Invalid result store " + directory + ": column " + column
+                                + " is shorter than the store.");
+                    }
+                    channel.truncate(bytes); // Drops any batch that was written but never committed
+                    channel.position(bytes);
+                    buffers[column.ordinal()] = ByteBuffer.allocate(BATCH_ROWS * column.width);
+                }
+                if (!exists) {
+                    writeRows(rows);
+                }
+            } catch (IOException e) {
+                closeChannels();
+                throw e;
+            }
+        }
+
+        public File getDirectory() {
+            return directory;
+        }
+
+        /**
+         * @return the rows stored so far, including those still buffered
+         */
+        public synchronized long getRows() {
+            return rows + buffered;
+        }
+
+        /**
+         * Adds a game's result, writing the buffered batch first if it is full.
+         *
+         * @param gameId the game's id, for example its tournament job id
+         * @param seed the seed the game was played with
+         * @param result the game's result
+         * @throws IOException if the batch cannot be written or the store is full
+         */
+        public synchronized void append(long gameId, long seed, GameResult result) throws IOException {
+            if (closed) {
+                throw new IOException("The result store writer is closed.");
+            }
+            checkNotFailed();
+            if (rows + buffered >= MAX_ROWS) {
+                throw new IOException("The result store " + directory + " is full.");
+            }
+            buffers[Column.ID.ordinal()].putLong(gameId);
+            buffers[Column.PLAYERS.ordinal()].putInt(result.getPlayers());
+            buffers[Column.SEED.ordinal()].putLong(seed);
+            buffers[Column.WINNER.ordinal()].putInt(result.getWinner());
+            buffers[Column.TURNS.ordinal()].putLong(result.getTurns());
+            buffers[Column.DURATION.ordinal()].putLong(result.getDurationNanos());
+            buffers[Column.IMMEDIATE_WIN.ordinal()].put((byte) (result.isImmediateWin() ? 1 : 0));
+            buffers[Column.OUTCOME.ordinal()].put((byte) result.getOutcome().ordinal());
+            if (++buffered == BATCH_ROWS) {
+                flush();
+            }
+        }
+
+        /**
+         * Writes the buffered rows to their columns and forces them to disk, then commits them by updating
+         * the row count and forcing that too. Costs a few disk flushes per batch, not per row.
+         *
+         * @throws IOException if a column cannot be written, or an earlier batch failed
+         */
+        public synchronized void flush() throws IOException {
+            if (closed) {
+                return;
+            }
+            checkNotFailed();
+            if (buffered == 0) {
+                return;
+            }
+            try {
+                for (int c = 0; c < channels.length; c++) {
+                    ByteBuffer buffer = buffers[c];
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        channels[c].write(buffer);
+                    }
+                    buffer.clear();
+                }
+                for (FileChannel channel : channels) {
+                    channel.force(false); // The data must be on disk before the row count that commits it
+                }
+                writeRows(rows + buffered);
+                meta.force(false);
+            } catch (IOException e) {
+                failure = e; // Part of the batch may be in the columns; readers and the next writer ignore it
+                throw e;
+            }
+            rows += buffered;
+            buffered = 0;
+        }
+
+        private void checkNotFailed() throws IOException {
+            if (failure != null) {
+                throw new IOException("The result store writer failed to write a batch and cannot be used.", failure);
+            }
+        }
+
+        private void writeRows(long committed) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(META_BYTES);
+            header.putInt(MAGIC).putShort(VERSION).putShort((short) Column.values().length).putLong(committed).flip();
+            while (header.hasRemaining()) {
+                meta.write(header, header.position());
+            }
+        }
+
+        /**
+         * Commits the buffered rows and closes the store's files.
+         */
+        @Override
+        public synchronized void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            try {
+                if (failure == null) {
+                    flush();
+                }
+            } finally {
+                closed = true;
+                closeChannels();
+            }
+        }
+
+        private void closeChannels() throws IOException {
+            meta.close();
+            for (FileChannel channel : channels) {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Usage: java ResultStore directory [players]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java ResultStore <directory> [players]");
+            return;
+        }
+        long start = System.nanoTime();
+        ResultStore store = open(new File(args[0]));
+        Filter games = new Filter();
+        if (args.length > 1) {
+            games.where(Column.PLAYERS, Integer.parseInt(args[1]));
+        }
+        long count = store.count(games);
+        System.out.println(count + " of " + store.getRows() + " games");
+        if (count > 0) {
+            Map<String, Long> outcomes = new TreeMap<>();
+            store.countBy(Column.OUTCOME, games).forEach((outcome, n) ->
+                    outcomes.put(GameResult.Outcome.values()[outcome.intValue()].name(), n));
+            System.out.println("Outcomes: " + outcomes);
+            System.out.println("Players: " + store.countBy(Column.PLAYERS, games));
+            Map<Long, Long> seats = new TreeMap<>();
+            store.countBy(Column.WINNER, games).forEach((seat, n) -> {
+                if (seat >= 0) {
+                    seats.put(seat + 1, n); // Numbered from 1, as in the output files
+                }
+            });
+            System.out.println("Wins by player: " + seats);
+            System.out.printf("Average turns: %.1f, average duration: %.3f ms%n",
+                    (double) store.sum(Column.TURNS, games) / count, store.sum(Column.DURATION, games) / 1e6 / count);
+        }
+        System.out.printf("Summarised in %.1f ms%n", (System.nanoTime() - start) / 1e6);
+    }
+}
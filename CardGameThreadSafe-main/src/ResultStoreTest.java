@@ -0,0 +1,185 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Map;
+
+public class ResultStoreTest {
+
+    private final File directory = new File("result_store_test");
+
+    @AfterEach
+    public void cleanUp() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    // Game i has 2 to 5 players; every third game is drawn, every tenth is an immediate win and the rest are won
+    private GameResult result(int i) {
+        int players = 2 + i % 4;
+        if (i % 3 == 0) {
+            return new GameResult(players, GameResult.Outcome.TIMEOUT, -1, 1000, 5_000);
+        }
+        if (i % 10 == 1) {
+            return new GameResult(players, GameResult.Outcome.IMMEDIATE_WIN, 0, 0, 1_000);
+        }
+        return new GameResult(players, GameResult.Outcome.WIN, i % players, i, 2_000);
+    }
+
+    private void write(int from, int to) throws IOException {
+        try (ResultStore.Writer writer = ResultStore.writer(directory)) {
+            for (int i = from; i < to; i++) {
+                writer.append(i, 1000L + i, result(i));
+            }
+        }
+    }
+
+    @Test
+    public void testRowsReadBackAsWritten() throws IOException {
+        write(0, 200);
+        ResultStore store = ResultStore.open(directory);
+
+        // Test 1: Are all the rows stored?
+        assertEquals(200, store.getRows(), "Every appended result should be stored.");
+
+        // Test 2: Does every column of a row read back as written?
+        for (int i = 0; i < 200; i++) {
+            GameResult expected = result(i);
+            assertEquals(i, store.get(ResultStore.Column.ID, i), "The game id should be stored.");
+            assertEquals(1000L + i, store.get(ResultStore.Column.SEED, i), "The seed should be stored.");
+            assertEquals(expected.getPlayers(), store.get(ResultStore.Column.PLAYERS, i), "The players should be stored.");
+            assertEquals(expected.getWinner(), store.get(ResultStore.Column.WINNER, i), "The winner should be stored.");
+            assertEquals(expected.getTurns(), store.get(ResultStore.Column.TURNS, i), "The turns should be stored.");
+            assertEquals(expected.getDurationNanos(), store.get(ResultStore.Column.DURATION, i),
+                    "The duration should be stored.");
+            assertEquals(expected.isImmediateWin() ? 1 : 0, store.get(ResultStore.Column.IMMEDIATE_WIN, i),
+                    "The immediate-win flag should be stored.");
+            assertEquals(expected.getOutcome().ordinal(), store.get(ResultStore.Column.OUTCOME, i),
+                    "The outcome should be stored.");
+        }
+    }
+
+    @Test
+    public void testFiltersAndGroupCounts() throws IOException {
+        int games = ResultStore.BATCH_ROWS + 1000; // More than one batch
+        write(0, games);
+        ResultStore store = ResultStore.open(directory);
+
+        long fourPlayers = 0;
+        long immediate = 0;
+        long drawnWithThree = 0;
+        long turnsOfFour = 0;
+        long[] winsOfFour = new long[4];
+        for (int i = 0; i < games; i++) {
+            GameResult result = result(i);
+            if (result.getPlayers() == 4) {
+                fourPlayers++;
+                turnsOfFour += result.getTurns();
+                if (result.hasWinner()) {
+                    winsOfFour[result.getWinner()]++;
+                }
+            }
+            immediate += result.isImmediateWin() ? 1 : 0;
+            drawnWithThree += result.getPlayers() == 3 && !result.hasWinner() ? 1 : 0;
+        }
+
+        // Test 1: Does a filter on one column count the matching rows?
+        assertEquals(fourPlayers, store.count(new ResultStore.Filter().where(ResultStore.Column.PLAYERS, 4)),
+                "The four-player games should be counted.");
+        assertEquals(immediate, store.count(new ResultStore.Filter().where(ResultStore.Column.IMMEDIATE_WIN, 1)),
+                "The immediate wins should be counted.");
+
+        // Test 2: Must a row meet every condition of a filter?
+        assertEquals(drawnWithThree, store.count(new ResultStore.Filter().where(ResultStore.Column.PLAYERS, 3)
+                        .where(ResultStore.Column.WINNER, -1)), "Only drawn three-player games should be counted.");
+
+        // Test 3: Does a group-by count the filtered rows by value?
+        Map<Long, Long> bySeat = store.countBy(ResultStore.Column.WINNER,
+                new ResultStore.Filter().where(ResultStore.Column.PLAYERS, 4).where(ResultStore.Column.WINNER, 0, 3));
+        for (int seat = 0; seat < 4; seat++) {
+            assertEquals(winsOfFour[seat], (long) bySeat.getOrDefault((long) seat, 0L), "Seat " + seat + " wins should match.");
+        }
+        assertEquals(4, store.countBy(ResultStore.Column.PLAYERS, new ResultStore.Filter()).size(),
+                "There should be one group per player count.");
+
+        // Test 4: Does a sum cover only the filtered rows?
+        assertEquals(turnsOfFour, store.sum(ResultStore.Column.TURNS,
+                new ResultStore.Filter().where(ResultStore.Column.PLAYERS, 4)), "The turns should be summed.");
+    }
+
+    @Test
+    public void testAppendingResumesAfterCommittedRows() throws IOException {
+        write(0, 100);
+
+        // Simulate a crash during a batch: bytes written past the committed rows of a column
+        try (RandomAccessFile column = new RandomAccessFile(new File(directory, "id.col"), "rw")) {
+            column.seek(column.length());
+            column.writeLong(-1);
+        }
+
+        // Test 1: Does a reader ignore the uncommitted tail?
+        assertEquals(100, ResultStore.open(directory).getRows(), "Only committed rows should be read.");
+
+        // Test 2: Does a new writer overwrite the tail and append after the committed rows?
+        write(100, 150);
+        ResultStore store = ResultStore.open(directory);
+        assertEquals(150, store.getRows(), "The second writer's rows should follow the first's.");
+        assertEquals(100, store.get(ResultStore.Column.ID, 100), "The uncommitted tail should be overwritten.");
+        assertEquals(1149, store.get(ResultStore.Column.SEED, 149), "The last row should be the last appended.");
+    }
+
+    @Test
+    public void testInvalidStoreIsRejected() throws IOException {
+        write(0, 10);
+        try (RandomAccessFile meta = new RandomAccessFile(new File(directory, ResultStore.META_FILE), "rw")) {
+            meta.writeInt(0x12345678);
+        }
+
+        // Test 1: Is a store with the wrong magic number rejected?
+        assertThrows(IOException.class, () -> ResultStore.open(directory), "A bad store should not be opened.");
+        assertThrows(IOException.class, () -> ResultStore.writer(directory), "A bad store should not be appended to.");
+
+        // Test 2: Is a store with a column cut short rejected?
+        cleanUp();
+        write(0, 10);
+        try (RandomAccessFile column = new RandomAccessFile(new File(directory, "turns.col"), "rw")) {
+            column.setLength(40);
+        }
+        assertThrows(IOException.class, () -> ResultStore.open(directory), "A short column should be detected.");
+    }
+
+    @Test
+    public void testFailedBatchBreaksWriter() throws IOException {
+        write(0, 100);
+        ResultStore.Writer writer = ResultStore.writer(directory);
+        writer.append(100, 1100L, result(100));
+        Thread.currentThread().interrupt(); // An interrupted write closes the column's channel and fails
+        try {
+            // Test 1: Does a batch that cannot be written fail?
+            assertThrows(IOException.class, writer::flush, "The interrupted batch should fail.");
+        } finally {
+            Thread.interrupted();
+        }
+
+        // Test 2: Does the failed writer refuse further rows instead of writing misaligned columns?
+        assertThrows(IOException.class, () -> writer.append(101, 1101L, result(101)), "A broken writer should refuse rows.");
+        assertThrows(IOException.class, writer::flush, "A broken writer should refuse to flush.");
+        writer.close();
+
+        // Test 3: Does the store keep its committed rows, so a new writer carries on after them?
+        assertEquals(100, ResultStore.open(directory).getRows(), "The failed batch should not be committed.");
+        write(100, 150);
+        ResultStore store = ResultStore.open(directory);
+        assertEquals(150, store.getRows(), "The new writer's rows should follow the committed ones.");
+        assertEquals(100, store.get(ResultStore.Column.ID, 100), "The failed batch should be overwritten.");
+        assertEquals(1149, store.get(ResultStore.Column.SEED, 149), "The last row should be the last appended.");
+    }
+}
@@ -0,0 +1,64 @@
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A clock whose time only moves when a thread sleeps on it. Sleeping returns at once and moves
+ * the clock forward by the time slept, so a paced game runs as fast as the players can take turns.
+ * Each thread keeps its own time, as if the threads paused side by side in real time: four players
+ * each pausing 100 ms move the clock on by 100 ms, not 400 ms, so a time limit allows as many turns
+ * as it would on a RealClock. The clock reads the furthest time any thread has slept to, and no thread
+ * starts a pause before the pause that got furthest began, so a thread that joins late or falls behind
+ * catches up with the others instead of replaying time they have already used.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public class SimulatedClock implements GameClock {
+    private volatile long now = 0; // Written under the clock's lock, read without it
+    private long leaderStart = 0; // When the pause that reached now began
+    private final ThreadLocal<long[]> threadNow = ThreadLocal.withInitial(() -> new long[] {Long.MIN_VALUE});
+
+    @Override
+    public long nanoTime() {
+        return now;
+    }
+
+    /**
+     * Moves the calling thread's time forward without waiting, and the clock with it once the thread is ahead.
+     * Like Thread.sleep, throws if the thread has been interrupted, so players still stop when the game ends.
+     */
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (millis < 0) {
+            throw new IllegalArgumentException("Cannot move the clock backwards.");
+        }
+        long pause = TimeUnit.MILLISECONDS.toNanos(millis);
+        long[] threadTime = threadNow.get();
+        synchronized (this) {
+            long start = Math.max(threadTime[0], leaderStart);
+            threadTime[0] = start + pause;
+            if (threadTime[0] > now) {
+                now = threadTime[0];
+                leaderStart = start;
+            }
+        }
+        Thread.yield(); // Let the other players take their turns
+    }
+
+    /**
+     * Moves the clock forward for every thread.
+     *
+     * @param millis how far to move it, in milliseconds
+     */
+    public void advance(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Cannot move the clock backwards.");
+        }
+        synchronized (this) {
+            now += TimeUnit.MILLISECONDS.toNanos(millis);
+            leaderStart = now;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SimulatedClockTest {
+
+    // Test 1: Does sleeping move the clock on without waiting?
+    @Test
+    public void testSleepAdvancesInstantly() throws InterruptedException {
+        SimulatedClock clock = new SimulatedClock();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            clock.sleep(1000);
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(100_000_000_000L, clock.nanoTime(), "100 sleeps of one second should move the clock on 100 seconds.");
+        assertTrue(elapsedMillis < 1000, "Sleeping on a simulated clock should not wait in real time.");
+    }
+
+    // Test 2: Does sleeping throw if the thread has been interrupted, like Thread.sleep?
+    @Test
+    public void testSleepInterrupted() {
+        SimulatedClock clock = new SimulatedClock();
+        Thread.currentThread().interrupt();
+
+        assertThrows(InterruptedException.class, () -> clock.sleep(100), "An interrupted sleep should throw.");
+        assertFalse(Thread.currentThread().isInterrupted(), "Throwing should clear the interrupt, like Thread.sleep.");
+        assertEquals(0, clock.nanoTime(), "An interrupted sleep should not move the clock.");
+    }
+
+    // Test 3: Is moving the clock backwards rejected?
+    @Test
+    public void testAdvanceBackwardsRejected() {
+        SimulatedClock clock = new SimulatedClock();
+        clock.advance(5);
+
+        assertThrows(IllegalArgumentException.class, () -> clock.advance(-1), "A negative advance should be rejected.");
+        assertEquals(5_000_000, clock.nanoTime(), "The clock should keep its time.");
+    }
+
+    // Test 4: Does the real clock follow System.nanoTime?
+    @Test
+    public void testRealClockFollowsRealTime() throws InterruptedException {
+        long before = System.nanoTime();
+        RealClock.INSTANCE.sleep(20);
+
+        assertTrue(RealClock.INSTANCE.nanoTime() - before >= 20_000_000, "The real clock should wait in real time.");
+    }
+
+    // Test 5: Do threads pausing side by side move the clock on together, as on a real clock?
+    @Test
+    public void testThreadsPauseSideBySide() throws InterruptedException {
+        SimulatedClock clock = new SimulatedClock();
+        CyclicBarrier round = new CyclicBarrier(4);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int turn = 0; turn < 100; turn++) {
+                        clock.sleep(100);
+                        round.await(); // Every thread pauses once per round, like players taking turns
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(failure.get(), "No thread should fail.");
+        assertEquals(10_000_000_000L, clock.nanoTime(),
+                "100 rounds of 100 ms pauses should take 10 seconds however many threads pause.");
+    }
+}
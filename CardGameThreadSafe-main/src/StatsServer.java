@@ -0,0 +1,104 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded HTTP endpoint for watching games while they run, bound to the loopback interface only.
+ * Serves the latest GameStats snapshot at /stats as JSON and at /metrics in Prometheus text format.
+ * A timer takes the snapshot and encodes both responses, so a request only copies ready-made bytes
+ * and scraping as often as you like adds nothing to the work of the player threads.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public class StatsServer implements Closeable {
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+    private static final String PROMETHEUS_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final GameStats stats;
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ScheduledExecutorService refresher;
+    private volatile byte[] json;
+    private volatile byte[] prometheus;
+
+    /**
+     * Starts serving.
+     *
+     * @param stats the stats to serve
+     * @param port the local port, or 0 to pick a free one
+     * @param refreshMillis how often to take a new snapshot
+     * @throws IOException if the port cannot be bound
+     */
+    public StatsServer(GameStats stats, int port, long refreshMillis) throws IOException {
+        if (refreshMillis <= 0) {
+            throw new IllegalArgumentException("Refresh interval must be positive.");
+        }
+        this.stats = stats;
+        refresh();
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/stats", exchange -> respond(exchange, json, JSON_TYPE));
+        server.createContext("/metrics", exchange -> respond(exchange, prometheus, PROMETHEUS_TYPE));
+        handlers = Executors.newSingleThreadExecutor(r -> daemon(r, "stats-server"));
+        server.setExecutor(handlers);
+        server.start();
+
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "stats-refresh"));
+        refresher.scheduleAtFixedRate(this::refresh, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    // Takes a snapshot and encodes both responses ahead of any request
+    private void refresh() {
+        GameStats.Snapshot snapshot = stats.snapshot();
+        json = snapshot.toJson().getBytes(StandardCharsets.UTF_8);
+        prometheus = snapshot.toPrometheus().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void respond(HttpExchange exchange, byte[] body, String contentType) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * @return the port the server listens on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops serving and stops taking snapshots.
+     */
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+}
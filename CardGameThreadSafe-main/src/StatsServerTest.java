@@ -0,0 +1,67 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+public class StatsServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private HttpResponse<String> get(StatsServer server, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    // Test 1: Are the stats served as JSON and in Prometheus format?
+    @Test
+    public void testServesBothFormats() throws IOException, InterruptedException {
+        GameStats stats = new GameStats();
+        stats.tournamentGameFinished(new GameResult(4, GameResult.Outcome.WIN, 1, 12, 1000));
+
+        try (StatsServer server = new StatsServer(stats, 0, 60_000)) {
+            HttpResponse<String> json = get(server, "/stats");
+            assertEquals(200, json.statusCode(), "The JSON endpoint should answer.");
+            assertTrue(json.headers().firstValue("Content-Type").orElse("").startsWith("application/json"),
+                    "The JSON endpoint should say it serves JSON.");
+            assertTrue(json.body().contains("\"gamesCompleted\":1"), "The JSON should carry the games completed.");
+
+            HttpResponse<String> metrics = get(server, "/metrics");
+            assertEquals(200, metrics.statusCode(), "The metrics endpoint should answer.");
+            assertTrue(metrics.body().contains("cardgame_turns_total 12\n"), "The metrics should carry the turns.");
+        }
+    }
+
+    // Test 2: Are responses cached until the next refresh?
+    @Test
+    public void testServesCachedSnapshot() throws IOException, InterruptedException {
+        GameStats stats = new GameStats();
+        try (StatsServer server = new StatsServer(stats, 0, 200)) {
+            stats.tournamentGameFinished(new GameResult(4, GameResult.Outcome.WIN, 1, 12, 1000));
+            assertTrue(get(server, "/stats").body().contains("\"gamesCompleted\":0"),
+                    "A request should get the snapshot taken before the game finished.");
+
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            String body = "";
+            while (System.nanoTime() < deadline && !body.contains("\"gamesCompleted\":1")) {
+                Thread.sleep(50);
+                body = get(server, "/stats").body();
+            }
+            assertTrue(body.contains("\"gamesCompleted\":1"), "The next refresh should pick up the finished game.");
+        }
+    }
+
+    // Test 3: Are requests other than GET refused?
+    @Test
+    public void testOnlyGetAllowed() throws IOException, InterruptedException {
+        try (StatsServer server = new StatsServer(new GameStats(), 0, 60_000)) {
+            HttpRequest post = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + "/stats"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{}")).build();
+            assertEquals(405, client.send(post, HttpResponse.BodyHandlers.ofString()).statusCode(),
+                    "POST should not be allowed.");
+        }
+    }
+}
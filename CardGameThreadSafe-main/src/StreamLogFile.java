@@ -0,0 +1,38 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Log file written through a FileOutputStream that stays open, one write call per line.
+ * This is the default output mode.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+class StreamLogFile extends LogFile {
+    private FileOutputStream out;
+
+    StreamLogFile(File file, boolean append) {
+        super(file, append);
+    }
+
+    @Override
+    protected void write(byte[] bytes, int length) throws IOException {
+        if (out == null) {
+            out = new FileOutputStream(file, append);
+        }
+        out.write(bytes, 0, length);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                System.err.println("Error closing file " + file + ": " + e.getMessage());
+            }
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shares a batch of games between worker JVMs on the same machine.
+ * Workers connect over a loopback TCP port or a Unix-domain socket and pull one job at a time
+ * whenever they are idle, so faster workers simply take more games. Each result is added to the
+ * running summary as soon as it arrives, and a job held by a worker that disconnects goes back
+ * in the queue for another worker. If every worker is gone while games are left, the run fails instead of
+ * waiting for workers that will never come back.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public class TournamentCoordinator implements Closeable {
+    private final ServerSocketChannel server;
+    private final String address;
+    private final BlockingQueue<TournamentJob> pending = new LinkedBlockingQueue<>();
+    private final TournamentSummary summary = new TournamentSummary();
+    private final List<Process> workerProcesses = new ArrayList<>();
+    private volatile CountDownLatch remaining = new CountDownLatch(0);
+    private final AtomicInteger connectedWorkers = new AtomicInteger();
+    private volatile boolean hadWorkers = false; // Set once a worker connects or is launched
+    private volatile boolean closed = false;
+    private volatile GameStats stats = null;
+
+    /**
+     * Starts listening for workers.
+     *
+     * @param address a loopback port (0 picks a free one) or the path of a Unix-domain socket to create
+     * @throws IOException if the address cannot be bound
+     */
+    public TournamentCoordinator(String address) throws IOException {
+        this.server = TournamentProtocol.listen(address);
+        this.address = server.getLocalAddress() instanceof InetSocketAddress
+                ? String.valueOf(((InetSocketAddress) server.getLocalAddress()).getPort())
+                : address;
+
+        Thread acceptor = new Thread(this::acceptWorkers, "tournament-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Usage: java TournamentCoordinator workers games players packFile [seed] [turnLimit] [monitorPort]
+     */
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.err.println("Usage: java TournamentCoordinator <workers> <games> <players> <pack file> [seed] [turn limit] [monitor port]");
+            return;
+        }
+        int workers = Integer.parseInt(args[0]);
+        int games = Integer.parseInt(args[1]);
+        int players = Integer.parseInt(args[2]);
+        String packFilePath = args[3];
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+        long turnLimit = args.length > 5 ? Long.parseLong(args[5]) : 0;
+        int monitorPort = args.length > 6 ? Integer.parseInt(args[6]) : -1;
+
+        List<TournamentJob> jobs = new ArrayList<>();
+        for (int i = 0; i < games; i++) {
+            jobs.add(new TournamentJob(i, players, seed + i, packFilePath));
+        }
+
+        GameStats stats = new GameStats();
+        try (TournamentCoordinator coordinator = new TournamentCoordinator("0");
+             StatsServer monitor = monitorPort >= 0 ? new StatsServer(stats, monitorPort, 1000) : null) {
+            if (monitor != null) {
+                coordinator.setStats(stats);
+                System.out.println("Live stats at http://localhost:" + monitor.getPort() + "/stats and /metrics");
+            }
+            coordinator.launchWorkers(workers, new File("tournament_output"), turnLimit);
+            System.out.println(coordinator.run(jobs));
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the address workers should connect to
+     */
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * Starts worker JVMs on this machine, using the same Java installation and class path as this one.
+     *
+     * @param count the number of workers
+     * @param outputDirectory the directory under which each worker gets its own output directory
+     * @param turnLimit the turn budget of every game, or 0 for no limit
+     * @throws IOException if a worker cannot be started
+     */
+    public void launchWorkers(int count, File outputDirectory, long turnLimit) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        for (int i = 0; i < count; i++) {
+            File workerDirectory = new File(outputDirectory, "worker" + (workerProcesses.size() + 1));
+            ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    "TournamentWorker", address, workerDirectory.getPath(), String.valueOf(turnLimit));
+            builder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+            workerProcesses.add(builder.start());
+            hadWorkers = true;
+        }
+    }
+
+    /**
+     * Queues the jobs and waits until every one of them has a result. Waits for a first worker to connect or
+     * be launched; after that, fails once no worker is connected and no launched worker JVM is still running.
+     *
+     * @param jobs the games to play
+     * @return the summary of every game played by this coordinator so far
+     * @throws IOException if every worker has gone before the jobs were played; the unplayed jobs are dropped
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public TournamentSummary run(List<TournamentJob> jobs) throws IOException, InterruptedException {
+        remaining = new CountDownLatch(jobs.size());
+        pending.addAll(jobs);
+        while (!remaining.await(100, TimeUnit.MILLISECONDS)) {
+            if (workersGone()) {
+                pending.clear();
+                throw new IOException("Every worker has gone: " + remaining.getCount() + " of " + jobs.size()
+                        + " games were not played.");
+            }
+        }
+        return summary;
+    }
+
+    // True once workers have existed but none is connected and no launched worker JVM can still connect
+    private boolean workersGone() {
+        if (!hadWorkers || connectedWorkers.get() > 0) {
+            return false;
+        }
+        for (Process process : workerProcesses) {
+            if (process.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts every game result reported by a worker in the given stats.
+     *
+     * @param stats the stats to count into, or null to stop counting
+     */
+    public void setStats(GameStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * @return the running summary, which may still be changing
+     */
+    public TournamentSummary getSummary() {
+        return summary;
+    }
+
+    private void acceptWorkers() {
+        while (!closed) {
+            try {
+                SocketChannel channel = server.accept();
+                Thread handler = new Thread(() -> serve(channel), "tournament-worker-connection");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Error accepting worker: " + e.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    // Answers one worker's messages until it disconnects or the coordinator closes
+    private void serve(SocketChannel channel) {
+        TournamentJob current = null;
+        connectedWorkers.incrementAndGet();
+        hadWorkers = true;
+        try (channel;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+            while (true) {
+                byte type = in.readByte();
+                if (type == TournamentProtocol.RESULT) {
+                    long jobId = in.readLong();
+                    GameResult result = TournamentProtocol.readResult(in);
+                    if (current == null || current.getId() != jobId) {
+                        throw new IOException("Result for job " + jobId + " was not expected.");
+                    }
+                    summary.add(result);
+                    GameStats gameStats = stats;
+                    if (gameStats != null) {
+                        gameStats.tournamentGameFinished(result);
+                    }
+                    current = null;
+                    remaining.countDown();
+                } else if (type != TournamentProtocol.READY) {
+                    throw new IOException("Unknown message type " + type + ".");
+                }
+
+                current = nextJob();
+                if (current == null) {
+                    out.writeByte(TournamentProtocol.DONE);
+                    out.flush();
+                    return;
+                }
+                TournamentProtocol.writeJob(out, current);
+                out.flush();
+            }
+        } catch (IOException e) {
+            if (current != null) {
+                pending.add(current); // Let another worker play it
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connectedWorkers.decrementAndGet();
+        }
+    }
+
+    // Waits for a job, returning null once the coordinator closes
+    private TournamentJob nextJob() throws InterruptedException {
+        while (!closed) {
+            TournamentJob job = pending.poll(50, TimeUnit.MILLISECONDS);
+            if (job != null) {
+                return job;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tells idle workers to exit, stops listening and waits for launched worker JVMs to finish.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        if (!address.matches("\\d+")) {
+            Files.deleteIfExists(UnixDomainSocketAddress.of(address).getPath()); // Unix sockets leave a file behind
+        }
+        for (Process process : workerProcesses) {
+            try {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroy();
+                }
+            } catch (InterruptedException e) {
+                process.destroy();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
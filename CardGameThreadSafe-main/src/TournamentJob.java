@@ -0,0 +1,41 @@
+/**
+ * One game of a tournament: which pack to play, with how many players and which seed.
+ * The pack is referenced by path, so every worker on the machine reads the same file.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public class TournamentJob {
+    private final long id;
+    private final int players;
+    private final long seed;
+    private final String packFilePath;
+
+    public TournamentJob(long id, int players, long seed, String packFilePath) {
+        this.id = id;
+        this.players = players;
+        this.seed = seed;
+        this.packFilePath = packFilePath;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getPlayers() {
+        return players;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getPackFilePath() {
+        return packFilePath;
+    }
+
+    @Override
+    public String toString() {
+        return "Job " + id + ": " + players + " players, seed " + seed + ", pack " + packFilePath;
+    }
+}
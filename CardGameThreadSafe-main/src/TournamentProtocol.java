@@ -0,0 +1,164 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Binary protocol between a TournamentCoordinator and its workers, also spoken by a GameServer and its clients.
+ * A worker sends READY when it connects, and RESULT each time it finishes a game; the coordinator
+ * answers both with the next JOB, or with DONE when the worker should exit. A GameServer client sends
+ * START with a pack file, or START_PACK with the pack's face values, as often as it likes; the server answers
+ * each with a RESULT once the game has been played, in the order games finish, or with BUSY at once if its
+ * queue is full. Every message is one type byte followed by fixed-width fields in DataOutput format.
+ * Addresses are a port number on the loopback interface or the path of a Unix-domain socket,
+ * so the protocol never listens beyond the local machine.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+final class TournamentProtocol {
+    static final byte READY = 1;  // Worker is idle
+    static final byte RESULT = 2; // Worker finished a game and is idle again
+    static final byte JOB = 3;    // Coordinator hands out a game
+    static final byte DONE = 4;   // Coordinator has no more work
+    static final byte START = 5;      // Client asks a GameServer for a game of a pack file
+    static final byte START_PACK = 6; // Client asks a GameServer for a game of the face values it sends
+    static final byte BUSY = 7;       // GameServer's queue is full, so the game was not started
+
+    static final int MAX_PACK_CARDS = 1 << 20; // Largest inline pack a server reads
+
+    private static final byte REJECTED = -1; // Outcome byte for a pack the game refused
+
+    private TournamentProtocol() {
+    }
+
+    /**
+     * Turns an address string into a socket address: digits are a loopback port, anything else a socket path.
+     */
+    static SocketAddress parseAddress(String address) {
+        if (address.matches("\\d+")) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address));
+        }
+        return UnixDomainSocketAddress.of(address);
+    }
+
+    static ServerSocketChannel listen(String address) throws IOException {
+        SocketAddress socketAddress = parseAddress(address);
+        ServerSocketChannel server = socketAddress instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open();
+        server.bind(socketAddress);
+        return server;
+    }
+
+    static SocketChannel connect(String address) throws IOException {
+        return SocketChannel.open(parseAddress(address));
+    }
+
+    static void writeJob(DataOutputStream out, TournamentJob job) throws IOException {
+        writeJob(out, JOB, job);
+    }
+
+    /**
+     * Asks a GameServer to play a job; the server reads the pack file named by the job itself.
+     */
+    static void writeStart(DataOutputStream out, TournamentJob job) throws IOException {
+        writeJob(out, START, job);
+    }
+
+    private static void writeJob(DataOutputStream out, byte type, TournamentJob job) throws IOException {
+        out.writeByte(type);
+        out.writeLong(job.getId());
+        out.writeInt(job.getPlayers());
+        out.writeLong(job.getSeed());
+        out.writeUTF(job.getPackFilePath());
+    }
+
+    /**
+     * Reads a job, after its type byte.
+     */
+    static TournamentJob readJob(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        int players = in.readInt();
+        long seed = in.readLong();
+        String packFilePath = in.readUTF();
+        return new TournamentJob(id, players, seed, packFilePath);
+    }
+
+    /**
+     * Asks a GameServer to play a pack sent with the request, for a client that does not share the server's files.
+     */
+    static void writeStartPack(DataOutputStream out, long id, int players, long seed, int[] faceValues) throws IOException {
+        out.writeByte(START_PACK);
+        out.writeLong(id);
+        out.writeInt(players);
+        out.writeLong(seed);
+        out.writeInt(faceValues.length);
+        for (int faceValue : faceValues) {
+            out.writeInt(faceValue);
+        }
+    }
+
+    /**
+     * Reads the face values of an inline pack, after its type byte, id, player count and seed.
+     */
+    static int[] readPack(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_PACK_CARDS) {
+            throw new IOException("Inline pack of " + count + " cards is not allowed.");
+        }
+        int[] faceValues = new int[count];
+        for (int i = 0; i < count; i++) {
+            faceValues[i] = in.readInt();
+        }
+        return faceValues;
+    }
+
+    static void writeBusy(DataOutputStream out, long jobId) throws IOException {
+        out.writeByte(BUSY);
+        out.writeLong(jobId);
+    }
+
+    /**
+     * Writes the result of a job; a null result means the game rejected its pack.
+     */
+    static void writeResult(DataOutputStream out, long jobId, int players, GameResult result) throws IOException {
+        out.writeByte(RESULT);
+        out.writeLong(jobId);
+        out.writeInt(players);
+        if (result == null) {
+            out.writeByte(REJECTED);
+            out.writeInt(-1);
+            out.writeLong(0);
+            out.writeLong(0);
+        } else {
+            out.writeByte(result.getOutcome().ordinal());
+            out.writeInt(result.getWinner());
+            out.writeLong(result.getTurns());
+            out.writeLong(result.getDurationNanos());
+        }
+    }
+
+    /**
+     * Reads the result of a job, after its type byte and job id.
+     *
+     * @return the result, or null if the game rejected its pack
+     */
+    static GameResult readResult(DataInputStream in) throws IOException {
+        int players = in.readInt();
+        byte outcome = in.readByte();
+        int winner = in.readInt();
+        long turns = in.readLong();
+        long durationNanos = in.readLong();
+        if (outcome == REJECTED) {
+            return null;
+        }
+        return new GameResult(players, GameResult.Outcome.values()[outcome], winner, turns, durationNanos);
+    }
+}
@@ -0,0 +1,80 @@
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running totals for a tournament, updated as each game's result arrives.
+ * Every method is synchronized, so the summary can be read while results are still coming in.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public class TournamentSummary {
+    private long games = 0;
+    private long rejected = 0;
+    private long totalTurns = 0;
+    private long totalDurationNanos = 0;
+    private final Map<GameResult.Outcome, Long> outcomes = new EnumMap<>(GameResult.Outcome.class);
+    private final Map<Integer, Long> winsBySeat = new TreeMap<>();
+
+    /**
+     * Adds one game to the totals.
+     *
+     * @param result the result of the game, or null if it rejected its pack
+     */
+    public synchronized void add(GameResult result) {
+        games++;
+        if (result == null) {
+            rejected++;
+            return;
+        }
+        outcomes.merge(result.getOutcome(), 1L, Long::sum);
+        if (result.hasWinner()) {
+            winsBySeat.merge(result.getWinner(), 1L, Long::sum);
+        }
+        totalTurns += result.getTurns();
+        totalDurationNanos += result.getDurationNanos();
+    }
+
+    public synchronized long getGames() {
+        return games;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    public synchronized long getOutcomeCount(GameResult.Outcome outcome) {
+        return outcomes.getOrDefault(outcome, 0L);
+    }
+
+    /**
+     * @param seat the index of a player
+     * @return the number of games that player won
+     */
+    public synchronized long getWins(int seat) {
+        return winsBySeat.getOrDefault(seat, 0L);
+    }
+
+    public synchronized long getTotalTurns() {
+        return totalTurns;
+    }
+
+    public synchronized long getTotalDurationNanos() {
+        return totalDurationNanos;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append("Games: ").append(games).append(" (").append(rejected).append(" rejected)\n");
+        for (Map.Entry<GameResult.Outcome, Long> entry : outcomes.entrySet()) {
+            report.append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+        }
+        for (Map.Entry<Integer, Long> entry : winsBySeat.entrySet()) {
+            report.append("Player ").append(entry.getKey() + 1).append(" wins: ").append(entry.getValue()).append('\n');
+        }
+        report.append("Total turns: ").append(totalTurns);
+        return report.toString();
+    }
+}
@@ -0,0 +1,203 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class TournamentTest {
+
+    private static final String WIN_PACK = "tournament_win_pack.txt";
+    private static final String UNWINNABLE_PACK = "tournament_unwinnable_pack.txt";
+    private static final File OUTPUT = new File("tournament_test_output");
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        // Player 1 is dealt four 1s
+        List<String> winPack = new ArrayList<>();
+        List<String> unwinnablePack = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            winPack.add(i % 4 == 0 && i < 16 ? "1" : String.valueOf(i + 2));
+            unwinnablePack.add(String.valueOf(i + 1));
+        }
+        Files.write(new File(WIN_PACK).toPath(), winPack);
+        Files.write(new File(UNWINNABLE_PACK).toPath(), unwinnablePack);
+    }
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        new File(WIN_PACK).delete();
+        new File(UNWINNABLE_PACK).delete();
+        if (OUTPUT.exists()) {
+            try (Stream<java.nio.file.Path> paths = Files.walk(OUTPUT.toPath())) {
+                paths.sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    // A worker on its own thread, keeping anything it throws so that the test thread can fail with it
+    private static final class WorkerThread extends Thread {
+        private final String address;
+        private final File directory;
+        private volatile Throwable failure = null;
+
+        WorkerThread(String address, File directory) {
+            this.address = address;
+            this.directory = directory;
+        }
+
+        @Override
+        public void run() {
+            try {
+                new TournamentWorker(directory, 0).run(address);
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+
+        void joinCleanly() throws InterruptedException {
+            join();
+            if (failure != null) {
+                throw new AssertionError("Worker should run cleanly.", failure);
+            }
+        }
+    }
+
+    private WorkerThread startWorker(String address, String name) {
+        WorkerThread worker = new WorkerThread(address, new File(OUTPUT, name));
+        worker.start();
+        return worker;
+    }
+
+    // Test 1: Do jobs and results survive the binary protocol?
+    @Test
+    public void testProtocolRoundTrip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        TournamentProtocol.writeJob(out, new TournamentJob(7, 4, 99L, "pack.txt"));
+        TournamentProtocol.writeResult(out, 7, 4, new GameResult(4, GameResult.Outcome.WIN, 2, 31, 5000));
+        TournamentProtocol.writeResult(out, 8, 4, null);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(TournamentProtocol.JOB, in.readByte(), "A job message should come first.");
+        TournamentJob job = TournamentProtocol.readJob(in);
+        assertEquals(7, job.getId(), "Job id should round-trip.");
+        assertEquals(4, job.getPlayers(), "Player count should round-trip.");
+        assertEquals(99L, job.getSeed(), "Seed should round-trip.");
+        assertEquals("pack.txt", job.getPackFilePath(), "Pack reference should round-trip.");
+
+        assertEquals(TournamentProtocol.RESULT, in.readByte(), "A result message should follow.");
+        assertEquals(7, in.readLong(), "The result should name its job.");
+        GameResult result = TournamentProtocol.readResult(in);
+        assertEquals(GameResult.Outcome.WIN, result.getOutcome(), "Outcome should round-trip.");
+        assertEquals(2, result.getWinner(), "Winner should round-trip.");
+        assertEquals(31, result.getTurns(), "Turns should round-trip.");
+
+        assertEquals(TournamentProtocol.RESULT, in.readByte(), "A second result should follow.");
+        assertEquals(8, in.readLong(), "The second result should name its job.");
+        assertNull(TournamentProtocol.readResult(in), "A rejected pack should read back as null.");
+    }
+
+    // Test 2: Do workers share a batch and are the results merged?
+    @Test
+    public void testWorkersShareBatch() throws Exception {
+        List<TournamentJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            jobs.add(new TournamentJob(i, 4, i, WIN_PACK));
+        }
+        jobs.add(new TournamentJob(6, 4, 6, UNWINNABLE_PACK));
+
+        TournamentSummary summary;
+        WorkerThread first;
+        WorkerThread second;
+        try (TournamentCoordinator coordinator = new TournamentCoordinator("0")) {
+            first = startWorker(coordinator.getAddress(), "worker1");
+            second = startWorker(coordinator.getAddress(), "worker2");
+            summary = coordinator.run(jobs);
+        }
+        first.joinCleanly();
+        second.joinCleanly();
+
+        assertEquals(7, summary.getGames(), "Every job should produce a result.");
+        assertEquals(1, summary.getRejected(), "The unwinnable pack should be rejected.");
+        assertEquals(6, summary.getOutcomeCount(GameResult.Outcome.IMMEDIATE_WIN), "Six games should be immediate wins.");
+        assertEquals(6, summary.getWins(0), "Player 1 should win every immediate win.");
+    }
+
+    // Test 3: Does the coordinator work over a Unix-domain socket?
+    @Test
+    public void testUnixDomainSocket() throws Exception {
+        File socket = new File(OUTPUT, "coordinator.sock");
+        OUTPUT.mkdirs();
+
+        WorkerThread worker;
+        TournamentSummary summary;
+        try (TournamentCoordinator coordinator = new TournamentCoordinator(socket.getPath())) {
+            worker = startWorker(coordinator.getAddress(), "worker1");
+            summary = coordinator.run(List.of(new TournamentJob(0, 4, 1, WIN_PACK)));
+        }
+        worker.joinCleanly();
+
+        assertEquals(1, summary.getGames(), "The job should be played over the socket.");
+        assertFalse(socket.exists(), "The socket file should be removed on close.");
+    }
+
+    // Test 4: Do launched worker JVMs play the batch?
+    @Test
+    public void testLaunchedWorkers() throws Exception {
+        List<TournamentJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            jobs.add(new TournamentJob(i, 4, i, new File(WIN_PACK).getAbsolutePath()));
+        }
+
+        TournamentSummary summary;
+        try (TournamentCoordinator coordinator = new TournamentCoordinator("0")) {
+            coordinator.launchWorkers(2, OUTPUT, 0);
+            summary = coordinator.run(jobs);
+        }
+
+        assertEquals(4, summary.getGames(), "The launched workers should play every job.");
+        assertEquals(4, summary.getWins(0), "Player 1 should win every game.");
+        assertTrue(new File(OUTPUT, "worker1").isDirectory() || new File(OUTPUT, "worker2").isDirectory(),
+                "A launched worker should write under its own directory.");
+    }
+
+    // Test 5: Does a run fail, rather than wait forever, once every worker has gone?
+    @Test
+    public void testRunFailsWhenWorkersAreGone() throws Exception {
+        try (TournamentCoordinator coordinator = new TournamentCoordinator("0")) {
+            // A worker that takes one job and disconnects without playing it
+            Thread quitter = new Thread(() -> {
+                try (SocketChannel channel = TournamentProtocol.connect(coordinator.getAddress());
+                     DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+                     DataOutputStream out = new DataOutputStream(Channels.newOutputStream(channel))) {
+                    out.writeByte(TournamentProtocol.READY);
+                    out.flush();
+                    in.readByte();
+                    TournamentProtocol.readJob(in);
+                } catch (IOException e) {
+                    // Leaving is the point
+                }
+            });
+            quitter.start();
+
+            List<TournamentJob> jobs = List.of(new TournamentJob(0, 4, 1, WIN_PACK), new TournamentJob(1, 4, 2, WIN_PACK));
+            IOException failure = assertThrows(IOException.class, () -> coordinator.run(jobs),
+                    "The run should fail once no worker is left.");
+            assertTrue(failure.getMessage().contains("2 of 2"), "The failure should count the unplayed games.");
+            quitter.join();
+        }
+    }
+}
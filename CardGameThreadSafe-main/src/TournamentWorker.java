@@ -0,0 +1,97 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Plays games handed out by a TournamentCoordinator, one at a time, until told to stop.
+ * Keeps one pooled CardGame per player count and resets it for each job, writing its files
+ * under its own output directory so several workers can share a machine.
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public class TournamentWorker {
+    private final File outputDirectory;
+    private final long turnLimit;
+    private final Map<Integer, CardGame> games = new HashMap<>();
+
+    /**
+     * @param outputDirectory where this worker writes its player and deck files
+     * @param turnLimit the turn budget of every game, or 0 for no limit
+     */
+    public TournamentWorker(File outputDirectory, long turnLimit) {
+        this.outputDirectory = outputDirectory;
+        this.turnLimit = turnLimit;
+    }
+
+    /**
+     * Usage: java TournamentWorker address outputDirectory [turnLimit]
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: java TournamentWorker <port or socket path> <output directory> [turn limit]");
+            return;
+        }
+        long turnLimit = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        try {
+            new TournamentWorker(new File(args[1]), turnLimit).run(args[0]);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Connects to the coordinator and plays jobs until it has no more.
+     *
+     * @param address the coordinator's port or socket path
+     * @throws IOException if the connection fails
+     */
+    public void run(String address) throws IOException {
+        try (SocketChannel channel = TournamentProtocol.connect(address);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+            out.writeByte(TournamentProtocol.READY);
+            out.flush();
+
+            while (in.readByte() == TournamentProtocol.JOB) {
+                TournamentJob job = TournamentProtocol.readJob(in);
+                GameResult result = play(job);
+                TournamentProtocol.writeResult(out, job.getId(), job.getPlayers(), result);
+                out.flush();
+            }
+        } finally {
+            for (CardGame game : games.values()) {
+                game.close();
+            }
+        }
+    }
+
+    private GameResult play(TournamentJob job) {
+        CardGame game = games.computeIfAbsent(job.getPlayers(), n -> {
+            CardGame created = new CardGame(n, job.getPackFilePath());
+            created.setPooled(true);
+            created.setConsoleOutput(false);
+            created.setTurnLimit(turnLimit);
+            created.setClock(new SimulatedClock()); // Batch games do not need visible pacing
+            created.setPackCache(PackCache.SHARED); // Jobs usually replay the same few packs
+            created.setOutputDirectory(new File(outputDirectory, n + "_players"));
+            return created;
+        });
+        game.reset(job.getPackFilePath());
+        game.setSeed(job.getSeed());
+        try {
+            return game.playAgain();
+        } catch (RuntimeException e) {
+            // A bad pack must not take the worker down, or the job would be handed to the next worker
+            System.err.println("Error in " + job + ": " + e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Times finding every winning hand of a large deal three ways: with a stream per hand, as players used to,
+ * with PackAnalysis.isWinningHand per hand, and with one WinScanner pass over all hands.
+ * Each way runs a few warm-up rounds first so the JIT has compiled it; the best round is reported.
+ * Usage: java WinScannerBenchmark [players] [rounds]
+ *
+ * @author 730093467 & 730034362
+ * @version 1.0
+ */
+public final class WinScannerBenchmark {
+    private static final int WARM_UP_ROUNDS = 5;
+
+    private WinScannerBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        List<List<Card>> hands = deal(players, new SplittableRandom(42));
+        WinScanner scanner = WinScanner.of(hands);
+        int[] winners = new int[players];
+
+        long stream = best(rounds, () -> {
+            int count = 0;
+            for (List<Card> hand : hands) {
+                if (hand.size() == 4 && hand.stream().map(Card::getFaceValue).distinct().count() == 1) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        long perHand = best(rounds, () -> {
+            int count = 0;
+            for (List<Card> hand : hands) {
+                if (PackAnalysis.isWinningHand(hand)) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        long batch = best(rounds, () -> scanner.scan(winners));
+
+        System.out.printf("%d hands, %d winners%n", players, scanner.scan(winners));
+        report("stream per hand", stream, players);
+        report("loop per hand", perHand, players);
+        report("batch scan", batch, players);
+    }
+
+    // Hands built around one denomination with some cards changed, so about a quarter of them win
+    static List<List<Card>> deal(int players, SplittableRandom random) {
+        List<List<Card>> hands = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            List<Card> hand = new ArrayList<>(4);
+            int denomination = random.nextInt(1, 8);
+            for (int j = 0; j < 4; j++) {
+                hand.add(Card.valueOf(random.nextInt(3) == 0 ? random.nextInt(1, 8) : denomination));
+            }
+            hands.add(hand);
+        }
+        return hands;
+    }
+
+    private interface Scan {
+        int winners();
+    }
+
+    // The fastest of the timed rounds, after the warm-up rounds
+    private static long best(int rounds, Scan scan) {
+        long best = Long.MAX_VALUE;
+        int check = 0;
+        for (int round = 0; round < WARM_UP_ROUNDS + rounds; round++) {
+            long start = System.nanoTime();
+            check += scan.winners();
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARM_UP_ROUNDS) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        if (check < 0) {
+            System.out.println(check); // Keeps the JIT from discarding the scans
+        }
+        return best;
+    }
+
+    private static void report(String name, long nanos, int players) {
+        System.out.printf("%-16s %9.3f ms  %6.2f ns per hand%n", name, nanos / 1e6, (double) nanos / players);
+    }
+}
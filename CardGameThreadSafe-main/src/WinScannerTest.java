@@ -0,0 +1,69 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class WinScannerTest {
+
+    private static List<Card> hand(int... values) {
+        List<Card> hand = new ArrayList<>();
+        for (int value : values) {
+            hand.add(Card.valueOf(value));
+        }
+        return hand;
+    }
+
+    // Test 1: Does the scan agree with checking each hand on its own?
+    @Test
+    public void testMatchesPerHandCheck() {
+        List<List<Card>> hands = WinScannerBenchmark.deal(1000, new SplittableRandom(7));
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < hands.size(); i++) {
+            if (PackAnalysis.isWinningHand(hands.get(i))) {
+                expected.add(i);
+            }
+        }
+
+        int[] winners = WinScanner.of(hands).scan();
+        List<Integer> actual = new ArrayList<>();
+        for (int winner : winners) {
+            actual.add(winner);
+        }
+        assertFalse(expected.isEmpty(), "The random deal should contain winners.");
+        assertEquals(expected, actual, "The scan should find exactly the winning hands, in player order.");
+    }
+
+    // Test 2: Are players past the last full block of 64 scanned?
+    @Test
+    public void testPartialLastBlock() {
+        WinScanner scanner = new WinScanner(130);
+        for (int i = 0; i < 130; i++) {
+            scanner.setHand(i, 1, 2, 3, 4);
+        }
+        scanner.setHand(0, 5, 5, 5, 5);
+        scanner.setHand(63, 6, 6, 6, 6);
+        scanner.setHand(64, 7, 7, 7, 7);
+        scanner.setHand(129, 8, 8, 8, 8);
+
+        assertArrayEquals(new int[]{0, 63, 64, 129}, scanner.scan(), "Winners at block edges should all be found.");
+    }
+
+    // Test 3: Can a hand that is not four cards ever win?
+    @Test
+    public void testWrongSizedHandsNeverWin() {
+        WinScanner scanner = WinScanner.of(List.of(hand(3, 3, 3), hand(3, 3, 3, 3, 3), hand(), hand(2, 2, 2, 2)));
+
+        assertArrayEquals(new int[]{3}, scanner.scan(), "Only the four-card hand should win.");
+        assertEquals(4, scanner.getPlayers(), "Every hand should be counted.");
+    }
+
+    // Test 4: Does a nearly matching hand lose, whichever card differs?
+    @Test
+    public void testOneDifferentCardLoses() {
+        WinScanner scanner = WinScanner.of(List.of(hand(4, 9, 9, 9), hand(9, 4, 9, 9), hand(9, 9, 4, 9), hand(9, 9, 9, 4)));
+
+        assertEquals(0, scanner.scan(new int[4]), "No hand with a different card should win.");
+    }
+}